@@ -2,12 +2,21 @@ package com.ro.petrol_pump_ai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class PetrolPumpAiApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(PetrolPumpAiApplication.class, args);
+		SpringApplication application = new SpringApplication(PetrolPumpAiApplication.class);
+		// Defaults only; application.properties can still override them
+		application.setDefaultProperties(Map.of(
+			"management.endpoints.web.exposure.include", "health,info,metrics,prometheus",
+			"management.metrics.tags.application", "petrol-pump-ai"));
+		application.run(args);
 	}
 
 }
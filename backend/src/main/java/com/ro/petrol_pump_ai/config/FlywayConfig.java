@@ -0,0 +1,35 @@
+package com.ro.petrol_pump_ai.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class FlywayConfig {
+
+    // Migrations live under db/migration/{vendor}. Databases without a folder (the embedded
+    // test database) have nothing to migrate and keep their Hibernate-generated schema.
+    // Databases created before migrations existed are baselined at V1 and pick up from V1.1.
+    @Bean
+    public FlywayConfigurationCustomizer vendorMigrations(DataSource dataSource) {
+        return configuration -> configuration
+            .locations("classpath:db/migration/" + vendorOf(dataSource))
+            .baselineOnMigrate(true)
+            .baselineVersion("1");
+    }
+
+    private static String vendorOf(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(product).getId();
+        } catch (MetaDataAccessException e) {
+            throw new RuntimeException("Could not detect database vendor for migrations", e);
+        }
+    }
+}
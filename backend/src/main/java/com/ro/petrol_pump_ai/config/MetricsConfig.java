@@ -0,0 +1,120 @@
+package com.ro.petrol_pump_ai.config;
+
+import com.ro.petrol_pump_ai.service.OcrJobService;
+import com.ro.petrol_pump_ai.service.OcrResultCache;
+import com.ro.petrol_pump_ai.service.SalesAnalyticsCache;
+import com.ro.petrol_pump_ai.service.TesseractEnginePool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Latency histograms with SLO buckets for the HTTP endpoints, repository methods,
+ * OCR and payroll, plus gauges for the OCR queue and hit/miss counters for the in-app
+ * caches. Hikari pool metrics come from Spring Boot. Everything is scraped from
+ * /actuator/prometheus; p50/p95/p99 come from histogram_quantile over the
+ * buckets, which aggregates across instances where client-side percentiles would not.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Value("${metrics.slo.http:50ms,100ms,250ms,500ms,1s,2s}")
+    private Duration[] httpSlo;
+
+    @Value("${metrics.slo.repository:5ms,10ms,25ms,50ms,100ms,250ms}")
+    private Duration[] repositorySlo;
+
+    @Value("${metrics.slo.ocr:1s,2s,5s,10s,30s}")
+    private Duration[] ocrSlo;
+
+    @Value("${metrics.slo.payroll:100ms,500ms,1s,5s,30s,2m}")
+    private Duration[] payrollSlo;
+
+    @Bean
+    public MeterFilter latencyDistributions() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                Duration[] slo = sloFor(id.getName());
+                if (slo == null) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentilesHistogram(true)
+                    .serviceLevelObjectives(Arrays.stream(slo).mapToDouble(Duration::toNanos).toArray())
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+
+    private Duration[] sloFor(String name) {
+        if (name.equals("http.server.requests")) {
+            return httpSlo;
+        }
+        if (name.equals("spring.data.repository.invocations")) {
+            return repositorySlo;
+        }
+        if (name.startsWith("ocr.")) {
+            return ocrSlo;
+        }
+        if (name.startsWith("payroll.")) {
+            return payrollSlo;
+        }
+        return null;
+    }
+
+    @Bean
+    public MeterBinder ocrQueueMetrics(OcrJobService ocrJobService, TesseractEnginePool enginePool) {
+        return registry -> {
+            Gauge.builder("ocr.jobs.queue.depth", ocrJobService, service -> service.getStats().getQueueDepth())
+                .description("OCR jobs waiting for a worker").register(registry);
+            Gauge.builder("ocr.jobs.active", ocrJobService, service -> service.getStats().getActiveWorkers())
+                .description("OCR jobs being processed").register(registry);
+            Gauge.builder("ocr.jobs.queue.capacity", ocrJobService, service -> service.getStats().getQueueCapacity())
+                .register(registry);
+            Gauge.builder("ocr.engines.available", enginePool, TesseractEnginePool::getAvailable)
+                .description("Idle Tesseract engines").register(registry);
+            jobCounter(registry, ocrJobService, "submitted", service -> service.getStats().getSubmitted());
+            jobCounter(registry, ocrJobService, "completed", service -> service.getStats().getCompleted());
+            jobCounter(registry, ocrJobService, "failed", service -> service.getStats().getFailed());
+            jobCounter(registry, ocrJobService, "rejected", service -> service.getStats().getRejected());
+        };
+    }
+
+    // Same names and tags as Micrometer's cache binders, so hit ratio is cache_gets{result="hit"} / cache_gets
+    @Bean
+    public MeterBinder cacheMetrics(OcrResultCache ocrResultCache, SalesAnalyticsCache salesAnalyticsCache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", ocrResultCache, OcrResultCache::getHits)
+                .tags("cache", "ocr-results", "result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", ocrResultCache, OcrResultCache::getMisses)
+                .tags("cache", "ocr-results", "result", "miss").register(registry);
+            Gauge.builder("cache.size", ocrResultCache, OcrResultCache::size)
+                .tags("cache", "ocr-results").register(registry);
+
+            FunctionCounter.builder("cache.gets", salesAnalyticsCache, SalesAnalyticsCache::getHits)
+                .tags("cache", "sales-analytics", "result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", salesAnalyticsCache, SalesAnalyticsCache::getMisses)
+                .tags("cache", "sales-analytics", "result", "miss").register(registry);
+            Gauge.builder("cache.size", salesAnalyticsCache, SalesAnalyticsCache::size)
+                .tags("cache", "sales-analytics").register(registry);
+        };
+    }
+
+    private static void jobCounter(MeterRegistry registry, OcrJobService service,
+                                   String result, ToDoubleFunction<OcrJobService> count) {
+        FunctionCounter.builder("ocr.jobs", service, count).tags("result", result).register(registry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ro.petrol_pump_ai.config;
+
+import com.ro.petrol_pump_ai.service.OutletService;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Selects the outlet for each API request from the X-Outlet-Id header, falling
+ * back to the default outlet so single-outlet clients keep working. Shared
+ * endpoints (the outlet catalogue and OCR jobs) run without an outlet.
+ */
+@Component
+public class OutletFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Outlet-Id";
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private OutletService outletService;
+
+    @Value("${outlets.default-id:1}")
+    private Long defaultOutletId;
+
+    @Value("${outlets.shared-paths:/api/outlets/**,/api/challans/ocr-jobs/**,/api/challans/upload-extract/**}")
+    private List<String> sharedPaths;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!MATCHER.match("/api/**", path) || sharedPaths.stream().anyMatch(shared -> MATCHER.match(shared, path))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Long outletId = defaultOutletId;
+        String header = request.getHeader(HEADER);
+        if (header != null && !header.isBlank()) {
+            try {
+                outletId = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                outletId = null;
+            }
+        }
+        if (outletId == null || !outletService.exists(outletId)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\": \"Outlet not found\"}");
+            return;
+        }
+
+        OutletContext.set(outletId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            OutletContext.clear();
+        }
+    }
+}
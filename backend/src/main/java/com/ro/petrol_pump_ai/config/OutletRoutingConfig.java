@@ -0,0 +1,100 @@
+package com.ro.petrol_pump_ai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional sharding of outlets across databases. With database.routing.enabled=true,
+ * each database.routing.shards.{name} entry (url, username, password, outlets)
+ * gets its own Hikari pool, and requests for the listed outlets run against it.
+ * Everything else, including the outlet catalogue and OCR jobs, stays on
+ * spring.datasource. All pools share the spring.datasource.hikari settings and
+ * every database is migrated at startup.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "database.routing.enabled", havingValue = "true")
+public class OutletRoutingConfig {
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private List<Long> outlets = new ArrayList<>();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<String, Shard> shards = binder.bind("database.routing.shards", Bindable.mapOf(String.class, Shard.class))
+            .orElseThrow(() -> new IllegalStateException("database.routing.shards must list at least one shard"));
+
+        HikariDataSource defaultPool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configure(defaultPool, binder, "default", meterRegistry);
+
+        Map<Object, Object> pools = new LinkedHashMap<>();
+        Map<Long, String> shardByOutlet = new HashMap<>();
+        shards.forEach((name, shard) -> {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            configure(pool, binder, name, meterRegistry);
+            pools.put(name, pool);
+            for (Long outletId : shard.getOutlets()) {
+                String previous = shardByOutlet.put(outletId, name);
+                if (previous != null) {
+                    throw new IllegalStateException("Outlet " + outletId + " is mapped to shards " + previous + " and " + name);
+                }
+            }
+        });
+        log.info("Routing outlets {} across shards {}", shardByOutlet, pools.keySet());
+
+        OutletRoutingDataSource routing = new OutletRoutingDataSource(shardByOutlet);
+        routing.setTargetDataSources(pools);
+        routing.setDefaultTargetDataSource(defaultPool);
+        routing.setLenientFallback(false);
+        return routing;
+    }
+
+    // Flyway only sees the primary (routed, so default) database; shards are migrated the same way after it
+    @Bean
+    public FlywayMigrationStrategy shardMigrations(DataSource dataSource) {
+        return flyway -> {
+            flyway.migrate();
+            ((AbstractRoutingDataSource) dataSource).getResolvedDataSources().forEach((name, shard) -> {
+                log.info("Migrating shard {}", name);
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            });
+        };
+    }
+
+    private static void configure(HikariDataSource pool, Binder binder, String name, MeterRegistry meterRegistry) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("outlets-" + name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,21 @@
+package com.ro.petrol_pump_ai.config;
+
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Map;
+
+// Sends each connection to the shard holding the current outlet; unmapped outlets and root use the default database
+public class OutletRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Map<Long, String> shardByOutlet;
+
+    public OutletRoutingDataSource(Map<Long, String> shardByOutlet) {
+        this.shardByOutlet = shardByOutlet;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardByOutlet.get(OutletContext.get());
+    }
+}
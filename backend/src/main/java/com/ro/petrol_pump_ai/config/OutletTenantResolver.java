@@ -0,0 +1,34 @@
+package com.ro.petrol_pump_ai.config;
+
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Hands Hibernate the current outlet; root sessions skip the outlet filter
+@Component
+public class OutletTenantResolver implements CurrentTenantIdentifierResolver<Long>, HibernatePropertiesCustomizer {
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() {
+        return OutletContext.get();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(Long outletId) {
+        return OutletContext.ROOT.equals(outletId);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ro.petrol_pump_ai.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    // Streamed report downloads run as async requests; the container default (30s) cuts off long exports
+    @Value("${reports.stream-timeout-ms:3600000}")
+    private long streamTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(streamTimeoutMs);
+    }
+}
@@ -1,30 +1,57 @@
 package com.ro.petrol_pump_ai.controller;
 
+import com.ro.petrol_pump_ai.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/analytics")
 @CrossOrigin(origins = "*")
 public class AnalyticsController {
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // Defaults to the last 30 days, by day
     @GetMapping("/sales")
     public ResponseEntity<?> getSalesAnalytics(
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
-        // TODO: Implement sales analytics logic
-        return ResponseEntity.ok("Sales analytics data");
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            LocalDate start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(29);
+            return ResponseEntity.ok(analyticsService.getSalesAnalytics(start, end, granularity));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
+    // Defaults to the last 30 days
     @GetMapping("/inventory")
-    public ResponseEntity<?> getInventoryAnalytics() {
-        // TODO: Implement inventory analytics logic
-        return ResponseEntity.ok("Inventory analytics data");
+    public ResponseEntity<?> getInventoryAnalytics(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            LocalDate start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(29);
+            return ResponseEntity.ok(analyticsService.getInventoryAnalytics(start, end));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
     @GetMapping("/predictive")
     public ResponseEntity<?> getPredictiveAnalytics() {
-        // TODO: Implement predictive analytics logic
-        return ResponseEntity.ok("Predictive analytics data");
+        try {
+            return ResponseEntity.ok(analyticsService.getPredictiveAnalytics());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 }
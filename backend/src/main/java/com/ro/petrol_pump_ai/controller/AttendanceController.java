@@ -2,12 +2,18 @@ package com.ro.petrol_pump_ai.controller;
 
 import com.ro.petrol_pump_ai.dto.AttendanceRequest;
 import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.AttendanceSummaryResponse;
+import com.ro.petrol_pump_ai.dto.ShiftAttendanceRequest;
+import com.ro.petrol_pump_ai.dto.ShiftAttendanceResponse;
+import com.ro.petrol_pump_ai.service.AttendanceBulkService;
 import com.ro.petrol_pump_ai.service.AttendanceService;
+import com.ro.petrol_pump_ai.service.AttendanceSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -18,6 +24,12 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
     
+    @Autowired
+    private AttendanceBulkService attendanceBulkService;
+    
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+    
     @PostMapping("/mark")
     public ResponseEntity<?> markAttendance(@RequestBody AttendanceRequest request) {
         try {
@@ -29,6 +41,21 @@ public class AttendanceController {
         }
     }
     
+    // Clock-outs and marks for a whole shift change; send an Idempotency-Key so retries are applied once
+    @PostMapping("/shift")
+    public ResponseEntity<?> recordShift(
+        @RequestBody ShiftAttendanceRequest request,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            ShiftAttendanceResponse response = attendanceBulkService.recordShift(request, idempotencyKey);
+            HttpStatus status = response.getAcceptedRows() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
     @PostMapping("/clock-out/{employeeId}")
     public ResponseEntity<?> clockOut(@PathVariable Long employeeId) {
         try {
@@ -51,6 +78,19 @@ public class AttendanceController {
         }
     }
     
+    // Counts and worked hours per employee for a month (yyyy-MM), the current one by default
+    @GetMapping("/summary")
+    public ResponseEntity<?> getMonthSummary(@RequestParam(required = false) String month) {
+        try {
+            YearMonth yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+            List<AttendanceSummaryResponse> responses = attendanceSummaryService.getMonthSummary(yearMonth);
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
     @GetMapping("/employee/{employeeId}")
     public ResponseEntity<?> getEmployeeAttendanceByDateRange(
         @PathVariable Long employeeId,
@@ -1,15 +1,22 @@
 package com.ro.petrol_pump_ai.controller;
 
-import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
 import com.ro.petrol_pump_ai.dto.ChallanRequest;
+import com.ro.petrol_pump_ai.dto.OcrJobResponse;
 import com.ro.petrol_pump_ai.entity.Challan;
 import com.ro.petrol_pump_ai.service.ChallanService;
-import com.ro.petrol_pump_ai.service.OCRService;
+import com.ro.petrol_pump_ai.service.OcrJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/challans")
@@ -20,20 +27,99 @@ public class ChallanController {
     private ChallanService challanService;
 
     @Autowired
-    private OCRService ocrService;
+    private OcrJobService ocrJobService;
 
-    // Upload and extract with OCR only
+    // Upload and extract with OCR only; the request thread is released while the job runs
     @PostMapping("/upload-extract")
-    public ResponseEntity<?> uploadAndExtract(@RequestParam("file") MultipartFile file) {
+    public CompletableFuture<ResponseEntity<?>> uploadAndExtract(@RequestParam("file") MultipartFile file) {
         try {
-            ChallanExtractedData extractedData = ocrService.extractChallanData(file);
-            return ResponseEntity.ok(extractedData);
+            OcrJobResponse job = ocrJobService.submit(file);
+            return ocrJobService.awaitResult(job.getJobId())
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage())));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(queueFull());
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage()));
+        }
+    }
+
+    // Queue an OCR job and return its id immediately
+    @PostMapping("/ocr-jobs")
+    public ResponseEntity<?> submitOcrJob(@RequestParam("file") MultipartFile file) {
+        try {
+            OcrJobResponse job = ocrJobService.submit(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            return queueFull();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error: " + e.getMessage());
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    @GetMapping("/ocr-jobs")
+    public ResponseEntity<?> getRecentOcrJobs() {
+        return ResponseEntity.ok(ocrJobService.getRecentJobs());
+    }
+
+    @GetMapping("/ocr-jobs/stats")
+    public ResponseEntity<?> getOcrQueueStats() {
+        return ResponseEntity.ok(ocrJobService.getStats());
+    }
+
+    // Re-run field extraction on stored OCR text after the extraction rules change
+    @PostMapping("/ocr-jobs/reextract")
+    public ResponseEntity<?> reextractOcrJobs() {
+        try {
+            return ResponseEntity.ok(ocrJobService.reextractCompletedJobs());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    // Poll job status; result is populated once COMPLETED
+    @GetMapping("/ocr-jobs/{jobId}")
+    public ResponseEntity<?> getOcrJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(ocrJobService.getJob(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
         }
     }
 
+    // Subscribe instead of polling: "page" events as pages are read, then a final "job" event
+    @GetMapping("/ocr-jobs/{jobId}/events")
+    public ResponseEntity<SseEmitter> subscribeToOcrJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(ocrJobService.subscribe(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    // Upload and stream per-page OCR results back on the same request
+    @PostMapping("/upload-extract/stream")
+    public ResponseEntity<SseEmitter> uploadAndStream(@RequestParam("file") MultipartFile file) {
+        try {
+            OcrJobResponse job = ocrJobService.submit(file);
+            return ResponseEntity.ok(ocrJobService.subscribe(job.getJobId()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "30").build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<?> queueFull() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body("{\"error\": \"OCR queue is full, retry later\"}");
+    }
+
     // Save challan
     @PostMapping
     public ResponseEntity<Challan> saveChallan(@RequestBody ChallanRequest request) {
@@ -53,9 +139,24 @@ public class ChallanController {
         }
     }
 
-    // Get all
+    // Newest first, one page at a time; follow nextCursor for the next page
     @GetMapping
-    public ResponseEntity<?> getAll() {
-        return ResponseEntity.ok(challanService.getAll());
+    public ResponseEntity<?> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String fuelType,
+            @RequestParam(required = false) String vendor) {
+        try {
+            return ResponseEntity.ok(challanService.getAll(cursor, limit,
+                    startDate != null ? LocalDate.parse(startDate) : null,
+                    endDate != null ? LocalDate.parse(endDate) : null,
+                    fuelType, vendor));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"Invalid date\"}");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 }
@@ -1,12 +1,16 @@
 package com.ro.petrol_pump_ai.controller;
 
+import com.ro.petrol_pump_ai.dto.BulkDailyEntryResponse;
 import com.ro.petrol_pump_ai.dto.DailyEntryRequest;
 import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.service.DailyEntryBulkService;
 import com.ro.petrol_pump_ai.service.DailyEntryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,6 +21,9 @@ public class DailyEntryController {
     @Autowired
     private DailyEntryService dailyEntryService;
     
+    @Autowired
+    private DailyEntryBulkService dailyEntryBulkService;
+    
     @PostMapping
     public ResponseEntity<?> createDailyEntry(@RequestBody DailyEntryRequest request) {
         try {
@@ -28,6 +35,41 @@ public class DailyEntryController {
         }
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createDailyEntries(@RequestBody List<DailyEntryRequest> requests) {
+        try {
+            return bulkResult(dailyEntryBulkService.createDailyEntries(requests));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> importCsv(InputStream body) {
+        try {
+            return bulkResult(dailyEntryBulkService.importCsv(body));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importNdjson(InputStream body) {
+        try {
+            return bulkResult(dailyEntryBulkService.importNdjson(body));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    private ResponseEntity<BulkDailyEntryResponse> bulkResult(BulkDailyEntryResponse response) {
+        HttpStatus status = response.getAcceptedRows() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getEntryById(@PathVariable Long id) {
         try {
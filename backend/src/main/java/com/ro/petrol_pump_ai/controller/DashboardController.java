@@ -1,11 +1,14 @@
 package com.ro.petrol_pump_ai.controller;
 
 import com.ro.petrol_pump_ai.dto.DashboardResponse;
+import com.ro.petrol_pump_ai.service.DashboardEventHub;
 import com.ro.petrol_pump_ai.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -14,6 +17,9 @@ public class DashboardController {
     
     @Autowired
     private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardEventHub dashboardEventHub;
     
     @GetMapping
     public ResponseEntity<?> getDashboardData() {
@@ -25,4 +31,10 @@ public class DashboardController {
                 .body("{\"error\": \"" + e.getMessage() + "\"}");
         }
     }
+
+    // A "snapshot" event, then an "update" event with the changed cards after each committed entry change
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardEventHub.subscribe();
+    }
 }
@@ -40,10 +40,14 @@ public class EmployeeController {
     }
     
     @GetMapping
-    public ResponseEntity<?> getAllEmployees() {
+    public ResponseEntity<?> getAllEmployees(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<EmployeeResponse> responses = employeeService.getAllEmployees();
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(employeeService.getAllEmployees(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("{\"error\": \"" + e.getMessage() + "\"}");
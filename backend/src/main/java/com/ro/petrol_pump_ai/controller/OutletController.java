@@ -0,0 +1,40 @@
+package com.ro.petrol_pump_ai.controller;
+
+import com.ro.petrol_pump_ai.dto.OutletRequest;
+import com.ro.petrol_pump_ai.dto.OutletResponse;
+import com.ro.petrol_pump_ai.service.OutletService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Every other API call picks its outlet with the X-Outlet-Id header
+@RestController
+@RequestMapping("/api/outlets")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class OutletController {
+    
+    @Autowired
+    private OutletService outletService;
+    
+    @GetMapping
+    public ResponseEntity<?> getAllOutlets() {
+        try {
+            return ResponseEntity.ok(outletService.getAllOutlets());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @PostMapping
+    public ResponseEntity<?> createOutlet(@RequestBody OutletRequest request) {
+        try {
+            OutletResponse response = outletService.createOutlet(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ro.petrol_pump_ai.controller;
+
+import com.ro.petrol_pump_ai.dto.PayrollRunResponse;
+import com.ro.petrol_pump_ai.dto.SalarySlipResponse;
+import com.ro.petrol_pump_ai.dto.SalaryStructureRequest;
+import com.ro.petrol_pump_ai.dto.SalaryStructureResponse;
+import com.ro.petrol_pump_ai.service.PayrollService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payroll")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PayrollController {
+    
+    @Autowired
+    private PayrollService payrollService;
+    
+    @GetMapping("/structures")
+    public ResponseEntity<?> getSalaryStructures() {
+        try {
+            List<SalaryStructureResponse> responses = payrollService.getSalaryStructures();
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @PutMapping("/structures/{employeeId}")
+    public ResponseEntity<?> saveSalaryStructure(@PathVariable Long employeeId,
+                                                 @RequestBody SalaryStructureRequest request) {
+        try {
+            SalaryStructureResponse response = payrollService.saveSalaryStructure(employeeId, request);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    // Starts the month's payroll (yyyy-MM) in the background; starting a failed run again resumes it
+    @PostMapping("/runs/{month}")
+    public ResponseEntity<?> startRun(@PathVariable String month) {
+        try {
+            PayrollRunResponse response = payrollService.startRun(YearMonth.parse(month));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @GetMapping("/runs")
+    public ResponseEntity<?> getRuns() {
+        try {
+            List<PayrollRunResponse> responses = payrollService.getRuns();
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @GetMapping("/runs/{month}")
+    public ResponseEntity<?> getRun(@PathVariable String month) {
+        try {
+            PayrollRunResponse response = payrollService.getRun(YearMonth.parse(month));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @GetMapping("/slips/{month}")
+    public ResponseEntity<?> getSalarySlips(@PathVariable String month) {
+        try {
+            List<SalarySlipResponse> responses = payrollService.getSalarySlips(YearMonth.parse(month));
+            return ResponseEntity.ok(responses);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+    
+    @GetMapping("/slips/{month}/employee/{employeeId}")
+    public ResponseEntity<?> getSalarySlip(@PathVariable String month, @PathVariable Long employeeId) {
+        try {
+            SalarySlipResponse response = payrollService.getSalarySlip(employeeId, YearMonth.parse(month));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+}
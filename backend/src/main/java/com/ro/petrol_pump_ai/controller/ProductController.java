@@ -2,13 +2,14 @@ package com.ro.petrol_pump_ai.controller;
 
 import com.ro.petrol_pump_ai.dto.ProductResponse;
 import com.ro.petrol_pump_ai.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.MediaType;
-import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -19,10 +20,14 @@ public class ProductController {
 
     // GET ALL PRODUCTS
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<ProductResponse> responses = productService.getAllProducts();
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(productService.getAllProducts(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("{\"error\": \"" + e.getMessage() + "\"}");
@@ -97,7 +102,7 @@ public class ProductController {
     public ResponseEntity<String> initializeDefaultProducts() {
         try {
             productService.initializeDefaultProducts();
-            System.out.println("initializeDefaultProducts endpoint called!");
+            log.info("initializeDefaultProducts endpoint called");
             return ResponseEntity.ok("{\"message\": \"Default products initialized\"}");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
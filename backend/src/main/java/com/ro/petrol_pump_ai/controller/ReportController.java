@@ -1,10 +1,138 @@
 package com.ro.petrol_pump_ai.controller;
 
+import com.ro.petrol_pump_ai.service.ReportArchive;
+import com.ro.petrol_pump_ai.service.ReportService;
+import com.ro.petrol_pump_ai.util.GzipFileResource;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
 @RestController
 @RequestMapping("/api/reports")
 @CrossOrigin(origins = "*")
 public class ReportController {
-    // Controller methods will be implemented here
+
+    private static final MediaType XLSX =
+        MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportArchive reportArchive;
+
+    // sales-ledger, stock-register, attendance-register or challan-register; defaults to the current month as CSV
+    @GetMapping("/{report}")
+    public ResponseEntity<StreamingResponseBody> exportReport(
+            @PathVariable String report,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "csv") String format) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            start = startDate != null ? LocalDate.parse(startDate) : end.withDayOfMonth(1);
+            if (start.isAfter(end)) {
+                throw new RuntimeException("Start date must not be after end date");
+            }
+            if (!format.equalsIgnoreCase("csv") && !format.equalsIgnoreCase("xlsx")) {
+                throw new RuntimeException("Format must be csv or xlsx");
+            }
+        } catch (Exception e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!reportService.isReport(report)) {
+            return error(HttpStatus.NOT_FOUND, "Report not found");
+        }
+
+        Long outletId = OutletContext.require();
+        boolean xlsx = format.equalsIgnoreCase("xlsx");
+        String filename = report + "_" + start + "_" + end + (xlsx ? ".xlsx" : ".csv");
+        return ResponseEntity.ok()
+            .contentType(xlsx ? XLSX : new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(out -> reportService.export(report, outletId, start, end, format, out));
+    }
+
+    /**
+     * A pre-built month (yyyy-MM). Supports conditional requests and byte ranges;
+     * CSV goes out gzip-encoded to clients that accept it.
+     */
+    @GetMapping("/{report}/monthly/{month}")
+    public ResponseEntity<?> getMonthlyReport(
+            @PathVariable String report,
+            @PathVariable String month,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        Path file;
+        try {
+            file = reportArchive.getArchived(report, YearMonth.parse(month), format.toLowerCase());
+        } catch (Exception e) {
+            HttpStatus status = "Report not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+
+        try {
+            boolean xlsx = format.equalsIgnoreCase("xlsx");
+            boolean compressed = ReportArchive.isCompressed(format.toLowerCase());
+            boolean gzip = compressed && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            // A strong ETag from the stored bytes; each encoding is its own representation, so they differ
+            String etag = "\"" + reportArchive.getContentHash(file) + (gzip ? "-gzip" : "") + "\"";
+            Resource resource = compressed && !gzip ? new GzipFileResource(file) : new FileSystemResource(file);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(xlsx ? XLSX : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(report + "_" + month + (xlsx ? ".xlsx" : ".csv")).build().toString())
+                .eTag(etag)
+                .lastModified(lastModified);
+            if (compressed) {
+                response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            // Spring serves ranges of a Resource body but ignores If-Range, so a client resuming
+            // from an older version is sent the whole file; Spring never splits an InputStreamResource
+            if (range != null && ifRange != null && !ifRange.equals(etag)
+                    && !ifRange.equals(DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                        Instant.ofEpochMilli(lastModified / 1000 * 1000).atZone(ZoneOffset.UTC)))) {
+                return response.contentLength(resource.contentLength())
+                    .body(new InputStreamResource(resource.getInputStream()));
+            }
+            return response.body(resource);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        String body = "{\"error\": \"" + message + "\"}";
+        return ResponseEntity.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> out.write(body.getBytes(StandardCharsets.UTF_8)));
+    }
 }
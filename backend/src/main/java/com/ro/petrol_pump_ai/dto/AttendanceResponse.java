@@ -2,6 +2,8 @@ package com.ro.petrol_pump_ai.dto;
 
 import lombok.*;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 @Data
 @NoArgsConstructor
@@ -15,4 +17,15 @@ public class AttendanceResponse {
     private String checkOutTime;
     private String status;
     private String remarks;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Used by JPQL constructor expressions, which select the times as stored
+    public AttendanceResponse(Long id, Long employeeId, String employeeName, LocalDate attendanceDate,
+                              LocalTime checkInTime, LocalTime checkOutTime, String status, String remarks) {
+        this(id, employeeId, employeeName, attendanceDate,
+            checkInTime != null ? checkInTime.format(TIME_FORMAT) : null,
+            checkOutTime != null ? checkOutTime.format(TIME_FORMAT) : null,
+            status, remarks);
+    }
 }
@@ -0,0 +1,29 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummaryResponse {
+    private Long employeeId;
+    private String employeeName;
+    private LocalDate monthStart;
+    private Integer presentDays;
+    private Integer absentDays;
+    private Integer leaveDays;
+    private Integer halfDays;
+    private Double workedHours;
+
+    // Used by the month view's constructor expression; the summary columns are null for staff without one
+    public AttendanceSummaryResponse(Long employeeId, String employeeName, Integer presentDays, Integer absentDays,
+                                     Integer leaveDays, Integer halfDays, Long workedSeconds) {
+        this(employeeId, employeeName, null,
+            presentDays != null ? presentDays : 0,
+            absentDays != null ? absentDays : 0,
+            leaveDays != null ? leaveDays : 0,
+            halfDays != null ? halfDays : 0,
+            workedSeconds != null ? Math.round(workedSeconds / 36.0) / 100.0 : 0.0);
+    }
+}
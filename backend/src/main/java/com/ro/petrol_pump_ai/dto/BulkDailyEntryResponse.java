@@ -0,0 +1,25 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDailyEntryResponse {
+    
+    private Integer totalRows;
+    private Integer acceptedRows;
+    private Integer rejectedRows;
+    private List<RowResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private Integer row;     // 1-based position in the upload
+        private String status;   // CREATED, REJECTED
+        private Long entryId;    // Set when CREATED
+        private String error;    // Set when REJECTED
+    }
+}
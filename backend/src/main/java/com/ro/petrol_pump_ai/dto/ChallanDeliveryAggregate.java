@@ -0,0 +1,15 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+// Challan quantity received per date and fuel type, built by a GROUP BY query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChallanDeliveryAggregate {
+    private LocalDate date;
+    private String fuelType;  // Lower-cased and trimmed
+    private Double quantity;
+    private Long challanCount;
+}
@@ -2,6 +2,7 @@ package com.ro.petrol_pump_ai.dto;
 
 import lombok.*;
 import java.time.LocalDate;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +17,5 @@ public class ChallanExtractedData {
     private String challanNumber;
     private String rawText;         // Full OCR extracted text
     private Double confidence;      // Extraction confidence score
+    private Map<String, Double> fieldConfidence;  // Per-field confidence, 0-100
 }
@@ -0,0 +1,14 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;  // Null on the last page
+    private Integer limit;
+}
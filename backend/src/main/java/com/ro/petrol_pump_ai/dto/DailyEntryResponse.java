@@ -2,6 +2,8 @@ package com.ro.petrol_pump_ai.dto;
 
 import lombok.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @Data
 @NoArgsConstructor
@@ -20,4 +22,16 @@ public class DailyEntryResponse {
     private Double temperature;
     private String notes;
     private String createdAt;
+
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Used by JPQL constructor expressions, which select createdAt as stored
+    public DailyEntryResponse(Long id, LocalDate entryDate, String productName, Double openingStock,
+                              Double salesToday, Double underTankDelivery, Double closingStock,
+                              Double pricePerUnit, Double dailyRevenue, Double temperature, String notes,
+                              LocalDateTime createdAt) {
+        this(id, entryDate, productName, openingStock, salesToday, underTankDelivery, closingStock,
+            pricePerUnit, dailyRevenue, temperature, notes,
+            createdAt != null ? createdAt.format(CREATED_AT_FORMAT) : null);
+    }
 }
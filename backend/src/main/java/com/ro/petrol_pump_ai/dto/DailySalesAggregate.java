@@ -0,0 +1,18 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+// One row per date and product, built by a GROUP BY query
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesAggregate {
+    private LocalDate entryDate;
+    private Long productId;
+    private String productName;
+    private String unit;
+    private Double revenue;
+    private Double volume;
+    private Long entryCount;
+}
@@ -0,0 +1,20 @@
+package com.ro.petrol_pump_ai.dto;
+
+import com.ro.petrol_pump_ai.dto.DashboardResponse.StockCard;
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// The parts of the dashboard touched by a change; values are current, not increments
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardUpdate {
+
+    private List<StockCard> stockCards;
+    private List<String> removedProducts;  // Products left without any entry
+    private Double totalRevenue;  // null unless today's totals changed
+    private Integer todayEntryCount;
+    private Map<LocalDate, Double> last7DaysSalesData;  // Only the changed days
+}
@@ -2,6 +2,7 @@ package com.ro.petrol_pump_ai.dto;
 
 import lombok.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -15,4 +16,10 @@ public class EmployeeResponse {
     private LocalDate hireDate;
     private String status;
     private String createdAt;
+
+    // Used by JPQL constructor expressions, which select createdAt as stored
+    public EmployeeResponse(Long id, String name, String phone, String email, String role, LocalDate hireDate,
+                            String status, LocalDateTime createdAt) {
+        this(id, name, phone, email, role, hireDate, status, createdAt != null ? createdAt.toString() : null);
+    }
 }
@@ -0,0 +1,59 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAnalyticsResponse {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<ProductInventory> products;
+    private Long elapsedMs;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductInventory {
+        private Long productId;
+        private String productName;
+        private String unit;
+        private Double openingStock;        // First day in range
+        private Double closingStock;        // Last day in range
+        private Double totalSales;
+        private Double totalDelivered;      // underTankDelivery as entered
+        private Double totalChallanQuantity;
+        private Double shrinkage;           // Stock lost between one day's closing and the next day's opening
+        private Double shrinkagePercent;    // Of total sales
+        private Double unexplainedGain;     // Stock that appeared between days
+        private List<StockPoint> series;
+        private List<Variance> variances;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockPoint {
+        private LocalDate date;
+        private Double openingStock;
+        private Double sales;
+        private Double delivered;
+        private Double challanQuantity;
+        private Double closingStock;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variance {
+        private LocalDate date;
+        private String type;       // CONTINUITY_BREAK, MISSING_DAYS, DELIVERY_MISMATCH, UNMATCHED_CHALLAN
+        private Double expected;
+        private Double actual;
+        private Double difference;  // actual - expected
+        private String message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrBackfillResponse {
+    private Long processed;
+    private Long updated;
+    private Long failed;
+    private Long elapsedMs;
+    private Double perMinute;
+}
@@ -0,0 +1,20 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrJobResponse {
+    private String jobId;
+    private String status;  // QUEUED, PROCESSING, COMPLETED, FAILED, REJECTED
+    private String fileName;
+    private ChallanExtractedData result;  // Set once COMPLETED
+    private String error;
+    private Long queueWaitMs;
+    private Long ocrDurationMs;
+    private Boolean cacheHit;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
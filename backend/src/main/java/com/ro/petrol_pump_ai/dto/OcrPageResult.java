@@ -0,0 +1,14 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrPageResult {
+    private Integer pageNumber;  // 1-based, in document order
+    private String text;
+    private Double confidence;  // Mean word confidence, 0-100
+    private Integer wordCount;
+    private Long ocrDurationMs;
+}
@@ -0,0 +1,23 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrQueueStats {
+    private Integer workers;
+    private Integer activeWorkers;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long submitted;
+    private Long completed;
+    private Long failed;
+    private Long rejected;
+    private Double averageOcrMs;
+    private Long maxOcrMs;
+    private Double averageQueueWaitMs;
+    private Long cacheHits;
+    private Long cacheMisses;
+    private Integer cacheSize;
+}
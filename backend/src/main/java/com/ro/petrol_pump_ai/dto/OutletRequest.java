@@ -0,0 +1,11 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutletRequest {
+    private String code;
+    private String name;
+}
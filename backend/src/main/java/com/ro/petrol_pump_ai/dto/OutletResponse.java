@@ -0,0 +1,12 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutletResponse {
+    private Long id;
+    private String code;
+    private String name;
+}
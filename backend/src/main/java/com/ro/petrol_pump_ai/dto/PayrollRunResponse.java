@@ -0,0 +1,20 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRunResponse {
+    private Long id;
+    private LocalDate monthStart;
+    private String status;  // RUNNING, COMPLETED, FAILED
+    private Integer totalEmployees;
+    private Integer processedEmployees;
+    private Double slipsPerSecond;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
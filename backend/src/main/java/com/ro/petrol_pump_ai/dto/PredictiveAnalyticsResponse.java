@@ -0,0 +1,45 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PredictiveAnalyticsResponse {
+    
+    private LocalDateTime generatedAt;
+    private Integer leadTimeDays;
+    private List<ProductForecast> products;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductForecast {
+        private Long productId;
+        private String productName;
+        private String unit;
+        private Double currentStock;           // Closing stock of the latest entry
+        private LocalDate stockAsOf;
+        private Double averageDailyDemand;     // Mean forecast over the next 7 days
+        private Double forecastErrorStdDev;    // One-day-ahead, from recent errors
+        private Double daysUntilDry;           // null when the tank lasts beyond the horizon
+        private LocalDate dryDate;
+        private Double reorderPoint;           // Lead-time demand plus safety stock
+        private LocalDate reorderDate;         // Last day to order so delivery lands before the reorder point
+        private Double recommendedOrderQuantity;
+        private Long trainedDays;
+        private List<DailyForecast> forecast;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyForecast {
+        private LocalDate date;
+        private Double expectedSales;
+        private Double projectedStock;
+    }
+}
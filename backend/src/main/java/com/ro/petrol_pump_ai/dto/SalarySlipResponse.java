@@ -0,0 +1,24 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalarySlipResponse {
+    private Long id;
+    private Long employeeId;
+    private String employeeName;
+    private String role;
+    private LocalDate monthStart;
+    private Double payableDays;
+    private Double workedHours;
+    private Double basicPay;
+    private Double allowances;
+    private Double overtimePay;
+    private Double grossPay;
+    private Double providentFund;
+    private Double otherDeductions;
+    private Double netPay;
+}
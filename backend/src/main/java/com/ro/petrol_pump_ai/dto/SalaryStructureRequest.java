@@ -0,0 +1,14 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStructureRequest {
+    private Double monthlyBasic;
+    private Double allowances;
+    private Double deductions;
+    private Double providentFundRate;  // Percent of the basic earned
+    private Double overtimeRate;  // Per hour; leave out for no overtime pay
+}
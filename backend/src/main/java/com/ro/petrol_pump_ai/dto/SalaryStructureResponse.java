@@ -0,0 +1,18 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStructureResponse {
+    private Long employeeId;
+    private String employeeName;
+    private Double monthlyBasic;
+    private Double allowances;
+    private Double deductions;
+    private Double providentFundRate;
+    private Double overtimeRate;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesAnalyticsResponse {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String granularity;  // DAY, WEEK, MONTH
+    private Double totalRevenue;
+    private Double totalVolume;
+    private Long entryCount;
+    private List<ProductSales> products;  // Whole range, by revenue descending
+    private List<Period> periods;         // Chronological, periods with no entries included
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Period {
+        private LocalDate periodStart;  // Clipped to the requested range
+        private LocalDate periodEnd;
+        private Double revenue;
+        private Double volume;
+        private Long entryCount;
+        private List<ProductSales> products;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String productName;
+        private String unit;
+        private Double revenue;
+        private Double volume;
+        private Long entryCount;
+        private Double averagePrice;  // revenue / volume
+    }
+}
@@ -0,0 +1,13 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+// A shift change: the outgoing roster clocks out and the incoming one is marked, together
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftAttendanceRequest {
+    private List<Long> clockOuts;               // Employee ids
+    private List<AttendanceRequest> clockIns;
+}
@@ -0,0 +1,28 @@
+package com.ro.petrol_pump_ai.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftAttendanceResponse {
+    
+    private Integer totalRows;
+    private Integer acceptedRows;
+    private Integer rejectedRows;
+    private Boolean replayed;  // true when this is the stored result of an earlier request with the same key
+    private List<RowResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private String action;                  // CLOCK_OUT, CLOCK_IN
+        private Integer row;                    // 1-based position in clockOuts or clockIns
+        private Long employeeId;
+        private String status;                  // UPDATED, CREATED, REJECTED
+        private AttendanceResponse attendance;  // Set unless REJECTED
+        private String error;                   // Set when REJECTED
+    }
+}
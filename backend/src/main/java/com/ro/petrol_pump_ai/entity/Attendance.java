@@ -7,18 +7,23 @@ import java.time.LocalTime;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance",
+       uniqueConstraints = @UniqueConstraint(name = "uk_attendance_employee_date",
+                                             columnNames = {"employee_id", "attendance_date"}),
+       indexes = @Index(name = "idx_attendance_outlet_date", columnList = "outlet_id, attendance_date"))
 @Data
+@EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Attendance {
+public class Attendance extends OutletOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
     @ManyToOne
-    @JoinColumn(name = "employee_id", nullable = false)
+    @JoinColumn(name = "employee_id", nullable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))  // Table is partitioned; checked in the service
     private Employee employee;
     
     @Column(nullable = false)
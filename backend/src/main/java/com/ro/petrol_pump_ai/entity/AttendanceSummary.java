@@ -0,0 +1,46 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_summaries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_attendance_summaries_employee_month",
+                                             columnNames = {"employee_id", "month_start"}),
+       indexes = @Index(name = "idx_attendance_summaries_outlet_month", columnList = "outlet_id, month_start"))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSummary extends OutletOwned {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(nullable = false)
+    private LocalDate monthStart;  // First day of the month
+
+    @Column(nullable = false)
+    private Integer presentDays;
+
+    @Column(nullable = false)
+    private Integer absentDays;
+
+    @Column(nullable = false)
+    private Integer leaveDays;
+
+    @Column(nullable = false)
+    private Integer halfDays;
+
+    @Column(nullable = false)
+    private Long workedSeconds;  // Check-in to check-out, over days with both
+
+    private LocalDateTime updatedAt;
+}
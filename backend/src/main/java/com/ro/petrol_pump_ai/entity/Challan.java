@@ -6,11 +6,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "challans")
+@Table(name = "challans",
+       uniqueConstraints = @UniqueConstraint(name = "uk_challans_outlet_number",
+                                             columnNames = {"outlet_id", "challan_number"}),
+       indexes = @Index(name = "idx_challans_outlet_date_id", columnList = "outlet_id, date, id"))
 @Data
+@EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Challan {
+public class Challan extends OutletOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,7 +38,7 @@ public class Challan {
     @Column
     private String vendorName;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String challanNumber;
     
     @Column(columnDefinition = "TEXT")
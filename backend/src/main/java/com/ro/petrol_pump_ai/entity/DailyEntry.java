@@ -6,11 +6,18 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "daily_entries")
+@Table(name = "daily_entries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_entries_date_product",
+                                             columnNames = {"entry_date", "product_id"}),
+       indexes = {
+           @Index(name = "idx_daily_entries_product_date", columnList = "product_id, entry_date"),
+           @Index(name = "idx_daily_entries_outlet_date", columnList = "outlet_id, entry_date")
+       })
 @Data
+@EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
 @AllArgsConstructor
-public class DailyEntry {
+public class DailyEntry extends OutletOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,7 +27,8 @@ public class DailyEntry {
     private LocalDate entryDate;
     
     @ManyToOne
-    @JoinColumn(name = "product_id", nullable = false)
+    @JoinColumn(name = "product_id", nullable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))  // Table is partitioned; checked in the service
     private Product product;
     
     @Column(nullable = false)
@@ -0,0 +1,41 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "daily_product_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"entry_date", "product_id"}),
+       indexes = @Index(name = "idx_daily_product_rollups_outlet_date", columnList = "outlet_id, entry_date"))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductRollup extends OutletOwned {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate entryDate;
+    
+    @ManyToOne
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @Column(nullable = false)
+    private Double totalRevenue;  // Sum of dailyRevenue for the date and product
+    
+    @Column(nullable = false)
+    private Double totalSales;  // Sum of salesToday, in Lts or Kg
+    
+    @Column(nullable = false)
+    private Integer entryCount;
+    
+    private Double closingStock;  // Closing stock of the latest entry recorded
+    
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "daily_revenue_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_revenue_rollups_outlet_date",
+                                             columnNames = {"outlet_id", "entry_date"}))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenueRollup extends OutletOwned {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private LocalDate entryDate;
+    
+    @Column(nullable = false)
+    private Double totalRevenue;  // Sum of dailyRevenue across all products
+    
+    @Column(nullable = false)
+    private Double totalSales;
+    
+    @Column(nullable = false)
+    private Integer entryCount;
+    
+    private LocalDateTime updatedAt;
+}
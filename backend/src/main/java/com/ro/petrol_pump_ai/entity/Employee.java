@@ -6,11 +6,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+       uniqueConstraints = @UniqueConstraint(name = "uk_employees_outlet_phone", columnNames = {"outlet_id", "phone"}))
 @Data
+@EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Employee {
+public class Employee extends OutletOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,7 +21,6 @@ public class Employee {
     @Column(nullable = false)
     private String name;
     
-    @Column(unique = true)
     private String phone;
     
     private String email;
@@ -0,0 +1,42 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// The stored outcome of a request sent with an Idempotency-Key, replayed when a client retries it
+@Entity
+@Table(name = "idempotent_requests",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotent_requests_outlet_scope_key",
+                                             columnNames = {"outlet_id", "scope", "request_key"}),
+       indexes = @Index(name = "idx_idempotent_requests_created", columnList = "created_at"))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentRequest extends OutletOwned {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 50)
+    private String scope;  // Which endpoint the key was used on, e.g. attendance-shift
+    
+    @Column(name = "request_key", nullable = false, length = 100)
+    private String requestKey;
+    
+    @Column(nullable = false, length = 64)
+    private String requestHash;  // SHA-256 of the request body, to catch a key reused for another request
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String responseJson;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ocr_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrJob {
+    
+    @Id
+    @Column(length = 36)
+    private String id;  // UUID handed to the client
+    
+    @Column(nullable = false)
+    private String status;  // QUEUED, PROCESSING, COMPLETED, FAILED, REJECTED
+    
+    private String fileName;
+    
+    private String contentType;
+    
+    private Long fileSize;  // in bytes
+    
+    @Column(length = 64)
+    private String contentHash;  // SHA-256 of the upload, key into the OCR result cache
+    
+    private Boolean cacheHit;  // Result served from cache without running OCR
+    
+    @Column(columnDefinition = "TEXT")
+    private String resultJson;  // Serialized ChallanExtractedData
+    
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    private Long queueWaitMs;
+    
+    private Long ocrDurationMs;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime startedAt;
+    
+    private LocalDateTime completedAt;
+}
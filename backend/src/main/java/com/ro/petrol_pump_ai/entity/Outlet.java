@@ -0,0 +1,38 @@
+package com.ro.petrol_pump_ai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outlets",
+       uniqueConstraints = @UniqueConstraint(name = "uk_outlets_code", columnNames = "code"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Outlet {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String code;  // Short code, e.g. the dealer code on challans
+    
+    @Column(nullable = false)
+    private String name;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
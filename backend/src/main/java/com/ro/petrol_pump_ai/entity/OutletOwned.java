@@ -0,0 +1,22 @@
+package com.ro.petrol_pump_ai.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Rows that belong to one outlet. Hibernate fills outlet_id from the session's
+ * outlet on insert and adds it to every query, so repositories need no outlet
+ * parameter; native SQL has to filter on it itself.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+public abstract class OutletOwned {
+
+    @TenantId
+    @Column(name = "outlet_id", nullable = false, updatable = false)
+    private Long outletId;
+}
@@ -0,0 +1,42 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payroll_runs",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payroll_runs_outlet_month",
+                                             columnNames = {"outlet_id", "month_start"}))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRun extends OutletOwned {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate monthStart;  // First day of the month paid
+
+    @Column(nullable = false)
+    private String status;  // RUNNING, COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private Integer totalEmployees;
+
+    @Column(nullable = false)
+    private Integer processedEmployees;  // Slips written for the month, over every attempt
+
+    private Double slipsPerSecond;  // Of the latest attempt
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
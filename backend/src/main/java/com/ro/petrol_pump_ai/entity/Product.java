@@ -5,17 +5,19 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+       uniqueConstraints = @UniqueConstraint(name = "uk_products_outlet_name", columnNames = {"outlet_id", "name"}))
 @Data
+@EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
 @AllArgsConstructor
-public class Product {
+public class Product extends OutletOwned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String name;  // Petrol, Diesel, CNG, XP95
     
     @Column(nullable = false)
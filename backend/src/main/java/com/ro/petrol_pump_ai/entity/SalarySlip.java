@@ -0,0 +1,62 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "salary_slips",
+       uniqueConstraints = @UniqueConstraint(name = "uk_salary_slips_employee_month",
+                                             columnNames = {"employee_id", "month_start"}),
+       indexes = @Index(name = "idx_salary_slips_outlet_month", columnList = "outlet_id, month_start"))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalarySlip extends OutletOwned {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(nullable = false)
+    private LocalDate monthStart;
+
+    @ManyToOne
+    @JoinColumn(name = "payroll_run_id", nullable = false)
+    private PayrollRun payrollRun;
+
+    @Column(nullable = false)
+    private Double payableDays;  // Present and leave days, half-days counting half
+
+    @Column(nullable = false)
+    private Double workedHours;
+
+    @Column(nullable = false)
+    private Double basicPay;
+
+    @Column(nullable = false)
+    private Double allowances;
+
+    @Column(nullable = false)
+    private Double overtimePay;
+
+    @Column(nullable = false)
+    private Double grossPay;
+
+    @Column(nullable = false)
+    private Double providentFund;
+
+    @Column(nullable = false)
+    private Double otherDeductions;
+
+    @Column(nullable = false)
+    private Double netPay;
+
+    private LocalDateTime createdAt;
+}
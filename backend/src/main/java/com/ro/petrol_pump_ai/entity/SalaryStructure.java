@@ -0,0 +1,45 @@
+package com.ro.petrol_pump_ai.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "salary_structures",
+       uniqueConstraints = @UniqueConstraint(name = "uk_salary_structures_employee", columnNames = "employee_id"))
+@Data
+@EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStructure extends OutletOwned {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+
+    @Column(nullable = false)
+    private Double monthlyBasic;
+
+    @Column(nullable = false)
+    private Double allowances;  // Fixed monthly allowances (house rent, conveyance...), prorated like basic
+
+    @Column(nullable = false)
+    private Double deductions;  // Fixed monthly deductions (professional tax, advances...)
+
+    @Column(nullable = false)
+    private Double providentFundRate;  // Percent of the basic earned
+
+    private Double overtimeRate;  // Per hour beyond the standard day; null for no overtime pay
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,20 +1,88 @@
 package com.ro.petrol_pump_ai.repository;
 
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
 import com.ro.petrol_pump_ai.entity.Attendance;
 import com.ro.petrol_pump_ai.entity.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+
+    // Read paths select straight into the response, one query with the employee name joined in
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.AttendanceResponse(a.id, e.id, e.name, " +
+           "a.attendanceDate, a.checkInTime, a.checkOutTime, a.status, a.remarks) FROM Attendance a JOIN a.employee e ";
+
+    @Query(RESPONSE_SELECT + "WHERE a.attendanceDate = :date ORDER BY a.id")
+    List<AttendanceResponse> findResponsesByAttendanceDate(@Param("date") LocalDate date);
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :employeeId AND a.attendanceDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY a.attendanceDate")
+    List<AttendanceResponse> findResponsesByEmployeeIdAndDateBetween(@Param("employeeId") Long employeeId,
+                                                                     @Param("startDate") LocalDate startDate,
+                                                                     @Param("endDate") LocalDate endDate);
+    
+    @Query(RESPONSE_SELECT + "WHERE e.id = :employeeId AND a.attendanceDate = :date")
+    Optional<AttendanceResponse> findResponseByEmployeeIdAndDate(@Param("employeeId") Long employeeId,
+                                                                 @Param("date") LocalDate date);
+    
+    // One statement, so concurrent marks for the same day land on the same row instead of
+    // racing to insert it. The first mark with a check-in time keeps it.
+    @Modifying
+    @Query(value = "INSERT INTO attendance " +
+            "(outlet_id, employee_id, attendance_date, status, check_in_time, created_at) " +
+            "VALUES (:outletId, :employeeId, :date, :status, :checkInTime, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "status = VALUES(status), " +
+            "check_in_time = COALESCE(check_in_time, VALUES(check_in_time))", nativeQuery = true)
+    int upsertMark(@Param("outletId") Long outletId,
+                   @Param("employeeId") Long employeeId,
+                   @Param("date") LocalDate date,
+                   @Param("status") String status,
+                   @Param("checkInTime") LocalTime checkInTime);
+    
+    @Modifying
+    @Query(value = "UPDATE attendance SET check_out_time = :checkOutTime " +
+            "WHERE outlet_id = :outletId AND employee_id = :employeeId AND attendance_date = :date", nativeQuery = true)
+    int setCheckOut(@Param("outletId") Long outletId,
+                    @Param("employeeId") Long employeeId,
+                    @Param("date") LocalDate date,
+                    @Param("checkOutTime") LocalTime checkOutTime);
+    
+    // Each employee with its attendance for the day, or null; a whole roster in one query.
+    // The employee rows stay locked until commit, in id order like EmployeeRepository.lockById,
+    // so the roster's attendance cannot change underneath. Read-only: callers write the
+    // changes back themselves in batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT e, a FROM Employee e LEFT JOIN Attendance a ON a.employee = e AND a.attendanceDate = :date " +
+           "WHERE e.id IN :employeeIds ORDER BY e.id")
+    List<Object[]> lockEmployeesWithAttendance(@Param("employeeIds") Collection<Long> employeeIds,
+                                               @Param("date") LocalDate date);
+
+    @Query("SELECT a.employee.id, a.id FROM Attendance a WHERE a.employee.id IN :employeeIds AND a.attendanceDate = :date")
+    List<Object[]> findIdsByEmployeeIdsAndDate(@Param("employeeIds") Collection<Long> employeeIds,
+                                               @Param("date") LocalDate date);
     
     Optional<Attendance> findByEmployeeAndAttendanceDate(Employee employee, LocalDate date);
     
     List<Attendance> findByEmployeeAndAttendanceDateBetween(Employee employee, LocalDate startDate, LocalDate endDate);
     
     List<Attendance> findByAttendanceDate(LocalDate date);
+    
+    boolean existsByEmployeeId(Long employeeId);
 }
@@ -0,0 +1,49 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.dto.AttendanceSummaryResponse;
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceSummary, Long> {
+
+    // Active staff plus anyone with attendance in the month; staff without any get zeros
+    @Query("SELECT new com.ro.petrol_pump_ai.dto.AttendanceSummaryResponse(e.id, e.name, s.presentDays, " +
+           "s.absentDays, s.leaveDays, s.halfDays, s.workedSeconds) FROM Employee e " +
+           "LEFT JOIN AttendanceSummary s ON s.employee = e AND s.monthStart = :monthStart " +
+           "WHERE s.id IS NOT NULL OR e.status = 'Active' ORDER BY e.name, e.id")
+    List<AttendanceSummaryResponse> findResponsesByMonthStart(@Param("monthStart") LocalDate monthStart);
+
+    // Atomic increment, like the revenue rollups
+    @Modifying
+    @Query(value = "INSERT INTO attendance_summaries " +
+            "(outlet_id, employee_id, month_start, present_days, absent_days, leave_days, half_days, " +
+            "worked_seconds, updated_at) " +
+            "VALUES (:outletId, :employeeId, :monthStart, :present, :absent, :leave, :half, :workedSeconds, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "present_days = present_days + VALUES(present_days), " +
+            "absent_days = absent_days + VALUES(absent_days), " +
+            "leave_days = leave_days + VALUES(leave_days), " +
+            "half_days = half_days + VALUES(half_days), " +
+            "worked_seconds = worked_seconds + VALUES(worked_seconds), " +
+            "updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("outletId") Long outletId,
+                    @Param("employeeId") Long employeeId,
+                    @Param("monthStart") LocalDate monthStart,
+                    @Param("present") Integer present,
+                    @Param("absent") Integer absent,
+                    @Param("leave") Integer leave,
+                    @Param("half") Integer half,
+                    @Param("workedSeconds") Long workedSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_summaries WHERE outlet_id = :outletId", nativeQuery = true)
+    int deleteByOutlet(@Param("outletId") Long outletId);
+}
@@ -1,9 +1,22 @@
 package com.ro.petrol_pump_ai.repository;
 
+import com.ro.petrol_pump_ai.dto.ChallanDeliveryAggregate;
 import com.ro.petrol_pump_ai.entity.Challan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
-public interface ChallanRepository extends JpaRepository<Challan, Long> {
+public interface ChallanRepository extends JpaRepository<Challan, Long>, JpaSpecificationExecutor<Challan> {
+    
+    @Query("SELECT new com.ro.petrol_pump_ai.dto.ChallanDeliveryAggregate(c.date, LOWER(TRIM(c.fuelType)), " +
+           "SUM(c.quantity), COUNT(c)) FROM Challan c WHERE c.date BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.date, LOWER(TRIM(c.fuelType))")
+    List<ChallanDeliveryAggregate> sumQuantityByDateAndFuelType(@Param("startDate") LocalDate startDate,
+                                                                 @Param("endDate") LocalDate endDate);
 }
@@ -1,8 +1,13 @@
 package com.ro.petrol_pump_ai.repository;
 
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.DailySalesAggregate;
 import com.ro.petrol_pump_ai.entity.DailyEntry;
 import com.ro.petrol_pump_ai.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -11,6 +16,24 @@ import java.util.Optional;
 
 @Repository
 public interface DailyEntryRepository extends JpaRepository<DailyEntry, Long> {
+
+    // Read paths select straight into the response, one query with the product name joined in
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.DailyEntryResponse(e.id, e.entryDate, p.name, " +
+           "e.openingStock, e.salesToday, e.underTankDelivery, e.closingStock, e.pricePerUnit, e.dailyRevenue, " +
+           "e.temperature, e.notes, e.createdAt) FROM DailyEntry e JOIN e.product p ";
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :id")
+    Optional<DailyEntryResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE e.entryDate = :entryDate ORDER BY e.id")
+    List<DailyEntryResponse> findResponsesByEntryDate(@Param("entryDate") LocalDate entryDate);
+
+    @Query(RESPONSE_SELECT + "WHERE e.entryDate BETWEEN :startDate AND :endDate ORDER BY e.entryDate DESC, e.id DESC")
+    List<DailyEntryResponse> findResponsesByEntryDateBetween(@Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    @Query(RESPONSE_SELECT + "WHERE p.id = :productId ORDER BY e.entryDate DESC, e.id DESC")
+    List<DailyEntryResponse> findLatestResponsesByProductId(@Param("productId") Long productId, Limit limit);
     
     List<DailyEntry> findByEntryDate(LocalDate entryDate);
     
@@ -18,7 +41,18 @@ public interface DailyEntryRepository extends JpaRepository<DailyEntry, Long> {
     
     Optional<DailyEntry> findTopByProductOrderByEntryDateDesc(Product product);
     
+    Optional<DailyEntry> findTopByProductOrderByEntryDateDescIdDesc(Product product);
+    
     List<DailyEntry> findByProductOrderByEntryDateDesc(Product product);
     
     Optional<DailyEntry> findByEntryDateAndProduct(LocalDate entryDate, Product product);
+    
+    boolean existsByProductId(Long productId);
+    
+    @Query("SELECT new com.ro.petrol_pump_ai.dto.DailySalesAggregate(e.entryDate, p.id, p.name, p.unit, " +
+           "SUM(e.dailyRevenue), SUM(e.salesToday), COUNT(e)) " +
+           "FROM DailyEntry e JOIN e.product p WHERE e.entryDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY e.entryDate, p.id, p.name, p.unit ORDER BY e.entryDate")
+    List<DailySalesAggregate> sumSalesByDateAndProduct(@Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
 }
@@ -0,0 +1,65 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.entity.DailyProductRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyProductRollupRepository extends JpaRepository<DailyProductRollup, Long> {
+    
+    @Query("SELECT r FROM DailyProductRollup r JOIN FETCH r.product WHERE r.entryDate = :entryDate")
+    List<DailyProductRollup> findByEntryDateWithProduct(@Param("entryDate") LocalDate entryDate);
+    
+    // Atomic increment so concurrent entry writes never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO daily_product_rollups " +
+            "(outlet_id, entry_date, product_id, total_revenue, total_sales, entry_count, closing_stock, updated_at) " +
+            "VALUES (:outletId, :entryDate, :productId, :revenue, :sales, :count, :closingStock, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_revenue = total_revenue + VALUES(total_revenue), " +
+            "total_sales = total_sales + VALUES(total_sales), " +
+            "entry_count = entry_count + VALUES(entry_count), " +
+            "closing_stock = COALESCE(VALUES(closing_stock), closing_stock), " +
+            "updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("outletId") Long outletId,
+                    @Param("entryDate") LocalDate entryDate,
+                    @Param("productId") Long productId,
+                    @Param("revenue") Double revenue,
+                    @Param("sales") Double sales,
+                    @Param("count") Integer count,
+                    @Param("closingStock") Double closingStock);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_product_rollups WHERE outlet_id = :outletId AND entry_date = :entryDate " +
+            "AND product_id = :productId AND entry_count <= 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("outletId") Long outletId,
+                      @Param("entryDate") LocalDate entryDate,
+                      @Param("productId") Long productId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_product_rollups WHERE outlet_id = :outletId", nativeQuery = true)
+    int deleteByOutlet(@Param("outletId") Long outletId);
+    
+    List<DailyProductRollup> findByProductIdAndEntryDateBetweenOrderByEntryDate(Long productId, LocalDate startDate,
+                                                                              LocalDate endDate);
+    
+    @Query("SELECT COALESCE(SUM(r.totalSales), 0) FROM DailyProductRollup r " +
+           "WHERE r.product.id = :productId AND r.entryDate <= :date")
+    Double sumSalesThrough(@Param("productId") Long productId, @Param("date") LocalDate date);
+    
+    @Modifying
+    @Query(value = "INSERT INTO daily_product_rollups " +
+            "(outlet_id, entry_date, product_id, total_revenue, total_sales, entry_count, closing_stock, updated_at) " +
+            "SELECT :outletId, g.entry_date, g.product_id, g.revenue, g.sales, g.cnt, d.closing_stock, NOW() FROM " +
+            "(SELECT entry_date, product_id, SUM(COALESCE(daily_revenue, 0)) AS revenue, " +
+            "SUM(sales_today) AS sales, COUNT(*) AS cnt, MAX(id) AS last_id " +
+            "FROM daily_entries WHERE outlet_id = :outletId GROUP BY entry_date, product_id) g " +
+            "JOIN daily_entries d ON d.id = g.last_id", nativeQuery = true)
+    int rebuildFromEntries(@Param("outletId") Long outletId);
+}
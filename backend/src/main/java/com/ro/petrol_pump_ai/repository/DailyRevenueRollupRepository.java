@@ -0,0 +1,51 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.entity.DailyRevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, Long> {
+    
+    Optional<DailyRevenueRollup> findByEntryDate(LocalDate entryDate);
+    
+    List<DailyRevenueRollup> findByEntryDateBetweenOrderByEntryDateDesc(LocalDate startDate, LocalDate endDate);
+    
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue_rollups " +
+            "(outlet_id, entry_date, total_revenue, total_sales, entry_count, updated_at) " +
+            "VALUES (:outletId, :entryDate, :revenue, :sales, :count, NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_revenue = total_revenue + VALUES(total_revenue), " +
+            "total_sales = total_sales + VALUES(total_sales), " +
+            "entry_count = entry_count + VALUES(entry_count), " +
+            "updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("outletId") Long outletId,
+                    @Param("entryDate") LocalDate entryDate,
+                    @Param("revenue") Double revenue,
+                    @Param("sales") Double sales,
+                    @Param("count") Integer count);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_revenue_rollups WHERE outlet_id = :outletId AND entry_date = :entryDate " +
+            "AND entry_count <= 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("outletId") Long outletId, @Param("entryDate") LocalDate entryDate);
+    
+    @Modifying
+    @Query(value = "DELETE FROM daily_revenue_rollups WHERE outlet_id = :outletId", nativeQuery = true)
+    int deleteByOutlet(@Param("outletId") Long outletId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue_rollups " +
+            "(outlet_id, entry_date, total_revenue, total_sales, entry_count, updated_at) " +
+            "SELECT outlet_id, entry_date, SUM(total_revenue), SUM(total_sales), SUM(entry_count), NOW() " +
+            "FROM daily_product_rollups WHERE outlet_id = :outletId GROUP BY outlet_id, entry_date", nativeQuery = true)
+    int rebuildFromProductRollups(@Param("outletId") Long outletId);
+}
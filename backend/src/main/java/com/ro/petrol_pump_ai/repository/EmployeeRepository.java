@@ -1,7 +1,13 @@
 package com.ro.petrol_pump_ai.repository;
 
+import com.ro.petrol_pump_ai.dto.EmployeeResponse;
 import com.ro.petrol_pump_ai.entity.Employee;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +15,28 @@ import java.util.Optional;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.EmployeeResponse(e.id, e.name, e.phone, e.email, " +
+           "e.role, e.hireDate, e.status, e.createdAt) FROM Employee e ";
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :id")
+    Optional<EmployeeResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE e.id > :afterId ORDER BY e.id")
+    List<EmployeeResponse> findResponsesAfterId(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE e.role = :role ORDER BY e.id")
+    List<EmployeeResponse> findResponsesByRole(@Param("role") String role);
+
+    @Query(RESPONSE_SELECT + "WHERE e.status = :status ORDER BY e.id")
+    List<EmployeeResponse> findResponsesByStatus(@Param("status") String status);
+
+    // Attendance writes hold the employee's row until commit, so the attendance summary
+    // sees one write per employee at a time. Shift changes lock their whole roster, in id
+    // order to avoid deadlocks, through AttendanceRepository.lockEmployeesWithAttendance
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Employee e WHERE e.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
     
     Optional<Employee> findByPhone(String phone);
     
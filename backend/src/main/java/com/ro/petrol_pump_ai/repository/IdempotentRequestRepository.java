@@ -0,0 +1,23 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.entity.IdempotentRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotentRequestRepository extends JpaRepository<IdempotentRequest, Long> {
+    
+    Optional<IdempotentRequest> findByScopeAndRequestKey(String scope, String requestKey);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotentRequest r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
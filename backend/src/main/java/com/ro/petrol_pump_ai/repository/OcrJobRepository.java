@@ -0,0 +1,33 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.entity.OcrJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OcrJobRepository extends JpaRepository<OcrJob, String> {
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE OcrJob j SET j.status = 'FAILED', j.errorMessage = :reason, j.completedAt = :now " +
+           "WHERE j.status IN ('QUEUED', 'PROCESSING')")
+    int failUnfinished(@Param("reason") String reason, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OcrJob j WHERE j.createdAt < :cutoff AND j.status NOT IN ('QUEUED', 'PROCESSING')")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    List<OcrJob> findTop50ByOrderByCreatedAtDesc();
+    
+    Page<OcrJob> findByStatus(String status, Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.entity.Outlet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface OutletRepository extends JpaRepository<Outlet, Long> {
+    
+    Optional<Outlet> findByCode(String code);
+}
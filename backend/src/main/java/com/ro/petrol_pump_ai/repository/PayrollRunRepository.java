@@ -0,0 +1,45 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.dto.PayrollRunResponse;
+import com.ro.petrol_pump_ai.entity.PayrollRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.PayrollRunResponse(r.id, r.monthStart, r.status, " +
+           "r.totalEmployees, r.processedEmployees, r.slipsPerSecond, r.errorMessage, r.startedAt, r.finishedAt) " +
+           "FROM PayrollRun r ";
+
+    @Query(RESPONSE_SELECT + "ORDER BY r.monthStart DESC")
+    List<PayrollRunResponse> findResponses();
+
+    @Query(RESPONSE_SELECT + "WHERE r.monthStart = :monthStart")
+    Optional<PayrollRunResponse> findResponseByMonthStart(@Param("monthStart") LocalDate monthStart);
+
+    @Query(RESPONSE_SELECT + "WHERE r.id = :id")
+    Optional<PayrollRunResponse> findResponseById(@Param("id") Long id);
+
+    Optional<PayrollRun> findByMonthStart(LocalDate monthStart);
+
+    // Chunks finish in parallel, so progress is an increment rather than a read-modify-write
+    @Modifying
+    @Query("UPDATE PayrollRun r SET r.processedEmployees = r.processedEmployees + :count WHERE r.id = :id")
+    int addProcessed(@Param("id") Long id, @Param("count") int count);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PayrollRun r SET r.status = 'FAILED', r.errorMessage = :reason, r.finishedAt = :now " +
+           "WHERE r.status = 'RUNNING'")
+    int failUnfinished(@Param("reason") String reason, @Param("now") LocalDateTime now);
+}
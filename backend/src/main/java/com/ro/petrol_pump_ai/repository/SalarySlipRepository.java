@@ -0,0 +1,31 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.dto.SalarySlipResponse;
+import com.ro.petrol_pump_ai.entity.SalarySlip;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SalarySlipRepository extends JpaRepository<SalarySlip, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.SalarySlipResponse(p.id, e.id, e.name, e.role, " +
+           "p.monthStart, p.payableDays, p.workedHours, p.basicPay, p.allowances, p.overtimePay, p.grossPay, " +
+           "p.providentFund, p.otherDeductions, p.netPay) FROM SalarySlip p JOIN p.employee e ";
+
+    @Query(RESPONSE_SELECT + "WHERE p.monthStart = :monthStart ORDER BY e.name, e.id")
+    List<SalarySlipResponse> findResponsesByMonthStart(@Param("monthStart") LocalDate monthStart);
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :employeeId AND p.monthStart = :monthStart")
+    Optional<SalarySlipResponse> findResponseByEmployeeIdAndMonthStart(@Param("employeeId") Long employeeId,
+                                                                       @Param("monthStart") LocalDate monthStart);
+
+    long countByMonthStart(LocalDate monthStart);
+
+    boolean existsByEmployeeId(Long employeeId);
+}
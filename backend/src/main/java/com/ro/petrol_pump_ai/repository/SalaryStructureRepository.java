@@ -0,0 +1,60 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.dto.SalaryStructureResponse;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SalaryStructureRepository extends JpaRepository<SalaryStructure, Long> {
+
+    String RESPONSE_SELECT = "SELECT new com.ro.petrol_pump_ai.dto.SalaryStructureResponse(e.id, e.name, " +
+           "st.monthlyBasic, st.allowances, st.deductions, st.providentFundRate, st.overtimeRate, st.updatedAt) " +
+           "FROM SalaryStructure st JOIN st.employee e ";
+
+    // Employees due a slip for the month: a salary structure, no slip yet, and active or with attendance in the month
+    String PENDING = "FROM SalaryStructure st JOIN st.employee e " +
+           "WHERE NOT EXISTS (SELECT 1 FROM SalarySlip p WHERE p.employee = e AND p.monthStart = :monthStart) " +
+           "AND (e.status = 'Active' OR EXISTS " +
+           "(SELECT 1 FROM AttendanceSummary s WHERE s.employee = e AND s.monthStart = :monthStart)) ";
+
+    @Query(RESPONSE_SELECT + "ORDER BY e.name, e.id")
+    List<SalaryStructureResponse> findResponses();
+
+    @Query(RESPONSE_SELECT + "WHERE e.id = :employeeId")
+    Optional<SalaryStructureResponse> findResponseByEmployeeId(@Param("employeeId") Long employeeId);
+
+    Optional<SalaryStructure> findByEmployeeId(Long employeeId);
+
+    @Modifying
+    @Query("DELETE FROM SalaryStructure st WHERE st.employee.id = :employeeId")
+    int deleteByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT e.id " + PENDING + "AND e.id > :afterId ORDER BY e.id")
+    List<Long> findPendingEmployeeIds(@Param("monthStart") LocalDate monthStart, @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    @Query("SELECT COUNT(st) " + PENDING)
+    long countPending(@Param("monthStart") LocalDate monthStart);
+
+    // Each structure with the employee and the month's summary, or null; a whole chunk in one query.
+    // Read-only: slips are written back in batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT st, s FROM SalaryStructure st JOIN FETCH st.employee e " +
+           "LEFT JOIN AttendanceSummary s ON s.employee = e AND s.monthStart = :monthStart " +
+           "WHERE e.id IN :employeeIds")
+    List<Object[]> findWithSummaries(@Param("employeeIds") Collection<Long> employeeIds,
+                                     @Param("monthStart") LocalDate monthStart);
+}
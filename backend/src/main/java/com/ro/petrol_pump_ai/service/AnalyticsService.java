@@ -1,5 +1,19 @@
 package com.ro.petrol_pump_ai.service;
 
+import com.ro.petrol_pump_ai.dto.InventoryAnalyticsResponse;
+import com.ro.petrol_pump_ai.dto.PredictiveAnalyticsResponse;
+import com.ro.petrol_pump_ai.dto.SalesAnalyticsResponse;
+
+import java.time.LocalDate;
+
 public interface AnalyticsService {
-    // Analytics service methods will be declared here
+
+    // Revenue and volume per DAY, WEEK or MONTH and per product over an inclusive date range
+    SalesAnalyticsResponse getSalesAnalytics(LocalDate startDate, LocalDate endDate, String granularity);
+
+    // Per-product stock series with continuity breaks, shrinkage and challan cross-checks
+    InventoryAnalyticsResponse getInventoryAnalytics(LocalDate startDate, LocalDate endDate);
+
+    // Demand forecast per product with days until the tank runs dry and when to reorder
+    PredictiveAnalyticsResponse getPredictiveAnalytics();
 }
@@ -0,0 +1,350 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.ChallanDeliveryAggregate;
+import com.ro.petrol_pump_ai.dto.DailySalesAggregate;
+import com.ro.petrol_pump_ai.dto.InventoryAnalyticsResponse;
+import com.ro.petrol_pump_ai.dto.InventoryAnalyticsResponse.StockPoint;
+import com.ro.petrol_pump_ai.dto.InventoryAnalyticsResponse.Variance;
+import com.ro.petrol_pump_ai.dto.PredictiveAnalyticsResponse;
+import com.ro.petrol_pump_ai.dto.SalesAnalyticsResponse;
+import com.ro.petrol_pump_ai.repository.ChallanRepository;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import com.ro.petrol_pump_ai.util.StreamingQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Set<String> GRANULARITIES = Set.of("DAY", "WEEK", "MONTH");
+
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private SalesAnalyticsCache salesAnalyticsCache;
+
+    @Autowired
+    private ChallanRepository challanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DemandForecaster demandForecaster;
+
+    @Value("${analytics.inventory.tolerance:1.0}")
+    private double toleranceUnits;  // Differences at or below this are treated as measurement noise
+
+    @Value("${analytics.inventory.tolerance-percent:0.1}")
+    private double tolerancePercent;  // ...or at or below this share of the stock compared against
+
+    @Value("${analytics.stream-fetch-size:1000}")
+    private int streamFetchSize;  // MySQL always streams row by row
+
+    // Ordered so each product's days arrive consecutively and in date order
+    private static final String INVENTORY_ROWS_SQL =
+        "SELECT e.product_id, p.name, p.unit, e.entry_date, e.opening_stock, e.sales_today, " +
+        "e.under_tank_delivery, e.closing_stock FROM daily_entries e JOIN products p ON p.id = e.product_id " +
+        "WHERE e.outlet_id = ? AND e.entry_date BETWEEN ? AND ? ORDER BY e.product_id, e.entry_date, e.id";
+
+    @Override
+    public SalesAnalyticsResponse getSalesAnalytics(LocalDate startDate, LocalDate endDate, String granularity) {
+        String period = granularity == null ? "DAY" : granularity.trim().toUpperCase();
+        if (!GRANULARITIES.contains(period)) {
+            throw new RuntimeException("Granularity must be one of day, week, month");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+
+        SalesAnalyticsCache.Key key = new SalesAnalyticsCache.Key(OutletContext.require(), startDate, endDate, period);
+        SalesAnalyticsResponse cached = salesAnalyticsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = salesAnalyticsCache.generation();
+        SalesAnalyticsResponse response = buildSalesAnalytics(startDate, endDate, period);
+        salesAnalyticsCache.put(key, response, generation);
+        return response;
+    }
+
+    /**
+     * One forward pass over the entries, streamed from the database in product and
+     * date order, so memory holds only the current product and the day before.
+     * The day before the range is read too, to check the first day's opening.
+     */
+    @Override
+    public InventoryAnalyticsResponse getInventoryAnalytics(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("Start date must not be after end date");
+        }
+        long start = System.nanoTime();
+
+        Map<String, ChallanDeliveryAggregate> challans = new HashMap<>();
+        for (ChallanDeliveryAggregate challan : challanRepository.sumQuantityByDateAndFuelType(startDate, endDate)) {
+            challans.put(challanKey(challan.getDate(), challan.getFuelType()), challan);
+        }
+
+        InventoryPass pass = new InventoryPass(startDate, challans);
+        Long outletId = OutletContext.require();
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = StreamingQuery.prepare(con, INVENTORY_ROWS_SQL, streamFetchSize);
+            statement.setLong(1, outletId);
+            statement.setDate(2, Date.valueOf(startDate.minusDays(1)));
+            statement.setDate(3, Date.valueOf(endDate));
+            return statement;
+        }, pass::accept);
+        List<InventoryAnalyticsResponse.ProductInventory> products = pass.finish();
+
+        return new InventoryAnalyticsResponse(startDate, endDate, products,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public PredictiveAnalyticsResponse getPredictiveAnalytics() {
+        return new PredictiveAnalyticsResponse(LocalDateTime.now(), demandForecaster.getLeadTimeDays(),
+            demandForecaster.forecastAll());
+    }
+
+    private class InventoryPass {
+        private final LocalDate startDate;
+        private final Map<String, ChallanDeliveryAggregate> challans;  // Matched entries are removed
+        private final List<InventoryAnalyticsResponse.ProductInventory> products = new ArrayList<>();
+
+        private InventoryAnalyticsResponse.ProductInventory product;
+        private StockPoint previous;  // Last completed day of the current product
+        private StockPoint current;   // Day being read; several entries on one day are merged
+
+        InventoryPass(LocalDate startDate, Map<String, ChallanDeliveryAggregate> challans) {
+            this.startDate = startDate;
+            this.challans = challans;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long productId = rs.getLong(1);
+            LocalDate date = rs.getDate(4).toLocalDate();
+            double opening = rs.getDouble(5);
+            double sales = rs.getDouble(6);
+            double delivered = rs.getDouble(7);  // NULL reads as 0
+            double closing = rs.getDouble(8);
+
+            if (product == null || product.getProductId() != productId) {
+                finishProduct();
+                product = new InventoryAnalyticsResponse.ProductInventory(productId, rs.getString(2), rs.getString(3),
+                    null, null, 0.0, 0.0, 0.0, 0.0, null, 0.0, new ArrayList<>(), new ArrayList<>());
+            }
+            if (current != null && current.getDate().equals(date)) {
+                current.setSales(current.getSales() + sales);
+                current.setDelivered(current.getDelivered() + delivered);
+                current.setClosingStock(closing);
+                return;
+            }
+            finishDay();
+            current = new StockPoint(date, opening, sales, delivered, null, closing);
+        }
+
+        List<InventoryAnalyticsResponse.ProductInventory> finish() {
+            finishProduct();
+            // Challans for a fuel with no entry that day were never matched above
+            Map<String, InventoryAnalyticsResponse.ProductInventory> byName = new HashMap<>();
+            products.forEach(p -> byName.put(p.getProductName().trim().toLowerCase(), p));
+            challans.values().stream()
+                .sorted(Comparator.comparing(ChallanDeliveryAggregate::getDate))
+                .forEach(challan -> {
+                    InventoryAnalyticsResponse.ProductInventory target = byName.get(challan.getFuelType());
+                    if (target != null) {
+                        target.setTotalChallanQuantity(round(target.getTotalChallanQuantity() + challan.getQuantity()));
+                        target.getVariances().add(new Variance(challan.getDate(), "UNMATCHED_CHALLAN",
+                            challan.getQuantity(), 0.0, round(-challan.getQuantity()),
+                            challan.getChallanCount() + " challan(s) with no daily entry on this date"));
+                    }
+                });
+            for (InventoryAnalyticsResponse.ProductInventory p : products) {
+                p.getVariances().sort(Comparator.comparing(Variance::getDate));
+            }
+            return products;
+        }
+
+        private void finishProduct() {
+            finishDay();
+            if (product != null) {
+                List<StockPoint> series = product.getSeries();
+                if (!series.isEmpty()) {
+                    product.setOpeningStock(series.get(0).getOpeningStock());
+                    product.setClosingStock(series.get(series.size() - 1).getClosingStock());
+                }
+                product.setTotalSales(round(product.getTotalSales()));
+                product.setTotalDelivered(round(product.getTotalDelivered()));
+                product.setTotalChallanQuantity(round(product.getTotalChallanQuantity()));
+                product.setShrinkage(round(product.getShrinkage()));
+                product.setUnexplainedGain(round(product.getUnexplainedGain()));
+                product.setShrinkagePercent(product.getTotalSales() > 0
+                    ? round(product.getShrinkage() * 100 / product.getTotalSales()) : null);
+                products.add(product);
+            }
+            product = null;
+            previous = null;
+            current = null;
+        }
+
+        private void finishDay() {
+            if (current == null) {
+                return;
+            }
+            StockPoint day = current;
+            current = null;
+            if (day.getDate().isBefore(startDate)) {
+                previous = day;  // Only used to check the first day's opening stock
+                return;
+            }
+
+            if (previous != null) {
+                long gap = ChronoUnit.DAYS.between(previous.getDate(), day.getDate());
+                if (gap > 1) {
+                    product.getVariances().add(new Variance(previous.getDate().plusDays(1), "MISSING_DAYS",
+                        null, null, null, (gap - 1) + " day(s) without an entry before " + day.getDate()));
+                }
+                double difference = day.getOpeningStock() - previous.getClosingStock();
+                if (Math.abs(difference) > tolerance(previous.getClosingStock())) {
+                    product.getVariances().add(new Variance(day.getDate(), "CONTINUITY_BREAK",
+                        previous.getClosingStock(), day.getOpeningStock(), round(difference),
+                        "Opening stock differs from closing stock of " + previous.getDate()));
+                }
+                if (difference < 0) {
+                    product.setShrinkage(product.getShrinkage() - difference);
+                } else {
+                    product.setUnexplainedGain(product.getUnexplainedGain() + difference);
+                }
+            }
+
+            ChallanDeliveryAggregate challan = challans.remove(challanKey(day.getDate(), product.getProductName()));
+            double challanQuantity = challan != null ? challan.getQuantity() : 0.0;
+            day.setChallanQuantity(challan != null ? challanQuantity : null);
+            if (Math.abs(day.getDelivered() - challanQuantity) > tolerance(challanQuantity)) {
+                product.getVariances().add(new Variance(day.getDate(), "DELIVERY_MISMATCH",
+                    challanQuantity, day.getDelivered(), round(day.getDelivered() - challanQuantity),
+                    challan == null ? "Delivery recorded without a challan" : "Delivery differs from challan quantity"));
+            }
+
+            product.setTotalSales(product.getTotalSales() + day.getSales());
+            product.setTotalDelivered(product.getTotalDelivered() + day.getDelivered());
+            product.setTotalChallanQuantity(product.getTotalChallanQuantity() + challanQuantity);
+            product.getSeries().add(day);
+            previous = day;
+        }
+
+        private double tolerance(double reference) {
+            return Math.max(toleranceUnits, Math.abs(reference) * tolerancePercent / 100);
+        }
+    }
+
+    private static String challanKey(LocalDate date, String fuelType) {
+        return date + "|" + fuelType.trim().toLowerCase();
+    }
+
+    // The database does the per-day, per-product GROUP BY; days are folded into weeks or months here
+    private SalesAnalyticsResponse buildSalesAnalytics(LocalDate startDate, LocalDate endDate, String period) {
+        List<DailySalesAggregate> rows = dailyEntryRepository.sumSalesByDateAndProduct(startDate, endDate);
+
+        TreeMap<LocalDate, Map<Long, SalesAnalyticsResponse.ProductSales>> byPeriod = new TreeMap<>();
+        for (LocalDate start = periodStart(startDate, period, startDate); !start.isAfter(endDate);
+                start = nextPeriodStart(start, period)) {
+            byPeriod.put(start, new LinkedHashMap<>());
+        }
+        Map<Long, SalesAnalyticsResponse.ProductSales> byProduct = new LinkedHashMap<>();
+
+        for (DailySalesAggregate row : rows) {
+            Map<Long, SalesAnalyticsResponse.ProductSales> products =
+                byPeriod.get(periodStart(row.getEntryDate(), period, startDate));
+            accumulate(products, row);
+            accumulate(byProduct, row);
+        }
+
+        List<SalesAnalyticsResponse.Period> periods = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<Long, SalesAnalyticsResponse.ProductSales>> entry : byPeriod.entrySet()) {
+            LocalDate start = entry.getKey();
+            LocalDate end = nextPeriodStart(start, period).minusDays(1);
+            List<SalesAnalyticsResponse.ProductSales> products = finish(entry.getValue().values());
+            periods.add(new SalesAnalyticsResponse.Period(start, end.isAfter(endDate) ? endDate : end,
+                sumRevenue(products), sumVolume(products), sumCount(products), products));
+        }
+
+        List<SalesAnalyticsResponse.ProductSales> products = finish(byProduct.values());
+        return new SalesAnalyticsResponse(startDate, endDate, period,
+            sumRevenue(products), sumVolume(products), sumCount(products), products, periods);
+    }
+
+    private static void accumulate(Map<Long, SalesAnalyticsResponse.ProductSales> products, DailySalesAggregate row) {
+        SalesAnalyticsResponse.ProductSales sales = products.computeIfAbsent(row.getProductId(), id ->
+            new SalesAnalyticsResponse.ProductSales(id, row.getProductName(), row.getUnit(), 0.0, 0.0, 0L, null));
+        sales.setRevenue(sales.getRevenue() + valueOf(row.getRevenue()));
+        sales.setVolume(sales.getVolume() + valueOf(row.getVolume()));
+        sales.setEntryCount(sales.getEntryCount() + row.getEntryCount());
+    }
+
+    private static List<SalesAnalyticsResponse.ProductSales> finish(Collection<SalesAnalyticsResponse.ProductSales> products) {
+        List<SalesAnalyticsResponse.ProductSales> result = new ArrayList<>(products);
+        for (SalesAnalyticsResponse.ProductSales sales : result) {
+            sales.setAveragePrice(sales.getVolume() > 0 ? round(sales.getRevenue() / sales.getVolume()) : null);
+            sales.setRevenue(round(sales.getRevenue()));
+            sales.setVolume(round(sales.getVolume()));
+        }
+        result.sort(Comparator.comparing(SalesAnalyticsResponse.ProductSales::getRevenue).reversed());
+        return result;
+    }
+
+    // Weeks start on Monday and months on the 1st; the first period is clipped to the range start
+    private static LocalDate periodStart(LocalDate date, String period, LocalDate rangeStart) {
+        LocalDate start = switch (period) {
+            case "WEEK" -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "MONTH" -> date.withDayOfMonth(1);
+            default -> date;
+        };
+        return start.isBefore(rangeStart) ? rangeStart : start;
+    }
+
+    private static LocalDate nextPeriodStart(LocalDate start, String period) {
+        return switch (period) {
+            case "WEEK" -> start.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case "MONTH" -> start.with(TemporalAdjusters.firstDayOfNextMonth());
+            default -> start.plusDays(1);
+        };
+    }
+
+    private static double sumRevenue(List<SalesAnalyticsResponse.ProductSales> products) {
+        return round(products.stream().mapToDouble(SalesAnalyticsResponse.ProductSales::getRevenue).sum());
+    }
+
+    private static double sumVolume(List<SalesAnalyticsResponse.ProductSales> products) {
+        return round(products.stream().mapToDouble(SalesAnalyticsResponse.ProductSales::getVolume).sum());
+    }
+
+    private static long sumCount(List<SalesAnalyticsResponse.ProductSales> products) {
+        return products.stream().mapToLong(SalesAnalyticsResponse.ProductSales::getEntryCount).sum();
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,348 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.AttendanceRequest;
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.ShiftAttendanceRequest;
+import com.ro.petrol_pump_ai.dto.ShiftAttendanceResponse;
+import com.ro.petrol_pump_ai.dto.ShiftAttendanceResponse.RowResult;
+import com.ro.petrol_pump_ai.entity.Attendance;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.IdempotentRequest;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
+import com.ro.petrol_pump_ai.repository.IdempotentRequestRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Shift changes in one go: the outgoing roster clocks out and the incoming one
+ * is marked in a single transaction. The employees are read and locked with
+ * their attendance for the day in one query, and the rows are written through
+ * JDBC batches, new ones as upserts on the employee and day key. A request sent
+ * with an idempotency key is applied once; retries get the stored result.
+ */
+@Service
+public class AttendanceBulkService {
+
+    private static final String SCOPE = "attendance-shift";
+
+    // Same merge rules as AttendanceRepository.upsertMark, should a row for the day appear
+    // regardless; the first check-in is kept and remarks are only replaced when given
+    private static final String UPSERT_SQL = "INSERT INTO attendance " +
+        "(employee_id, attendance_date, check_in_time, check_out_time, status, remarks, created_at, outlet_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "status = VALUES(status), " +
+        "check_in_time = COALESCE(check_in_time, VALUES(check_in_time)), " +
+        "check_out_time = COALESCE(VALUES(check_out_time), check_out_time), " +
+        "remarks = COALESCE(VALUES(remarks), remarks)";
+
+    // attendance_date is in the primary key of the partitioned table, so it prunes to one partition
+    private static final String UPDATE_SQL = "UPDATE attendance " +
+        "SET check_in_time = ?, check_out_time = ?, status = ?, remarks = ? " +
+        "WHERE id = ? AND attendance_date = ? AND outlet_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${attendance.shift.idempotency-ttl-hours:48}")
+    private int idempotencyTtlHours;
+
+    public ShiftAttendanceResponse recordShift(ShiftAttendanceRequest request, String idempotencyKey) {
+        if (request == null) {
+            throw new RuntimeException("Request body is required");
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return transactionTemplate.execute(status -> apply(request));
+        }
+        if (idempotencyKey.length() > 100) {
+            throw new RuntimeException("Idempotency key must be at most 100 characters");
+        }
+
+        String requestHash = OcrResultCache.hash(toJson(request).getBytes(StandardCharsets.UTF_8));
+        Optional<ShiftAttendanceResponse> stored = replay(idempotencyKey, requestHash);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                ShiftAttendanceResponse response = apply(request);
+                // A concurrent attempt with the same key blocks here until this one finishes, then fails
+                idempotentRequestRepository.saveAndFlush(
+                    new IdempotentRequest(null, SCOPE, idempotencyKey, requestHash, toJson(response), null));
+                return response;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race: the other attempt's work stands and this one was rolled back
+            return replay(idempotencyKey, requestHash).orElseThrow(() -> e);
+        }
+    }
+
+    @Scheduled(cron = "${attendance.shift.idempotency-purge-cron:0 40 3 * * *}")
+    public void purgeIdempotentRequests() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(idempotencyTtlHours);
+        outletService.forEachOutlet(outletId -> idempotentRequestRepository.deleteCreatedBefore(cutoff));
+    }
+
+    private Optional<ShiftAttendanceResponse> replay(String idempotencyKey, String requestHash) {
+        return idempotentRequestRepository.findByScopeAndRequestKey(SCOPE, idempotencyKey).map(stored -> {
+            if (!stored.getRequestHash().equals(requestHash)) {
+                throw new RuntimeException("Idempotency key was already used for a different request");
+            }
+            ShiftAttendanceResponse response = fromJson(stored.getResponseJson());
+            response.setReplayed(true);
+            return response;
+        });
+    }
+
+    private ShiftAttendanceResponse apply(ShiftAttendanceRequest request) {
+        List<Long> clockOuts = request.getClockOuts() != null ? request.getClockOuts() : List.of();
+        List<AttendanceRequest> clockIns = request.getClockIns() != null ? request.getClockIns() : List.of();
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+
+        Set<Long> employeeIds = new HashSet<>(clockOuts);
+        clockIns.stream().filter(Objects::nonNull).map(AttendanceRequest::getEmployeeId).forEach(employeeIds::add);
+        employeeIds.remove(null);
+        Map<Long, Employee> employees = new HashMap<>();
+        Map<Long, Attendance> attendance = new HashMap<>();
+        if (!employeeIds.isEmpty()) {
+            for (Object[] row : attendanceRepository.lockEmployeesWithAttendance(employeeIds, today)) {
+                Employee employee = (Employee) row[0];
+                employees.put(employee.getId(), employee);
+                if (row[1] != null) {
+                    attendance.putIfAbsent(employee.getId(), (Attendance) row[1]);
+                }
+            }
+        }
+
+        List<RowResult> results = new ArrayList<>();
+        List<Attendance> inserts = new ArrayList<>();
+        List<Attendance> updates = new ArrayList<>();
+        Map<Attendance, RowResult> written = new IdentityHashMap<>();
+        List<AttendanceResponse> replaced = new ArrayList<>();  // Rows as they were, for the summaries
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < clockOuts.size(); i++) {
+            Long employeeId = clockOuts.get(i);
+            RowResult result = new RowResult("CLOCK_OUT", i + 1, employeeId, null, null, null);
+            results.add(result);
+            String error = check(employeeId, employees, seen);
+            Attendance record = attendance.get(employeeId);
+            if (error == null && record == null) {
+                error = "Attendance record not found";
+            }
+            if (error != null) {
+                reject(result, error);
+                continue;
+            }
+            replaced.add(convertToResponse(record));
+            record.setCheckOutTime(now);
+            updates.add(record);
+            result.setStatus("UPDATED");
+            written.put(record, result);
+        }
+
+        for (int i = 0; i < clockIns.size(); i++) {
+            AttendanceRequest clockIn = clockIns.get(i);
+            Long employeeId = clockIn != null ? clockIn.getEmployeeId() : null;
+            RowResult result = new RowResult("CLOCK_IN", i + 1, employeeId, null, null, null);
+            results.add(result);
+            String error = check(employeeId, employees, seen);
+            if (error == null && (clockIn.getStatus() == null || clockIn.getStatus().isBlank())) {
+                error = "status is required";
+            }
+            if (error != null) {
+                reject(result, error);
+                continue;
+            }
+            // Same rules as a single mark: the first Present sets the check-in time
+            Attendance record = attendance.get(employeeId);
+            if (record == null) {
+                record = new Attendance();
+                record.setEmployee(employees.get(employeeId));
+                record.setAttendanceDate(today);
+                record.setOutletId(OutletContext.require());
+                record.onCreate();
+                inserts.add(record);
+                result.setStatus("CREATED");
+            } else {
+                replaced.add(convertToResponse(record));
+                updates.add(record);
+                result.setStatus("UPDATED");
+            }
+            record.setStatus(clockIn.getStatus());
+            if (clockIn.getRemarks() != null) {
+                record.setRemarks(clockIn.getRemarks());
+            }
+            if ("Present".equals(clockIn.getStatus()) && record.getCheckInTime() == null) {
+                record.setCheckInTime(now);
+            }
+            written.put(record, result);
+        }
+
+        insertBatch(inserts);
+        updateBatch(updates);
+        written.forEach((record, result) -> result.setAttendance(convertToResponse(record)));
+        attendanceSummaryService.recordChanges(replaced,
+            written.values().stream().map(RowResult::getAttendance).collect(Collectors.toList()));
+
+        int accepted = written.size();
+        return new ShiftAttendanceResponse(results.size(), accepted, results.size() - accepted, false, results);
+    }
+
+    private static String check(Long employeeId, Map<Long, Employee> employees, Set<Long> seen) {
+        if (employeeId == null) {
+            return "employeeId is required";
+        }
+        if (!employees.containsKey(employeeId)) {
+            return "Employee not found";
+        }
+        if (!seen.add(employeeId)) {
+            return "Employee appears more than once in this request";
+        }
+        return null;
+    }
+
+    private static void reject(RowResult result, String error) {
+        result.setStatus("REJECTED");
+        result.setError(error);
+    }
+
+    private void insertBatch(List<Attendance> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] counts = jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(UPSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Attendance record = records.get(i);
+                    ps.setLong(1, record.getEmployee().getId());
+                    ps.setObject(2, record.getAttendanceDate());
+                    ps.setObject(3, record.getCheckInTime());
+                    ps.setObject(4, record.getCheckOutTime());
+                    ps.setString(5, record.getStatus());
+                    ps.setString(6, record.getRemarks());
+                    ps.setObject(7, record.getCreatedAt());
+                    ps.setLong(8, record.getOutletId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return records.size();
+                }
+            },
+            keyHolder);
+
+        // A row that was updated rather than inserted reports another count and no key of its own
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() == records.size() && Arrays.stream(counts).allMatch(count -> count == 1)) {
+            for (int i = 0; i < records.size(); i++) {
+                Object key = keys.get(i).values().iterator().next();
+                records.get(i).setId(((Number) key).longValue());
+            }
+            return;
+        }
+        Map<Long, Long> ids = new HashMap<>();
+        for (Object[] row : attendanceRepository.findIdsByEmployeeIdsAndDate(
+                records.stream().map(record -> record.getEmployee().getId()).collect(Collectors.toList()),
+                records.get(0).getAttendanceDate())) {
+            ids.put((Long) row[0], (Long) row[1]);
+        }
+        records.forEach(record -> record.setId(ids.get(record.getEmployee().getId())));
+    }
+
+    private void updateBatch(List<Attendance> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Attendance record = records.get(i);
+                ps.setObject(1, record.getCheckInTime());
+                ps.setObject(2, record.getCheckOutTime());
+                ps.setString(3, record.getStatus());
+                ps.setString(4, record.getRemarks());
+                ps.setLong(5, record.getId());
+                ps.setObject(6, record.getAttendanceDate());
+                ps.setLong(7, record.getOutletId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialise shift attendance: " + e.getOriginalMessage());
+        }
+    }
+
+    private ShiftAttendanceResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, ShiftAttendanceResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Stored shift attendance result is unreadable: " + e.getOriginalMessage());
+        }
+    }
+
+    private static AttendanceResponse convertToResponse(Attendance attendance) {
+        return new AttendanceResponse(
+            attendance.getId(),
+            attendance.getEmployee().getId(),
+            attendance.getEmployee().getName(),
+            attendance.getAttendanceDate(),
+            attendance.getCheckInTime(),
+            attendance.getCheckOutTime(),
+            attendance.getStatus(),
+            attendance.getRemarks()
+        );
+    }
+}
@@ -1,18 +1,16 @@
 package com.ro.petrol_pump_ai.service;
 
-import com.ro.petrol_pump_ai.entity.Attendance;
-import com.ro.petrol_pump_ai.entity.Employee;
 import com.ro.petrol_pump_ai.dto.AttendanceResponse;
 import com.ro.petrol_pump_ai.repository.AttendanceRepository;
 import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class AttendanceService {
@@ -23,71 +21,51 @@ public class AttendanceService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    public AttendanceResponse markAttendance(Long employeeId, String status) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        LocalDate today = LocalDate.now();
-
-        Optional<Attendance> existingAttendance =
-            attendanceRepository.findByEmployeeAndAttendanceDate(employee, today);
-
-        Attendance attendance;
-        if (existingAttendance.isPresent()) {
-            attendance = existingAttendance.get();
-        } else {
-            attendance = new Attendance();
-            attendance.setEmployee(employee);
-            attendance.setAttendanceDate(today);
-        }
-
-        attendance.setStatus(status);
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
 
-        if ("Present".equals(status) && attendance.getCheckInTime() == null) {
-            attendance.setCheckInTime(LocalTime.now());
+    // The employee row lock serialises marks for an employee across devices, so the summary sees a consistent
+    // before and after; the upsert and its unique day key keep writers that skip the lock to one row per day
+    @Transactional
+    public AttendanceResponse markAttendance(Long employeeId, String status) {
+        if (employeeRepository.lockById(employeeId).isEmpty()) {
+            throw new RuntimeException("Employee not found");
         }
 
-        Attendance savedAttendance = attendanceRepository.save(attendance);
-        return convertToResponse(savedAttendance);
+        LocalDate today = LocalDate.now();
+        Optional<AttendanceResponse> before = attendanceRepository.findResponseByEmployeeIdAndDate(employeeId, today);
+        LocalTime checkInTime = "Present".equals(status) ? LocalTime.now() : null;
+        attendanceRepository.upsertMark(OutletContext.require(), employeeId, today, status, checkInTime);
+        AttendanceResponse after = attendanceRepository.findResponseByEmployeeIdAndDate(employeeId, today)
+            .orElseThrow(() -> new RuntimeException("Attendance record not found"));
+        attendanceSummaryService.recordChanges(before.map(List::of).orElse(List.of()), List.of(after));
+        return after;
     }
 
+    @Transactional
     public AttendanceResponse clockOut(Long employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new RuntimeException("Employee not found"));
+        if (employeeRepository.lockById(employeeId).isEmpty()) {
+            throw new RuntimeException("Employee not found");
+        }
 
         LocalDate today = LocalDate.now();
-        Attendance attendance = attendanceRepository.findByEmployeeAndAttendanceDate(employee, today)
+        AttendanceResponse before = attendanceRepository.findResponseByEmployeeIdAndDate(employeeId, today)
             .orElseThrow(() -> new RuntimeException("Attendance record not found"));
-
-        attendance.setCheckOutTime(LocalTime.now());
-        Attendance savedAttendance = attendanceRepository.save(attendance);
-        return convertToResponse(savedAttendance);
+        attendanceRepository.setCheckOut(OutletContext.require(), employeeId, today, LocalTime.now());
+        AttendanceResponse after = attendanceRepository.findResponseByEmployeeIdAndDate(employeeId, today)
+            .orElseThrow(() -> new RuntimeException("Attendance record not found"));
+        attendanceSummaryService.recordChanges(List.of(before), List.of(after));
+        return after;
     }
 
     public List<AttendanceResponse> getTodayAttendance() {
-        List<Attendance> attendances = attendanceRepository.findByAttendanceDate(LocalDate.now());
-        return attendances.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return attendanceRepository.findResponsesByAttendanceDate(LocalDate.now());
     }
 
     public List<AttendanceResponse> getEmployeeAttendanceByDateRange(Long employeeId, LocalDate startDate, LocalDate endDate) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        List<Attendance> attendances = attendanceRepository.findByEmployeeAndAttendanceDateBetween(employee, startDate, endDate);
-        return attendances.stream().map(this::convertToResponse).collect(Collectors.toList());
-    }
-
-    private AttendanceResponse convertToResponse(Attendance attendance) {
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
-        return new AttendanceResponse(
-            attendance.getId(),
-            attendance.getEmployee().getId(),
-            attendance.getEmployee().getName(),
-            attendance.getAttendanceDate(),
-            attendance.getCheckInTime() != null ? attendance.getCheckInTime().format(timeFormatter) : null,
-            attendance.getCheckOutTime() != null ? attendance.getCheckOutTime().format(timeFormatter) : null,
-            attendance.getStatus(),
-            attendance.getRemarks()
-        );
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new RuntimeException("Employee not found");
+        }
+        return attendanceRepository.findResponsesByEmployeeIdAndDateBetween(employeeId, startDate, endDate);
     }
 }
@@ -0,0 +1,163 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.AttendanceSummaryResponse;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
+import com.ro.petrol_pump_ai.repository.AttendanceSummaryRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import com.ro.petrol_pump_ai.util.StreamingQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the per employee x month attendance summaries incrementally as
+ * attendance is written, so the month view for all staff is one read. Callers
+ * pass the day's rows as they were before and after the write, and must hold
+ * the employee's lock (EmployeeRepository.lockById) so no other write to those
+ * days can land in between.
+ */
+@Slf4j
+@Service
+public class AttendanceSummaryService {
+
+    private static final String REBUILD_ROWS_SQL = "SELECT employee_id, attendance_date, status, " +
+        "check_in_time, check_out_time FROM attendance WHERE outlet_id = ?";
+
+    @Autowired
+    private AttendanceSummaryRepository summaryRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.summary.rebuild-fetch-size:1000}")
+    private int rebuildFetchSize;
+
+    public List<AttendanceSummaryResponse> getMonthSummary(YearMonth month) {
+        LocalDate monthStart = month.atDay(1);
+        List<AttendanceSummaryResponse> responses = summaryRepository.findResponsesByMonthStart(monthStart);
+        responses.forEach(response -> response.setMonthStart(monthStart));
+        return responses;
+    }
+
+    // Applies one delta per employee x month; removed are the rows replaced by the write, added the rows it left
+    @Transactional
+    public void recordChanges(List<AttendanceResponse> removed, List<AttendanceResponse> added) {
+        Map<LocalDate, Map<Long, Tally>> tallies = new LinkedHashMap<>();
+        for (AttendanceResponse day : removed) {
+            tallyOf(tallies, day.getEmployeeId(), day.getAttendanceDate())
+                .add(day.getStatus(), parseTime(day.getCheckInTime()), parseTime(day.getCheckOutTime()), -1);
+        }
+        for (AttendanceResponse day : added) {
+            tallyOf(tallies, day.getEmployeeId(), day.getAttendanceDate())
+                .add(day.getStatus(), parseTime(day.getCheckInTime()), parseTime(day.getCheckOutTime()), 1);
+        }
+        apply(OutletContext.require(), tallies);
+    }
+
+    // Rebuilds the current outlet's summaries from its attendance
+    @Transactional
+    public void rebuildSummaries() {
+        Long outletId = OutletContext.require();
+        Map<LocalDate, Map<Long, Tally>> tallies = new LinkedHashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement statement = StreamingQuery.prepare(con, REBUILD_ROWS_SQL, rebuildFetchSize);
+            statement.setLong(1, outletId);
+            return statement;
+        }, rs -> {
+            Time checkIn = rs.getTime(4);
+            Time checkOut = rs.getTime(5);
+            tallyOf(tallies, rs.getLong(1), rs.getDate(2).toLocalDate()).add(rs.getString(3),
+                checkIn != null ? checkIn.toLocalTime() : null, checkOut != null ? checkOut.toLocalTime() : null, 1);
+        });
+        summaryRepository.deleteByOutlet(outletId);
+        int rows = apply(outletId, tallies);
+        log.info("Rebuilt attendance summaries for outlet {}: {} employee/month rows", outletId, rows);
+    }
+
+    // Backfill once for databases that already hold attendance from before the summaries existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        outletService.forEachOutlet(outletId -> {
+            if (summaryRepository.count() == 0 && attendanceRepository.count() > 0) {
+                transactionTemplate.executeWithoutResult(status -> rebuildSummaries());
+            }
+        });
+    }
+
+    private int apply(Long outletId, Map<LocalDate, Map<Long, Tally>> tallies) {
+        int rows = 0;
+        for (Map.Entry<LocalDate, Map<Long, Tally>> byMonth : tallies.entrySet()) {
+            for (Map.Entry<Long, Tally> byEmployee : byMonth.getValue().entrySet()) {
+                Tally tally = byEmployee.getValue();
+                if (tally.isEmpty()) {
+                    continue;
+                }
+                summaryRepository.applyDelta(outletId, byEmployee.getKey(), byMonth.getKey(), tally.present,
+                    tally.absent, tally.leave, tally.half, tally.workedSeconds);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Tally tallyOf(Map<LocalDate, Map<Long, Tally>> tallies, Long employeeId, LocalDate date) {
+        return tallies.computeIfAbsent(date.withDayOfMonth(1), month -> new LinkedHashMap<>())
+            .computeIfAbsent(employeeId, id -> new Tally());
+    }
+
+    // Response times are whole seconds, as are the ones the tally counts
+    private static LocalTime parseTime(String time) {
+        return time != null ? LocalTime.parse(time) : null;
+    }
+
+    private static class Tally {
+        int present;
+        int absent;
+        int leave;
+        int half;
+        long workedSeconds;
+
+        // Statuses are Present, Absent, Leave and Half-day; anything else only counts towards worked time
+        void add(String status, LocalTime checkIn, LocalTime checkOut, int sign) {
+            switch (status != null ? status.trim().toLowerCase().replace(' ', '-') : "") {
+                case "present" -> present += sign;
+                case "absent" -> absent += sign;
+                case "leave" -> leave += sign;
+                case "half-day" -> half += sign;
+                default -> { }
+            }
+            if (checkIn != null && checkOut != null && checkOut.isAfter(checkIn)) {
+                workedSeconds += sign * (long) (checkOut.toSecondOfDay() - checkIn.toSecondOfDay());
+            }
+        }
+
+        boolean isEmpty() {
+            return present == 0 && absent == 0 && leave == 0 && half == 0 && workedSeconds == 0;
+        }
+    }
+}
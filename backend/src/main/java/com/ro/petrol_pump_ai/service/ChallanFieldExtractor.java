@@ -0,0 +1,434 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rule engine that turns challan OCR text into structured fields. All patterns
+ * and vendor templates are compiled once; extraction is pure and thread-safe,
+ * so batch back-fills can run it on many texts in parallel.
+ */
+@Component
+public class ChallanFieldExtractor {
+
+    public static final String DATE = "date";
+    public static final String FUEL_TYPE = "fuelType";
+    public static final String QUANTITY = "quantity";
+    public static final String PRICE_PER_LITER = "pricePerLiter";
+    public static final String TOTAL_AMOUNT = "totalAmount";
+    public static final String VENDOR_NAME = "vendorName";
+    public static final String CHALLAN_NUMBER = "challanNumber";
+
+    private static final int FIELD_COUNT = 7;
+
+    // Used when there are no word confidences, e.g. re-extracting stored raw text
+    private static final double LABELLED_CONFIDENCE = 75.0;
+    private static final double UNLABELLED_FACTOR = 0.7;
+    private static final double DERIVED_FACTOR = 0.9;
+    private static final double MISMATCH_FACTOR = 0.6;
+    private static final double CROSS_CHECK_BONUS = 10.0;
+    private static final double TOTAL_TOLERANCE = 0.02;
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+
+    // 1,23,456.78 (Indian grouping), 123,456.78 or 123456.78
+    private static final String NUMBER = "(\\d{1,3}(?:,\\d{2,3})+(?:\\.\\d+)?|\\d+(?:\\.\\d+)?)";
+    private static final String CURRENCY = "(?:\\(?\\s*(?:rs|inr|\u20B9)\\.?\\s*\\)?)?";
+    private static final String SEPARATOR = "\\s*[:\\-.=]?\\s*";
+    private static final String VOLUME_UNIT = "(kl|kls|kltr|ltrs?|litres?|liters?|lts?|l)\\b";
+
+    private static final String MONTHS = "jan|feb|mar|apr|may|jun|jul|aug|sep|sept|oct|nov|dec";
+    private static final String DATE_VALUE = "(\\d{1,2}[./-]\\d{1,2}[./-]\\d{2,4}|\\d{4}-\\d{1,2}-\\d{1,2}"
+        + "|\\d{1,2}[ ./-]?(?:" + MONTHS + ")[a-z]*[ ./,-]*\\d{2,4})";
+
+    private static final Pattern DATE_LABELLED = Pattern.compile(
+        "(?:challan\\s*date|invoice\\s*date|inv\\.?\\s*date|dated|date|dt)" + SEPARATOR + DATE_VALUE, FLAGS);
+    private static final Pattern DATE_ANY = Pattern.compile("\\b" + DATE_VALUE, FLAGS);
+
+    private static final Pattern QUANTITY_LABELLED = Pattern.compile(
+        "(?:quantity|qty|volume|vol)\\.?\\s*(?:\\(\\s*" + VOLUME_UNIT + "\\s*\\))?" + SEPARATOR
+            + NUMBER + "\\s*(?:" + VOLUME_UNIT + ")?", FLAGS);
+
+    private static final Pattern RATE_LABELLED = Pattern.compile(
+        "(?:unit\\s*price|rate|price)\\s*(?:(?:/|per)\\s*" + VOLUME_UNIT + ")?\\s*" + CURRENCY
+            + "\\s*(?:(?:/|per)\\s*" + VOLUME_UNIT + ")?" + SEPARATOR + CURRENCY + "\\s*" + NUMBER, FLAGS);
+
+    // Ordered from most to least specific; the first label found wins
+    private static final List<Pattern> TOTAL_LABELLED = List.of(
+        Pattern.compile("grand\\s*total" + SEPARATOR + CURRENCY + SEPARATOR + NUMBER, FLAGS),
+        Pattern.compile("(?:net\\s*amount|amount\\s*payable|invoice\\s*value)" + SEPARATOR + CURRENCY + SEPARATOR + NUMBER, FLAGS),
+        Pattern.compile("total\\s*amount" + SEPARATOR + CURRENCY + SEPARATOR + NUMBER, FLAGS),
+        Pattern.compile("\\btotal" + SEPARATOR + CURRENCY + SEPARATOR + NUMBER, FLAGS)
+    );
+
+    private static final String CHALLAN_LABELS = "delivery\\s*challan|challan|invoice|inv|bill|dc";
+    private static final String CHALLAN_VALUE = "((?=[A-Z0-9/\\-]*\\d)[A-Z0-9][A-Z0-9/\\-]{2,})";
+    private static final Pattern CHALLAN_LABELLED = challanPattern(CHALLAN_LABELS);
+
+    private static final Pattern VENDOR_PREFIXED = Pattern.compile("\\bM\\s*/\\s*s\\.?\\s+([A-Za-z][A-Za-z0-9 .&'-]{2,60})", FLAGS);
+
+    // Checked in order so XP95 is not reported as plain Petrol
+    private static final List<Keyword> FUEL_KEYWORDS = List.of(
+        new Keyword("XP95", Pattern.compile("\\bxp\\s*-?\\s*95\\b|xtra\\s*premium", FLAGS)),
+        new Keyword("CNG", Pattern.compile("\\bcng\\b|compressed\\s*natural\\s*gas", FLAGS)),
+        new Keyword("Diesel", Pattern.compile("\\bhsd\\b|high\\s*speed\\s*diesel|\\bdiesel\\b", FLAGS)),
+        new Keyword("Petrol", Pattern.compile("motor\\s*spirit|\\bpetrol\\b|\\bgasoline\\b", FLAGS)),
+        // "MS" is only trusted in capitals; lower case "ms" is too common in OCR noise
+        new Keyword("Petrol", Pattern.compile("\\bMS\\b"))
+    );
+
+    private static final List<VendorTemplate> VENDOR_TEMPLATES = List.of(
+        new VendorTemplate("Indian Oil Corporation Ltd",
+            Pattern.compile("indian\\s*oil|\\biocl?\\b", FLAGS), challanPattern("tt\\s*invoice|" + CHALLAN_LABELS), "kl"),
+        new VendorTemplate("Bharat Petroleum Corporation Ltd",
+            Pattern.compile("bharat\\s*petroleum|\\bbpcl\\b", FLAGS), challanPattern("tax\\s*invoice|" + CHALLAN_LABELS), "kl"),
+        new VendorTemplate("Hindustan Petroleum Corporation Ltd",
+            Pattern.compile("hindustan\\s*petroleum|\\bhpcl\\b", FLAGS), challanPattern("doc(?:ument)?|" + CHALLAN_LABELS), "kl"),
+        new VendorTemplate("Nayara Energy Ltd",
+            Pattern.compile("nayara|essar\\s*oil", FLAGS), CHALLAN_LABELLED, "kl"),
+        new VendorTemplate("Jio-bp",
+            Pattern.compile("jio\\s*-?\\s*bp|reliance\\s*bp", FLAGS), CHALLAN_LABELLED, "l"),
+        new VendorTemplate("Shell India",
+            Pattern.compile("\\bshell\\b", FLAGS), CHALLAN_LABELLED, "l")
+    );
+
+    // Strict, so an impossible day such as 31/02 is rejected rather than moved to the end of the month
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ofPattern("d/M/uuuu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("d/M/uu").withResolverStyle(ResolverStyle.STRICT),
+        DateTimeFormatter.ofPattern("uuuu-M-d").withResolverStyle(ResolverStyle.STRICT),
+        new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("d/MMM/uuuu").toFormatter(Locale.ENGLISH)
+            .withResolverStyle(ResolverStyle.STRICT),
+        new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("d/MMM/uu").toFormatter(Locale.ENGLISH)
+            .withResolverStyle(ResolverStyle.STRICT),
+        new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("d/MMMM/uuuu").toFormatter(Locale.ENGLISH)
+            .withResolverStyle(ResolverStyle.STRICT)
+    );
+
+    @Value
+    private static class Keyword {
+        String value;
+        Pattern pattern;
+    }
+
+    @Value
+    private static class VendorTemplate {
+        String name;
+        Pattern detector;
+        Pattern challanNumber;
+        String defaultVolumeUnit;  // Unit assumed when the quantity has none
+    }
+
+    @Value
+    private static class Match {
+        Object value;
+        int start;
+        int end;
+        boolean labelled;
+    }
+
+    public ChallanExtractedData extract(String rawText) {
+        return extract(rawText, Collections.emptyList());
+    }
+
+    public ChallanExtractedData extract(String rawText, List<OcrPage.Word> words) {
+        ChallanExtractedData data = new ChallanExtractedData();
+        data.setRawText(rawText);
+        Map<String, Double> confidence = new LinkedHashMap<>();
+        data.setFieldConfidence(confidence);
+        if (rawText == null || rawText.isBlank()) {
+            data.setConfidence(0.0);
+            return data;
+        }
+
+        String text = normalizeDigits(rawText);
+        int[][] wordSpans = locateWords(rawText, words);
+        VendorTemplate template = detectTemplate(text);
+
+        // Vendor
+        if (template != null) {
+            Matcher m = template.getDetector().matcher(text);
+            m.find();
+            data.setVendorName(template.getName());
+            confidence.put(VENDOR_NAME, spanConfidence(wordSpans, words, m.start(), m.end(), true));
+        } else {
+            Matcher m = VENDOR_PREFIXED.matcher(rawText);
+            if (m.find()) {
+                data.setVendorName(m.group(1).trim());
+                confidence.put(VENDOR_NAME, spanConfidence(wordSpans, words, m.start(1), m.end(1), false));
+            }
+        }
+
+        // Challan number
+        Matcher challan = (template != null ? template.getChallanNumber() : CHALLAN_LABELLED).matcher(text);
+        if (challan.find()) {
+            data.setChallanNumber(challan.group(1));
+            confidence.put(CHALLAN_NUMBER, spanConfidence(wordSpans, words, challan.start(1), challan.end(1), true));
+        }
+
+        // Date
+        Match date = findDate(text);
+        if (date != null) {
+            data.setDate((LocalDate) date.getValue());
+            confidence.put(DATE, spanConfidence(wordSpans, words, date.getStart(), date.getEnd(), date.isLabelled()));
+        }
+
+        // Fuel type
+        for (Keyword keyword : FUEL_KEYWORDS) {
+            Matcher m = keyword.getPattern().matcher(text);
+            if (m.find()) {
+                data.setFuelType(keyword.getValue());
+                confidence.put(FUEL_TYPE, spanConfidence(wordSpans, words, m.start(), m.end(), true));
+                break;
+            }
+        }
+
+        // Quantity, normalised to litres
+        Matcher qty = QUANTITY_LABELLED.matcher(text);
+        if (qty.find()) {
+            Double quantity = parseNumber(qty.group(2));
+            String unit = qty.group(1) != null ? qty.group(1) : qty.group(3);
+            if (unit == null && template != null && quantity != null && quantity < 100) {
+                unit = template.getDefaultVolumeUnit();
+            }
+            if (quantity != null && isKilolitres(unit)) {
+                quantity = quantity * 1000;
+            }
+            data.setQuantity(quantity);
+            confidence.put(QUANTITY, spanConfidence(wordSpans, words, qty.start(2), qty.end(2), true));
+        }
+
+        // Rate, normalised to per litre
+        Matcher rate = RATE_LABELLED.matcher(text);
+        if (rate.find()) {
+            Double price = parseNumber(rate.group(3));
+            String unit = rate.group(1) != null ? rate.group(1) : rate.group(2);
+            if (price != null && isKilolitres(unit)) {
+                price = price / 1000;
+            }
+            data.setPricePerLiter(price);
+            confidence.put(PRICE_PER_LITER, spanConfidence(wordSpans, words, rate.start(3), rate.end(3), true));
+        }
+
+        // Total
+        for (Pattern pattern : TOTAL_LABELLED) {
+            Matcher m = pattern.matcher(text);
+            if (m.find()) {
+                data.setTotalAmount(parseNumber(m.group(1)));
+                confidence.put(TOTAL_AMOUNT, spanConfidence(wordSpans, words, m.start(1), m.end(1), true));
+                break;
+            }
+        }
+
+        crossCheckAmounts(data, confidence);
+
+        double sum = 0.0;
+        for (Double value : confidence.values()) {
+            sum += value;
+        }
+        data.setConfidence(round(sum / FIELD_COUNT));
+        confidence.replaceAll((field, value) -> round(value));
+        return data;
+    }
+
+    // quantity x rate should match the total; fill in whichever one is missing
+    private void crossCheckAmounts(ChallanExtractedData data, Map<String, Double> confidence) {
+        Double quantity = data.getQuantity();
+        Double price = data.getPricePerLiter();
+        Double total = data.getTotalAmount();
+
+        if (quantity != null && price != null && total != null && total > 0) {
+            // A per-KL rate with no unit printed shows up as 1000x too high
+            if (Math.abs(quantity * price - total) > TOTAL_TOLERANCE * total
+                    && Math.abs(quantity * price / 1000 - total) <= TOTAL_TOLERANCE * total) {
+                price = price / 1000;
+                data.setPricePerLiter(price);
+            }
+            boolean consistent = Math.abs(quantity * price - total) <= TOTAL_TOLERANCE * total;
+            for (String field : List.of(QUANTITY, PRICE_PER_LITER, TOTAL_AMOUNT)) {
+                double value = confidence.get(field);
+                confidence.put(field, consistent ? Math.min(100.0, value + CROSS_CHECK_BONUS) : value * MISMATCH_FACTOR);
+            }
+        } else if (quantity != null && price != null && total == null) {
+            data.setTotalAmount(round(quantity * price));
+            confidence.put(TOTAL_AMOUNT, Math.min(confidence.get(QUANTITY), confidence.get(PRICE_PER_LITER)) * DERIVED_FACTOR);
+        } else if (quantity != null && price == null && total != null && quantity > 0) {
+            data.setPricePerLiter(round(total / quantity));
+            confidence.put(PRICE_PER_LITER, Math.min(confidence.get(QUANTITY), confidence.get(TOTAL_AMOUNT)) * DERIVED_FACTOR);
+        } else if (quantity == null && price != null && total != null && price > 0) {
+            data.setQuantity(round(total / price));
+            confidence.put(QUANTITY, Math.min(confidence.get(PRICE_PER_LITER), confidence.get(TOTAL_AMOUNT)) * DERIVED_FACTOR);
+        }
+    }
+
+    private VendorTemplate detectTemplate(String text) {
+        for (VendorTemplate template : VENDOR_TEMPLATES) {
+            if (template.getDetector().matcher(text).find()) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    private Match findDate(String text) {
+        Matcher labelled = DATE_LABELLED.matcher(text);
+        while (labelled.find()) {
+            LocalDate date = parseDate(labelled.group(1));
+            if (date != null) {
+                return new Match(date, labelled.start(1), labelled.end(1), true);
+            }
+        }
+        Matcher any = DATE_ANY.matcher(text);
+        while (any.find()) {
+            LocalDate date = parseDate(any.group(1));
+            if (date != null) {
+                return new Match(date, any.start(1), any.end(1), false);
+            }
+        }
+        return null;
+    }
+
+    static LocalDate parseDate(String value) {
+        String normalized = value.trim()
+            .replaceAll("(?<=\\d)(?=[A-Za-z])|(?<=[A-Za-z])(?=\\d)", "/")
+            .replaceAll("[ .,-]+", "/")
+            .replaceAll("/+", "/");
+        // ISO dates keep their dashes so they do not collide with d/M/y
+        if (value.trim().matches("\\d{4}-\\d{1,2}-\\d{1,2}")) {
+            normalized = value.trim();
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                LocalDate date = LocalDate.parse(normalized, format);
+                if (date.getYear() >= 2000 && date.getYear() <= 2100) {
+                    return date;
+                }
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    static Double parseNumber(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.replace(",", "").replace(" ", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isKilolitres(String unit) {
+        return unit != null && unit.toLowerCase().startsWith("kl");
+    }
+
+    // Same-length substitution of letters OCR confuses with digits, so match offsets still line up with the raw text.
+    // Only words of digits and those letters are touched, so "No1234" and "12000ltr" keep their letters, and a
+    // trailing l after the digits stays a litre suffix ("500l").
+    static String normalizeDigits(String text) {
+        char[] chars = text.toCharArray();
+        int start = 0;
+        while (start < chars.length) {
+            int end = start;
+            while (end < chars.length && (Character.isLetterOrDigit(chars[end]) || chars[end] == '|')) {
+                end++;
+            }
+            if (end == start) {
+                start++;
+                continue;
+            }
+            if (isMisreadNumber(chars, start, end)) {
+                int last = end - 1;
+                if (isOneLookalike(chars[last]) && last > start && Character.isDigit(chars[last - 1])) {
+                    last--;  // Unit suffix
+                }
+                for (int i = start; i <= last; i++) {
+                    if (isZeroLookalike(chars[i])) {
+                        chars[i] = '0';
+                    } else if (isOneLookalike(chars[i])) {
+                        chars[i] = '1';
+                    }
+                }
+            }
+            start = end;
+        }
+        return new String(chars);
+    }
+
+    private static boolean isMisreadNumber(char[] chars, int start, int end) {
+        boolean digit = false;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (!isZeroLookalike(c) && !isOneLookalike(c)) {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    private static boolean isZeroLookalike(char c) {
+        return c == 'O' || c == 'o';
+    }
+
+    private static boolean isOneLookalike(char c) {
+        return c == 'I' || c == 'l' || c == '|';
+    }
+
+    // Character span of each OCR word within the raw text, found by scanning forward in reading order
+    private static int[][] locateWords(String rawText, List<OcrPage.Word> words) {
+        int[][] spans = new int[words.size()][];
+        int cursor = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i).getText().trim();
+            int start = word.isEmpty() ? -1 : rawText.indexOf(word, cursor);
+            if (start < 0) {
+                spans[i] = new int[] {-1, -1};
+                continue;
+            }
+            spans[i] = new int[] {start, start + word.length()};
+            cursor = start + word.length();
+        }
+        return spans;
+    }
+
+    private static double spanConfidence(int[][] wordSpans, List<OcrPage.Word> words, int start, int end, boolean labelled) {
+        double base = LABELLED_CONFIDENCE;
+        if (!words.isEmpty()) {
+            double sum = 0.0;
+            int count = 0;
+            for (int i = 0; i < wordSpans.length; i++) {
+                if (wordSpans[i][0] < end && wordSpans[i][1] > start) {
+                    sum += words.get(i).getConfidence();
+                    count++;
+                }
+            }
+            if (count > 0) {
+                base = sum / count;
+            }
+        }
+        return labelled ? base : base * UNLABELLED_FACTOR;
+    }
+
+    private static Pattern challanPattern(String labels) {
+        return Pattern.compile("\\b(?:" + labels + ")\\s*(?:no|number|num|#)\\.?" + SEPARATOR + CHALLAN_VALUE, FLAGS);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -1,9 +1,19 @@
 package com.ro.petrol_pump_ai.service;
 
+import com.ro.petrol_pump_ai.dto.CursorPage;
 import com.ro.petrol_pump_ai.entity.Challan;
 import com.ro.petrol_pump_ai.repository.ChallanRepository;
+import com.ro.petrol_pump_ai.util.Cursor;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -12,11 +22,75 @@ public class ChallanService {
     @Autowired
     private ChallanRepository repository;
 
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
+
     public Challan saveChallan(Challan challan) {
         return repository.save(challan);
     }
 
-    public List<Challan> getAll() {
-        return repository.findAll();
+    /**
+     * Newest first, as a keyset page: the cursor holds the (date, id) of the last
+     * challan returned and the next page seeks past it. Filters are optional;
+     * fuel type matches exactly and vendor by substring, both ignoring case.
+     */
+    public CursorPage<Challan> getAll(String cursor, Integer limit, LocalDate startDate, LocalDate endDate,
+                                      String fuelType, String vendor) {
+        int pageSize = Cursor.limit(limit, defaultLimit, maxLimit);
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null) {
+            String[] keys = Cursor.decode(cursor, 2);
+            try {
+                afterDate = LocalDate.parse(keys[0]);
+                afterId = Long.parseLong(keys[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        Specification<Challan> spec = filter(startDate, endDate, fuelType, vendor, afterDate, afterId);
+        List<Challan> challans = repository.findBy(spec, query -> query
+            .sortBy(Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")))
+            .limit(pageSize + 1)
+            .all());
+
+        String next = null;
+        if (challans.size() > pageSize) {
+            challans = challans.subList(0, pageSize);
+            Challan last = challans.get(pageSize - 1);
+            next = Cursor.encode(last.getDate(), last.getId());
+        }
+        return new CursorPage<>(challans, next, pageSize);
+    }
+
+    private static Specification<Challan> filter(LocalDate startDate, LocalDate endDate, String fuelType, String vendor,
+                                                 LocalDate afterDate, Long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (startDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), endDate));
+            }
+            if (fuelType != null && !fuelType.isBlank()) {
+                predicates.add(cb.equal(cb.lower(cb.trim(root.get("fuelType"))), fuelType.trim().toLowerCase()));
+            }
+            if (vendor != null && !vendor.isBlank()) {
+                String pattern = "%" + vendor.trim().toLowerCase()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                predicates.add(cb.like(cb.lower(root.get("vendorName")), pattern, '\\'));
+            }
+            if (afterDate != null) {
+                // (date, id) < (afterDate, afterId), spelled out so every database can use the index
+                predicates.add(cb.or(
+                    cb.lessThan(root.get("date"), afterDate),
+                    cb.and(cb.equal(root.get("date"), afterDate), cb.lessThan(root.get("id"), afterId))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
     }
 }
@@ -0,0 +1,393 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.BulkDailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.BulkDailyEntryResponse.RowResult;
+import com.ro.petrol_pump_ai.dto.DailyEntryRequest;
+import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion of end-of-shift readings. Products are resolved once per upload
+ * and rows are written through plain JDBC batches, since the IDENTITY ids on
+ * daily_entries stop Hibernate from batching inserts.
+ */
+@Slf4j
+@Service
+public class DailyEntryBulkService {
+
+    private static final String INSERT_SQL = "INSERT INTO daily_entries " +
+        "(entry_date, product_id, opening_stock, sales_today, under_tank_delivery, closing_stock, " +
+        "price_per_unit, daily_revenue, temperature, notes, created_at, updated_at, outlet_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private SalesAnalyticsCache salesAnalyticsCache;
+
+    @Autowired
+    private DemandForecaster demandForecaster;
+
+    @Autowired
+    private DashboardEventHub dashboardEventHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${daily-entry.bulk.batch-size:500}")
+    private int batchSize;
+
+    public BulkDailyEntryResponse createDailyEntries(List<DailyEntryRequest> requests) {
+        Ingestion ingestion = new Ingestion();
+        for (int i = 0; i < requests.size(); i++) {
+            ingestion.add(i + 1, requests.get(i));
+        }
+        return ingestion.finish();
+    }
+
+    // Expects a header row naming DailyEntryRequest fields, e.g. entryDate,productId,openingStock,...
+    public BulkDailyEntryResponse importCsv(InputStream input) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return ingestion.finish();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> headers = parseCsvLine(headerLine.replace("\uFEFF", ""));
+            for (int i = 0; i < headers.size(); i++) {
+                columns.put(headers.get(i).trim().toLowerCase(), i);
+            }
+
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    ingestion.add(row, parseCsvRow(parseCsvLine(line), columns));
+                } catch (RuntimeException e) {
+                    ingestion.reject(row, "Unparseable row: " + e.getMessage());
+                }
+            }
+        }
+        return ingestion.finish();
+    }
+
+    public BulkDailyEntryResponse importNdjson(InputStream input) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    ingestion.add(row, objectMapper.readValue(line, DailyEntryRequest.class));
+                } catch (JsonProcessingException e) {
+                    ingestion.reject(row, "Unparseable row: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return ingestion.finish();
+    }
+
+    private class Ingestion {
+
+        private final Map<Long, Product> products = productRepository.findAll().stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        private final List<RowResult> results = new ArrayList<>();
+        private final List<DailyEntry> pending = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        private final Set<String> seen = new HashSet<>();  // date|productId already in this upload
+
+        void add(int row, DailyEntryRequest request) {
+            String error = validate(request);
+            if (error == null && !seen.add(request.getEntryDate() + "|" + request.getProductId())) {
+                error = "Duplicate entry for this product and date";
+            }
+            if (error != null) {
+                reject(row, error);
+                return;
+            }
+
+            DailyEntry entry = new DailyEntry();
+            entry.setEntryDate(request.getEntryDate());
+            entry.setProduct(products.get(request.getProductId()));
+            entry.setOpeningStock(request.getOpeningStock());
+            entry.setSalesToday(request.getSalesToday());
+            entry.setUnderTankDelivery(request.getUnderTankDelivery());
+            entry.setPricePerUnit(request.getPricePerUnit());
+            entry.setTemperature(request.getTemperature());
+            entry.setNotes(request.getNotes());
+            entry.setOutletId(entry.getProduct().getOutletId());
+            entry.onCreate();
+
+            pending.add(entry);
+            pendingRows.add(row);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String error) {
+            results.add(new RowResult(row, "REJECTED", null, error));
+        }
+
+        BulkDailyEntryResponse finish() {
+            flush();
+            results.sort(Comparator.comparing(RowResult::getRow));
+            int accepted = (int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count();
+            return new BulkDailyEntryResponse(results.size(), accepted, results.size() - accepted, results);
+        }
+
+        private String validate(DailyEntryRequest request) {
+            if (request == null) {
+                return "Empty row";
+            }
+            if (request.getEntryDate() == null) {
+                return "entryDate is required";
+            }
+            if (request.getProductId() == null || !products.containsKey(request.getProductId())) {
+                return "Product not found";
+            }
+            if (request.getOpeningStock() == null || request.getOpeningStock() < 0) {
+                return "openingStock must be zero or more";
+            }
+            if (request.getSalesToday() == null || request.getSalesToday() < 0) {
+                return "salesToday must be zero or more";
+            }
+            if (request.getPricePerUnit() == null || request.getPricePerUnit() < 0) {
+                return "pricePerUnit must be zero or more";
+            }
+            if (request.getUnderTankDelivery() != null && request.getUnderTankDelivery() < 0) {
+                return "underTankDelivery must be zero or more";
+            }
+            double delivery = request.getUnderTankDelivery() != null ? request.getUnderTankDelivery() : 0;
+            if (request.getSalesToday() > request.getOpeningStock() + delivery) {
+                return "salesToday exceeds available stock";
+            }
+            return null;
+        }
+
+        private void flush() {
+            rejectExisting();
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                save(pending);
+                for (int i = 0; i < pending.size(); i++) {
+                    results.add(new RowResult(pendingRows.get(i), "CREATED", pending.get(i).getId(), null));
+                }
+            } catch (RuntimeException e) {
+                // One bad row fails the whole JDBC batch, so retry the chunk a row at a time
+                log.warn("Daily entry batch of {} rows failed, retrying row by row: {}", pending.size(), e.getMessage());
+                for (int i = 0; i < pending.size(); i++) {
+                    DailyEntry entry = pending.get(i);
+                    try {
+                        save(List.of(entry));
+                        results.add(new RowResult(pendingRows.get(i), "CREATED", entry.getId(), null));
+                    } catch (RuntimeException rowError) {
+                        log.warn("Daily entry row {} failed: {}", pendingRows.get(i), rowError.getMessage());
+                        reject(pendingRows.get(i), rejection(rowError));
+                    }
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        private void save(List<DailyEntry> entries) {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertBatch(entries);
+                revenueRollupService.recordEntries(entries);
+                entries.forEach(stockLedger::recordEntry);
+                salesAnalyticsCache.invalidate(entries.stream().map(DailyEntry::getEntryDate).toList());
+                entries.forEach(entry -> demandForecaster.entryChanged(entry.getProduct().getId(), entry.getEntryDate()));
+                entries.forEach(entry -> dashboardEventHub.entryChanged(entry.getProduct().getId(), entry.getEntryDate()));
+            });
+        }
+
+        // Driver messages carry SQL and schema details, so clients only get the kind of failure
+        private String rejection(RuntimeException e) {
+            if (e instanceof DuplicateKeyException) {
+                return "Entry already exists for this product and date";
+            }
+            if (e instanceof DataIntegrityViolationException) {
+                return "Row violates a database constraint";
+            }
+            return "Row could not be saved";
+        }
+
+        // One reading per product per day; the unique key would otherwise fail the whole batch
+        private void rejectExisting() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            LocalDate start = pending.stream().map(DailyEntry::getEntryDate).min(Comparator.naturalOrder()).get();
+            LocalDate end = pending.stream().map(DailyEntry::getEntryDate).max(Comparator.naturalOrder()).get();
+            Set<String> existing = new HashSet<>(jdbcTemplate.query(
+                "SELECT entry_date, product_id FROM daily_entries WHERE outlet_id = ? AND entry_date BETWEEN ? AND ?",
+                (rs, i) -> rs.getObject(1, LocalDate.class) + "|" + rs.getLong(2),
+                pending.get(0).getOutletId(), start, end));
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                DailyEntry entry = pending.get(i);
+                if (existing.contains(entry.getEntryDate() + "|" + entry.getProduct().getId())) {
+                    reject(pendingRows.get(i), "Entry already exists for this product and date");
+                    pending.remove(i);
+                    pendingRows.remove(i);
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<DailyEntry> entries) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    DailyEntry entry = entries.get(i);
+                    ps.setObject(1, entry.getEntryDate());
+                    ps.setLong(2, entry.getProduct().getId());
+                    ps.setDouble(3, entry.getOpeningStock());
+                    ps.setDouble(4, entry.getSalesToday());
+                    setNullableDouble(ps, 5, entry.getUnderTankDelivery());
+                    ps.setDouble(6, entry.getClosingStock());
+                    ps.setDouble(7, entry.getPricePerUnit());
+                    setNullableDouble(ps, 8, entry.getDailyRevenue());
+                    setNullableDouble(ps, 9, entry.getTemperature());
+                    ps.setString(10, entry.getNotes());
+                    ps.setObject(11, entry.getCreatedAt());
+                    ps.setObject(12, entry.getUpdatedAt());
+                    ps.setLong(13, entry.getOutletId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return entries.size();
+                }
+            },
+            keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < entries.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            entries.get(i).setId(((Number) key).longValue());
+        }
+    }
+
+    private static void setNullableDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static DailyEntryRequest parseCsvRow(List<String> values, Map<String, Integer> columns) {
+        DailyEntryRequest request = new DailyEntryRequest();
+        String entryDate = csvValue(values, columns, "entrydate");
+        request.setEntryDate(entryDate != null ? LocalDate.parse(entryDate) : null);
+        String productId = csvValue(values, columns, "productid");
+        request.setProductId(productId != null ? Long.valueOf(productId) : null);
+        request.setOpeningStock(csvDouble(values, columns, "openingstock"));
+        request.setSalesToday(csvDouble(values, columns, "salestoday"));
+        request.setUnderTankDelivery(csvDouble(values, columns, "undertankdelivery"));
+        request.setPricePerUnit(csvDouble(values, columns, "priceperunit"));
+        request.setTemperature(csvDouble(values, columns, "temperature"));
+        request.setNotes(csvValue(values, columns, "notes"));
+        return request;
+    }
+
+    private static Double csvDouble(List<String> values, Map<String, Integer> columns, String column) {
+        String value = csvValue(values, columns, column);
+        return value != null ? Double.valueOf(value) : null;
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Minimal RFC 4180 field splitting: commas inside double quotes, "" as an escaped quote
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -7,12 +7,12 @@ import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
 import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
 import com.ro.petrol_pump_ai.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class DailyEntryService {
@@ -23,9 +23,28 @@ public class DailyEntryService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private SalesAnalyticsCache salesAnalyticsCache;
+
+    @Autowired
+    private DemandForecaster demandForecaster;
+
+    @Autowired
+    private DashboardEventHub dashboardEventHub;
+
+    @Transactional
     public DailyEntryResponse createDailyEntry(DailyEntryRequest request) {
         Product product = productRepository.findById(request.getProductId())
             .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (dailyEntryRepository.findByEntryDateAndProduct(request.getEntryDate(), product).isPresent()) {
+            throw new RuntimeException("Entry already exists for this product and date");
+        }
 
         DailyEntry entry = new DailyEntry();
         entry.setEntryDate(request.getEntryDate());
@@ -41,38 +60,56 @@ public class DailyEntryService {
         entry.calculateRevenue();
 
         DailyEntry savedEntry = dailyEntryRepository.save(entry);
+        revenueRollupService.recordEntry(savedEntry);
+        stockLedger.recordEntry(savedEntry);
+        salesAnalyticsCache.invalidate(savedEntry.getEntryDate());
+        demandForecaster.entryChanged(product.getId(), savedEntry.getEntryDate());
+        dashboardEventHub.entryChanged(product.getId(), savedEntry.getEntryDate());
         return convertToResponse(savedEntry);
     }
 
     public DailyEntryResponse getEntryById(Long id) {
-        DailyEntry entry = dailyEntryRepository.findById(id)
+        return dailyEntryRepository.findResponseById(id)
             .orElseThrow(() -> new RuntimeException("Entry not found"));
-        return convertToResponse(entry);
     }
 
     public List<DailyEntryResponse> getTodayEntries() {
-        List<DailyEntry> entries = dailyEntryRepository.findByEntryDate(LocalDate.now());
-        return entries.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return dailyEntryRepository.findResponsesByEntryDate(LocalDate.now());
     }
 
     public List<DailyEntryResponse> getLast7DaysEntries() {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(7);
-        List<DailyEntry> entries = dailyEntryRepository.findByEntryDateBetweenOrderByEntryDateDesc(startDate, endDate);
-        return entries.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return dailyEntryRepository.findResponsesByEntryDateBetween(startDate, endDate);
     }
 
     public DailyEntryResponse getLastEntryForProduct(Long productId) {
-        Product product = productRepository.findById(productId).orElseThrow(() -> new RuntimeException("Product not found"));
-        Optional<DailyEntry> entry = dailyEntryRepository.findTopByProductOrderByEntryDateDesc(product);
-        return entry.map(this::convertToResponse).orElse(null);
+        Optional<StockLedger.StockPosition> position = stockLedger.getPosition(productId);
+        if (position.isPresent()) {
+            return position.get().getLastEntry();
+        }
+
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found");
+        }
+        return dailyEntryRepository.findLatestResponsesByProductId(productId, Limit.of(1)).stream()
+            .findFirst().orElse(null);
     }
 
+    @Transactional
     public DailyEntryResponse updateDailyEntry(Long id, DailyEntryRequest request) {
         DailyEntry entry = dailyEntryRepository.findById(id).orElseThrow(() -> new RuntimeException("Entry not found"));
+        Long previousProductId = entry.getProduct().getId();
 
         Product product = productRepository.findById(request.getProductId())
             .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (!previousProductId.equals(product.getId())
+                && dailyEntryRepository.findByEntryDateAndProduct(entry.getEntryDate(), product).isPresent()) {
+            throw new RuntimeException("Entry already exists for this product and date");
+        }
+
+        revenueRollupService.removeEntry(entry.getProduct().getOutletId(), entry.getEntryDate(),
+            previousProductId, entry.getDailyRevenue(), entry.getSalesToday());
 
         entry.setProduct(product);
         entry.setOpeningStock(request.getOpeningStock());
@@ -86,18 +123,33 @@ public class DailyEntryService {
         entry.calculateRevenue();
 
         DailyEntry updatedEntry = dailyEntryRepository.save(entry);
+        revenueRollupService.recordEntry(updatedEntry);
+        if (!previousProductId.equals(product.getId())) {
+            stockLedger.removeEntry(previousProductId, updatedEntry.getId());
+        }
+        stockLedger.recordEntry(updatedEntry);
+        salesAnalyticsCache.invalidate(updatedEntry.getEntryDate());
+        demandForecaster.entryChanged(previousProductId, updatedEntry.getEntryDate());
+        demandForecaster.entryChanged(product.getId(), updatedEntry.getEntryDate());
+        dashboardEventHub.entryChanged(previousProductId, updatedEntry.getEntryDate());
+        dashboardEventHub.entryChanged(product.getId(), updatedEntry.getEntryDate());
         return convertToResponse(updatedEntry);
     }
 
+    @Transactional
     public void deleteDailyEntry(Long id) {
-        if (!dailyEntryRepository.existsById(id)) {
-            throw new RuntimeException("Entry not found");
-        }
-        dailyEntryRepository.deleteById(id);
+        DailyEntry entry = dailyEntryRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Entry not found"));
+        revenueRollupService.removeEntry(entry.getProduct().getOutletId(), entry.getEntryDate(),
+            entry.getProduct().getId(), entry.getDailyRevenue(), entry.getSalesToday());
+        dailyEntryRepository.delete(entry);
+        stockLedger.removeEntry(entry.getProduct().getId(), entry.getId());
+        salesAnalyticsCache.invalidate(entry.getEntryDate());
+        demandForecaster.entryChanged(entry.getProduct().getId(), entry.getEntryDate());
+        dashboardEventHub.entryChanged(entry.getProduct().getId(), entry.getEntryDate());
     }
 
-    private DailyEntryResponse convertToResponse(DailyEntry entry) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static DailyEntryResponse convertToResponse(DailyEntry entry) {
         return new DailyEntryResponse(
             entry.getId(),
             entry.getEntryDate(),
@@ -110,7 +162,7 @@ public class DailyEntryService {
             entry.getDailyRevenue(),
             entry.getTemperature(),
             entry.getNotes(),
-            entry.getCreatedAt() != null ? entry.getCreatedAt().format(formatter) : null
+            entry.getCreatedAt()
         );
     }
 }
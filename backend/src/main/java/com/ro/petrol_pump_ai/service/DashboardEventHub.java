@@ -0,0 +1,234 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.util.AfterCommit;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans dashboard changes out to Server-Sent Event subscribers. Committed daily
+ * entry changes are coalesced per outlet and turned into one "update" event on
+ * a single publisher thread, serialised once and queued for every subscriber
+ * of that outlet. Senders drain each subscriber's queue separately, so a slow
+ * client only delays itself; one that falls a full queue behind is disconnected
+ * and resyncs from the snapshot sent on reconnect.
+ */
+@Slf4j
+@Component
+public class DashboardEventHub {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${dashboard.stream.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${dashboard.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private ExecutorService publisher;
+    private ExecutorService senders;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Changes committed since the publisher last ran, by outlet
+    private final Map<Long, Set<Long>> changedProducts = new ConcurrentHashMap<>();
+    private final Map<Long, Set<LocalDate>> changedDates = new ConcurrentHashMap<>();
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private Counter dropped;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private class Subscriber {
+        final Long outletId;
+        final SseEmitter emitter = new SseEmitter(timeoutMs);
+        final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long outletId) {
+            this.outletId = outletId;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        publisher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("dashboard-events-"));
+        senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("dashboard-sse-"));
+        Gauge.builder("dashboard.stream.subscribers", subscribers, Set::size)
+            .description("Open dashboard event streams").register(meterRegistry);
+        dropped = Counter.builder("dashboard.stream.dropped")
+            .description("Dashboard subscribers disconnected for falling behind").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Opens a stream for the current outlet that starts with a "snapshot" event
+     * holding the full dashboard, followed by "update" events with the changed
+     * cards and days.
+     */
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(OutletContext.require());
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        // On the publisher thread so no update can be queued ahead of the snapshot
+        publisher.execute(() -> {
+            try {
+                Set<DataWithMediaType> snapshot = event("snapshot",
+                    OutletContext.call(subscriber.outletId, dashboardService::getDashboardData));
+                if (snapshot == null) {
+                    subscriber.emitter.complete();
+                    return;
+                }
+                subscribers.add(subscriber);
+                enqueue(subscriber, snapshot);
+            } catch (RuntimeException e) {
+                subscriber.emitter.completeWithError(e);
+            }
+        });
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public void entryChanged(Long productId, LocalDate entryDate) {
+        Long outletId = OutletContext.get();
+        AfterCommit.run(() -> {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            changedProducts.computeIfAbsent(outletId, id -> ConcurrentHashMap.newKeySet()).add(productId);
+            changedDates.computeIfAbsent(outletId, id -> ConcurrentHashMap.newKeySet()).add(entryDate);
+            if (publishScheduled.compareAndSet(false, true)) {
+                publisher.execute(this::publishChanges);
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+    }
+
+    private void publishChanges() {
+        publishScheduled.set(false);
+        Set<Long> outletIds = new HashSet<>(changedProducts.keySet());
+        outletIds.addAll(changedDates.keySet());
+        for (Long outletId : outletIds) {
+            Set<Long> productIds = drain(changedProducts.get(outletId));
+            Set<LocalDate> dates = drain(changedDates.get(outletId));
+            if (productIds.isEmpty() && dates.isEmpty()) {
+                continue;
+            }
+            try {
+                Set<DataWithMediaType> event = OutletContext.call(outletId, () -> stockLedger.isWarm()
+                    ? event("update", dashboardService.getUpdate(productIds, dates))
+                    : event("snapshot", dashboardService.getDashboardData()));
+                if (event != null) {
+                    subscribers.stream()
+                        .filter(subscriber -> subscriber.outletId.equals(outletId))
+                        .forEach(subscriber -> enqueue(subscriber, event));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not publish dashboard changes for outlet {}: {}", outletId, e.getMessage());
+            }
+        }
+    }
+
+    // Never blocks: a subscriber whose queue is full is cut off instead
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> event) {
+        if (!subscriber.queue.offer(event)) {
+            dropped.increment();
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> event;
+            while ((event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    subscriber.emitter.completeWithError(e);
+                }
+            }
+            subscriber.draining.set(false);
+            // Re-check for an event queued after the last poll but before the flag was cleared
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private Set<DataWithMediaType> event(String name, Object payload) {
+        try {
+            return SseEmitter.event()
+                .id(String.valueOf(sequence.incrementAndGet()))
+                .name(name)
+                .data(objectMapper.writeValueAsString(payload))
+                .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise dashboard {} event: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private static <T> Set<T> drain(Set<T> source) {
+        Set<T> drained = new HashSet<>();
+        if (source == null) {
+            return drained;
+        }
+        for (Iterator<T> it = source.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
@@ -1,10 +1,12 @@
 package com.ro.petrol_pump_ai.service;
 
-import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.entity.DailyProductRollup;
+import com.ro.petrol_pump_ai.entity.DailyRevenueRollup;
 import com.ro.petrol_pump_ai.dto.DashboardResponse;
 import com.ro.petrol_pump_ai.dto.DashboardResponse.StockCard;
-import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
-import com.ro.petrol_pump_ai.repository.ProductRepository;
+import com.ro.petrol_pump_ai.dto.DashboardUpdate;
+import com.ro.petrol_pump_ai.repository.DailyProductRollupRepository;
+import com.ro.petrol_pump_ai.repository.DailyRevenueRollupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -15,49 +17,118 @@ import java.util.*;
 public class DashboardService {
 
     @Autowired
-    private DailyEntryRepository dailyEntryRepository;
+    private DailyProductRollupRepository productRollupRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private DailyRevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
 
     public DashboardResponse getDashboardData() {
         DashboardResponse response = new DashboardResponse();
 
-        List<DailyEntry> todayEntries = dailyEntryRepository.findByEntryDate(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        List<DailyProductRollup> todayRollups = productRollupRepository.findByEntryDateWithProduct(today);
         List<StockCard> stockCards = new ArrayList<>();
-        Double totalRevenue = 0.0;
-
-        for (DailyEntry entry : todayEntries) {
-            stockCards.add(new StockCard(
-                entry.getProduct().getName(),
-                entry.getClosingStock(),
-                entry.getProduct().getUnit(),
-                entry.getDailyRevenue() != null ? entry.getDailyRevenue() : 0.0
-            ));
-            totalRevenue += entry.getDailyRevenue() != null ? entry.getDailyRevenue() : 0.0;
+
+        if (stockLedger.isWarm()) {
+            Map<Long, Double> todayRevenueByProduct = revenueByProduct(todayRollups);
+            for (StockLedger.StockPosition position : stockLedger.getPositions()) {
+                if (position.getLastEntry() == null) {
+                    continue;
+                }
+                stockCards.add(stockCard(position, todayRevenueByProduct));
+            }
+        } else {
+            for (DailyProductRollup rollup : todayRollups) {
+                stockCards.add(new StockCard(
+                    rollup.getProduct().getName(),
+                    rollup.getClosingStock(),
+                    rollup.getProduct().getUnit(),
+                    rollup.getTotalRevenue()
+                ));
+            }
         }
 
+        Optional<DailyRevenueRollup> todayTotals = revenueRollupRepository.findByEntryDate(today);
+
         response.setStockCards(stockCards);
-        response.setTotalRevenue(totalRevenue);
-        response.setTodayEntryCount(todayEntries.size());
+        response.setTotalRevenue(todayTotals.map(DailyRevenueRollup::getTotalRevenue).orElse(0.0));
+        response.setTodayEntryCount(todayTotals.map(DailyRevenueRollup::getEntryCount).orElse(0));
 
-        LocalDate endDate = LocalDate.now();
+        LocalDate endDate = today;
         LocalDate startDate = endDate.minusDays(7);
-        List<DailyEntry> last7DaysEntries = dailyEntryRepository.findByEntryDateBetweenOrderByEntryDateDesc(startDate, endDate);
+        List<DailyRevenueRollup> last7DaysTotals =
+            revenueRollupRepository.findByEntryDateBetweenOrderByEntryDateDesc(startDate, endDate);
 
         Map<LocalDate, Double> dailySalesMap = new LinkedHashMap<>();
         for (int i = 6; i >= 0; i--) {
             dailySalesMap.put(endDate.minusDays(i), 0.0);
         }
 
-        for (DailyEntry entry : last7DaysEntries) {
-            Double currentRevenue = dailySalesMap.getOrDefault(entry.getEntryDate(), 0.0);
-            dailySalesMap.put(entry.getEntryDate(),
-                currentRevenue + (entry.getDailyRevenue() != null ? entry.getDailyRevenue() : 0.0));
+        for (DailyRevenueRollup totals : last7DaysTotals) {
+            Double currentRevenue = dailySalesMap.getOrDefault(totals.getEntryDate(), 0.0);
+            dailySalesMap.put(totals.getEntryDate(), currentRevenue + totals.getTotalRevenue());
         }
 
         response.setLast7DaysSalesData(dailySalesMap);
 
         return response;
     }
+
+    /**
+     * Current values for just the cards and days affected by changes to the given
+     * products and dates. Relies on the stock ledger, so callers fall back to
+     * {@link #getDashboardData()} until it is warm.
+     */
+    public DashboardUpdate getUpdate(Collection<Long> productIds, Collection<LocalDate> dates) {
+        LocalDate today = LocalDate.now();
+        DashboardUpdate update = new DashboardUpdate(new ArrayList<>(), new ArrayList<>(), null, null,
+            new TreeMap<>());
+
+        if (!productIds.isEmpty()) {
+            Map<Long, Double> todayRevenueByProduct =
+                revenueByProduct(productRollupRepository.findByEntryDateWithProduct(today));
+            for (Long productId : productIds) {
+                stockLedger.getPosition(productId).ifPresent(position -> {
+                    if (position.getLastEntry() == null) {
+                        update.getRemovedProducts().add(position.getProductName());
+                    } else {
+                        update.getStockCards().add(stockCard(position, todayRevenueByProduct));
+                    }
+                });
+            }
+        }
+
+        for (LocalDate date : new TreeSet<>(dates)) {
+            if (date.isAfter(today) || date.isBefore(today.minusDays(6))) {
+                continue;
+            }
+            Optional<DailyRevenueRollup> totals = revenueRollupRepository.findByEntryDate(date);
+            update.getLast7DaysSalesData().put(date, totals.map(DailyRevenueRollup::getTotalRevenue).orElse(0.0));
+            if (date.isEqual(today)) {
+                update.setTotalRevenue(totals.map(DailyRevenueRollup::getTotalRevenue).orElse(0.0));
+                update.setTodayEntryCount(totals.map(DailyRevenueRollup::getEntryCount).orElse(0));
+            }
+        }
+        return update;
+    }
+
+    private static Map<Long, Double> revenueByProduct(List<DailyProductRollup> rollups) {
+        Map<Long, Double> revenueByProduct = new HashMap<>();
+        for (DailyProductRollup rollup : rollups) {
+            revenueByProduct.put(rollup.getProduct().getId(), rollup.getTotalRevenue());
+        }
+        return revenueByProduct;
+    }
+
+    private static StockCard stockCard(StockLedger.StockPosition position, Map<Long, Double> todayRevenueByProduct) {
+        return new StockCard(
+            position.getProductName(),
+            position.getClosingStock(),
+            position.getUnit(),
+            todayRevenueByProduct.getOrDefault(position.getProductId(), 0.0)
+        );
+    }
 }
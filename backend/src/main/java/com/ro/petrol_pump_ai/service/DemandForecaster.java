@@ -0,0 +1,340 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.PredictiveAnalyticsResponse.DailyForecast;
+import com.ro.petrol_pump_ai.dto.PredictiveAnalyticsResponse.ProductForecast;
+import com.ro.petrol_pump_ai.entity.DailyProductRollup;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.DailyProductRollupRepository;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import com.ro.petrol_pump_ai.util.AfterCommit;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link ForecastModel} per product of each outlet in memory. Models learn from each
+ * completed day's sales (from the daily product rollups) as it arrives; only a
+ * change to a day a model has already learned from forces a refit of that
+ * product. Models are snapshotted to disk so a restart resumes where it left off.
+ */
+@Slf4j
+@Component
+public class DemandForecaster {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailyProductRollupRepository rollupRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${forecast.alpha:0.3}")
+    private double alpha;
+
+    @Value("${forecast.beta:0.05}")
+    private double beta;
+
+    @Value("${forecast.gamma:0.2}")
+    private double gamma;
+
+    @Value("${forecast.trend-damping:0.98}")
+    private double damping;
+
+    @Value("${forecast.lead-time-days:2}")
+    private int leadTimeDays;  // Order to delivery
+
+    @Value("${forecast.service-level-z:1.65}")
+    private double serviceLevelZ;  // 1.65 = about 95% of lead times without a stock-out
+
+    @Value("${forecast.cover-days:7}")
+    private int coverDays;  // Demand each order should cover after it arrives
+
+    @Value("${forecast.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${forecast.snapshot-path:${user.home}/.petrol-pump-ai/forecast-models.json}")
+    private String snapshotPath;
+
+    private ForecastModel.Parameters parameters;
+
+    // Product ids are only unique within an outlet's database
+    private record ProductKey(Long outletId, Long productId) { }
+
+    private final Map<ProductKey, ForecastModel> models = new ConcurrentHashMap<>();
+    private final Set<ProductKey> stale = ConcurrentHashMap.newKeySet();  // Products whose learned history changed
+    // Last completed day each outlet's models were fed, so most forecasts skip the catch-up
+    private final Map<Long, LocalDate> caughtUpThrough = new ConcurrentHashMap<>();
+    // Models are fed and read under their outlet's lock, so outlets never wait on each other
+    private final Map<Long, Object> outletLocks = new ConcurrentHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Snapshot {
+        private LocalDateTime savedAt;
+        private List<ForecastModel> models;
+    }
+
+    @PostConstruct
+    public void init() {
+        parameters = new ForecastModel.Parameters(alpha, beta, gamma, damping);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (Files.exists(path)) {
+            try {
+                Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+                int restored = 0;
+                for (ForecastModel model : snapshot.getModels()) {
+                    if (model.getOutletId() == null || !outletService.exists(model.getOutletId())) {
+                        continue;  // Saved before outlets existed, or for an outlet since removed; refit
+                    }
+                    ProductKey key = new ProductKey(model.getOutletId(), model.getProductId());
+                    models.put(key, model);
+                    // History edited while we were down invalidates the model
+                    double total = OutletContext.call(model.getOutletId(),
+                        () -> rollupRepository.sumSalesThrough(model.getProductId(), model.getLastObservedDate()));
+                    if (Math.abs(total - model.getObservedTotal()) > 0.01) {
+                        stale.add(key);
+                    } else {
+                        restored++;
+                    }
+                }
+                log.info("Restored {} forecast models from {}", restored, path);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable forecast snapshot: {}", e.getMessage());
+                models.clear();
+            }
+        }
+        catchUp();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${forecast.snapshot-interval-ms:900000}",
+               initialDelayString = "${forecast.snapshot-interval-ms:900000}")
+    public synchronized void saveSnapshot() {
+        List<ForecastModel> copies = new ArrayList<>();
+        for (Map.Entry<ProductKey, ForecastModel> entry : models.entrySet()) {
+            synchronized (lock(entry.getKey().outletId())) {
+                copies.add(objectMapper.convertValue(entry.getValue(), ForecastModel.class));
+            }
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.setSavedAt(LocalDateTime.now());
+        snapshot.setModels(copies);
+        Path path = Paths.get(snapshotPath);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save forecast snapshot: {}", e.getMessage());
+        }
+    }
+
+    // Called for every daily entry change; only backdated changes cost anything
+    public void entryChanged(Long productId, LocalDate entryDate) {
+        ProductKey key = new ProductKey(OutletContext.get(), productId);
+        AfterCommit.run(() -> {
+            ForecastModel model = models.get(key);
+            if (model != null && model.getLastObservedDate() != null
+                    && !entryDate.isAfter(model.getLastObservedDate())) {
+                stale.add(key);
+            }
+        });
+    }
+
+    /**
+     * Feeds every model the completed days (up to yesterday) it has not seen yet.
+     * Runs nightly for every outlet, and before a forecast for the current one
+     * when it has days, products or edits it has not taken in yet.
+     */
+    @Scheduled(cron = "${forecast.update-cron:0 15 0 * * *}")
+    public void catchUp() {
+        if (OutletContext.isRoot()) {
+            outletService.forEachOutlet(this::catchUp);
+        } else {
+            catchUp(OutletContext.get());
+        }
+    }
+
+    private void catchUp(Long outletId) {
+        synchronized (lock(outletId)) {
+            feed(outletId);
+        }
+    }
+
+    private void feed(Long outletId) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Set<ProductKey> keys = new HashSet<>();
+        for (Product product : productRepository.findAll()) {
+            ProductKey key = new ProductKey(outletId, product.getId());
+            keys.add(key);
+            ForecastModel model = models.get(key);
+            if (model == null || stale.remove(key)) {
+                model = new ForecastModel(outletId, product.getId());
+                models.put(key, model);
+            }
+            LocalDate from = model.getLastObservedDate() != null ? model.getLastObservedDate().plusDays(1) : LocalDate.EPOCH;
+            if (from.isAfter(yesterday)) {
+                continue;
+            }
+            for (DailyProductRollup day : rollupRepository.findByProductIdAndEntryDateBetweenOrderByEntryDate(
+                    product.getId(), from, yesterday)) {
+                model.observe(day.getEntryDate(), day.getTotalSales(), parameters);
+            }
+        }
+        models.keySet().removeIf(key -> key.outletId().equals(outletId) && !keys.contains(key));
+        caughtUpThrough.put(outletId, yesterday);
+    }
+
+    public List<ProductForecast> forecastAll() {
+        if (OutletContext.isRoot()) {
+            return List.of();  // Models belong to outlets
+        }
+        Long outletId = OutletContext.get();
+        List<StockLedger.StockPosition> positions = stockLedger.getPositions();
+        List<ProductForecast> forecasts = new ArrayList<>();
+        synchronized (lock(outletId)) {
+            if (needsCatchUp(outletId, positions)) {
+                feed(outletId);
+            }
+            for (StockLedger.StockPosition position : positions) {
+                ForecastModel model = models.get(new ProductKey(outletId, position.getProductId()));
+                if (model != null) {
+                    forecasts.add(forecast(position, model));
+                }
+            }
+        }
+        return forecasts;
+    }
+
+    // A new day to learn, a backdated edit, or a product without a model yet
+    private boolean needsCatchUp(Long outletId, List<StockLedger.StockPosition> positions) {
+        if (!LocalDate.now().minusDays(1).equals(caughtUpThrough.get(outletId))) {
+            return true;
+        }
+        if (stale.stream().anyMatch(key -> key.outletId().equals(outletId))) {
+            return true;
+        }
+        return positions.stream().anyMatch(position -> !models.containsKey(new ProductKey(outletId, position.getProductId())));
+    }
+
+    private Object lock(Long outletId) {
+        return outletLocks.computeIfAbsent(outletId, id -> new Object());
+    }
+
+    public int getLeadTimeDays() {
+        return leadTimeDays;
+    }
+
+    private ProductForecast forecast(StockLedger.StockPosition position, ForecastModel model) {
+        ProductForecast result = new ProductForecast();
+        result.setProductId(position.getProductId());
+        result.setProductName(position.getProductName());
+        result.setUnit(position.getUnit());
+        result.setTrainedDays(model.getObservations());
+        result.setForecast(new ArrayList<>());
+        if (model.getObservations() == 0 || position.getLastEntry() == null) {
+            return result;
+        }
+
+        LocalDate asOf = position.getLastEntry().getEntryDate();
+        double stock = position.getClosingStock();
+        result.setCurrentStock(stock);
+        result.setStockAsOf(asOf);
+        result.setForecastErrorStdDev(round(model.getErrorStdDev()));
+
+        double nextWeek = 0;
+        double leadTimeDemand = 0;
+        double coverDemand = 0;
+        for (int day = 1; day <= leadTimeDays + coverDays; day++) {
+            double expected = model.forecast(asOf.plusDays(day), parameters);
+            if (day <= 7) {
+                nextWeek += expected;
+            }
+            if (day <= leadTimeDays) {
+                leadTimeDemand += expected;
+            } else {
+                coverDemand += expected;
+            }
+        }
+        double safetyStock = serviceLevelZ * model.getErrorStdDev() * Math.sqrt(leadTimeDays);
+        double reorderPoint = leadTimeDemand + safetyStock;
+        result.setAverageDailyDemand(round(nextWeek / 7));
+        result.setReorderPoint(round(reorderPoint));
+
+        // Walk the projected stock forward until the tank runs dry or the horizon ends
+        double projected = stock;
+        if (projected <= reorderPoint) {
+            result.setReorderDate(asOf);
+        }
+        for (int day = 1; day <= horizonDays && result.getDryDate() == null; day++) {
+            LocalDate date = asOf.plusDays(day);
+            double expected = model.forecast(date, parameters);
+            double before = projected;
+            projected -= expected;
+            if (result.getReorderDate() == null && projected <= reorderPoint) {
+                result.setReorderDate(date);
+            }
+            if (projected <= 0) {
+                // Interpolate within the day the stock runs out
+                double fraction = expected > 0 ? before / expected : 0;
+                result.setDaysUntilDry(round(day - 1 + fraction));
+                result.setDryDate(date);
+            }
+            if (day <= 14) {
+                result.getForecast().add(new DailyForecast(date, round(expected), round(Math.max(0, projected))));
+            }
+        }
+
+        // Enough to cover lead time and the cover period, topping back up past the safety stock
+        if (result.getReorderDate() != null) {
+            double stockAtOrder = Math.max(0, stock - demandBetween(model, asOf, result.getReorderDate()));
+            double quantity = leadTimeDemand + coverDemand + safetyStock - stockAtOrder;
+            result.setRecommendedOrderQuantity(round(Math.max(0, quantity)));
+        }
+        return result;
+    }
+
+    private double demandBetween(ForecastModel model, LocalDate after, LocalDate through) {
+        double demand = 0;
+        for (LocalDate date = after.plusDays(1); !date.isAfter(through); date = date.plusDays(1)) {
+            demand += model.forecast(date, parameters);
+        }
+        return demand;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -1,14 +1,20 @@
 package com.ro.petrol_pump_ai.service;
 
 import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.dto.CursorPage;
 import com.ro.petrol_pump_ai.dto.EmployeeRequest;
 import com.ro.petrol_pump_ai.dto.EmployeeResponse;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
 import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.repository.SalarySlipRepository;
+import com.ro.petrol_pump_ai.repository.SalaryStructureRepository;
+import com.ro.petrol_pump_ai.util.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import java.time.format.DateTimeFormatter;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
@@ -16,6 +22,21 @@ public class EmployeeService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private SalaryStructureRepository salaryStructureRepository;
+
+    @Autowired
+    private SalarySlipRepository salarySlipRepository;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
+
     public EmployeeResponse createEmployee(EmployeeRequest request) {
         Employee employee = new Employee();
         employee.setName(request.getName());
@@ -29,24 +50,29 @@ public class EmployeeService {
     }
 
     public EmployeeResponse getEmployeeById(Long id) {
-        Employee employee = employeeRepository.findById(id)
+        return employeeRepository.findResponseById(id)
             .orElseThrow(() -> new RuntimeException("Employee not found"));
-        return convertToResponse(employee);
     }
 
-    public List<EmployeeResponse> getAllEmployees() {
-        List<Employee> employees = employeeRepository.findAll();
-        return employees.stream().map(this::convertToResponse).collect(Collectors.toList());
+    // Keyset page in id order; pass the previous page's nextCursor to continue
+    public CursorPage<EmployeeResponse> getAllEmployees(String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit, defaultLimit, maxLimit);
+        long afterId = cursor != null ? parseId(Cursor.decode(cursor, 1)[0]) : 0L;
+        List<EmployeeResponse> employees = employeeRepository.findResponsesAfterId(afterId, Limit.of(pageSize + 1));
+        String next = null;
+        if (employees.size() > pageSize) {
+            employees = employees.subList(0, pageSize);
+            next = Cursor.encode(employees.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(employees, next, pageSize);
     }
 
     public List<EmployeeResponse> getEmployeesByRole(String role) {
-        List<Employee> employees = employeeRepository.findByRole(role);
-        return employees.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return employeeRepository.findResponsesByRole(role);
     }
 
     public List<EmployeeResponse> getEmployeesByStatus(String status) {
-        List<Employee> employees = employeeRepository.findByStatus(status);
-        return employees.stream().map(this::convertToResponse).collect(Collectors.toList());
+        return employeeRepository.findResponsesByStatus(status);
     }
 
     public EmployeeResponse updateEmployee(Long id, EmployeeRequest request) {
@@ -63,15 +89,30 @@ public class EmployeeService {
         return convertToResponse(updatedEmployee);
     }
 
+    @Transactional
     public void deleteEmployee(Long id) {
         if (!employeeRepository.existsById(id)) {
             throw new RuntimeException("Employee not found");
         }
+        if (attendanceRepository.existsByEmployeeId(id)) {
+            throw new RuntimeException("Employee has attendance records and cannot be deleted");
+        }
+        if (salarySlipRepository.existsByEmployeeId(id)) {
+            throw new RuntimeException("Employee has salary slips and cannot be deleted");
+        }
+        salaryStructureRepository.deleteByEmployeeId(id);
         employeeRepository.deleteById(id);
     }
 
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     private EmployeeResponse convertToResponse(Employee employee) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         return new EmployeeResponse(
             employee.getId(),
             employee.getName(),
@@ -80,7 +121,7 @@ public class EmployeeService {
             employee.getRole(),
             employee.getHireDate(),
             employee.getStatus(),
-            employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null
+            employee.getCreatedAt()
         );
     }
 }
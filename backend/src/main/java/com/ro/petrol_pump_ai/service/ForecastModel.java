@@ -0,0 +1,92 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Additive Holt-Winters state for one product's daily sales, with a damped
+ * trend and a weekly season indexed by day of week. Each observation updates
+ * the state in O(1), so the model never needs the history again. Plain bean so
+ * it can be snapshotted as JSON.
+ */
+@Data
+@NoArgsConstructor
+public class ForecastModel {
+
+    private static final double VARIANCE_WEIGHT = 0.1;
+
+    private Long outletId;
+    private Long productId;
+    private double level;
+    private double trend;
+    private double[] season = new double[7];  // Monday = 0
+    private double errorVariance;             // EWMA of squared one-step errors
+    private long observations;
+    private LocalDate lastObservedDate;
+    private double observedTotal;             // Sum of all observed sales, to validate a snapshot
+
+    public ForecastModel(Long outletId, Long productId) {
+        this.outletId = outletId;
+        this.productId = productId;
+    }
+
+    public void observe(LocalDate date, double sales, Parameters p) {
+        if (lastObservedDate != null && !date.isAfter(lastObservedDate)) {
+            throw new IllegalArgumentException("Observations must be in date order");
+        }
+        if (observations == 0) {
+            level = sales;
+        } else {
+            // Days with no entry carry the level forward along the trend
+            for (LocalDate d = lastObservedDate.plusDays(1); d.isBefore(date); d = d.plusDays(1)) {
+                level += p.getDamping() * trend;
+                trend *= p.getDamping();
+            }
+            int i = seasonIndex(date);
+            double error = sales - (level + p.getDamping() * trend + season[i]);
+            errorVariance = observations == 1 ? error * error
+                : (1 - VARIANCE_WEIGHT) * errorVariance + VARIANCE_WEIGHT * error * error;
+
+            double previousLevel = level;
+            level = p.getAlpha() * (sales - season[i]) + (1 - p.getAlpha()) * (level + p.getDamping() * trend);
+            trend = p.getBeta() * (level - previousLevel) + (1 - p.getBeta()) * p.getDamping() * trend;
+            season[i] = p.getGamma() * (sales - level) + (1 - p.getGamma()) * season[i];
+        }
+        observations++;
+        lastObservedDate = date;
+        observedTotal += sales;
+    }
+
+    // Expected sales on a date after the last observation; never negative
+    public double forecast(LocalDate date, Parameters p) {
+        long horizon = date.toEpochDay() - lastObservedDate.toEpochDay();
+        double dampedTrend = 0;
+        double factor = 1;
+        for (long h = 0; h < horizon; h++) {
+            factor *= p.getDamping();
+            dampedTrend += factor;
+        }
+        return Math.max(0, level + dampedTrend * trend + season[seasonIndex(date)]);
+    }
+
+    @JsonIgnore
+    public double getErrorStdDev() {
+        return Math.sqrt(errorVariance);
+    }
+
+    private static int seasonIndex(LocalDate date) {
+        return date.getDayOfWeek().getValue() - 1;
+    }
+
+    @Value
+    public static class Parameters {
+        double alpha;    // Level smoothing
+        double beta;     // Trend smoothing
+        double gamma;    // Weekly season smoothing
+        double damping;  // Trend damping per day, 1 = undamped
+    }
+}
@@ -1,50 +1,168 @@
 package com.ro.petrol_pump_ai.service;
 
 import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
+import com.ro.petrol_pump_ai.dto.OcrPageResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.time.LocalDate;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 public class OCRService {
 
-    private final Tesseract tesseract;
+    @Autowired
+    private TesseractEnginePool enginePool;
 
-    public OCRService() {
-        this.tesseract = new Tesseract();
-        this.tesseract.setDatapath("C:/Program Files/Tesseract-OCR/tessdata");
-        this.tesseract.setLanguage("eng");
+    @Autowired
+    private OcrImagePipeline imagePipeline;
+
+    @Autowired
+    private ChallanFieldExtractor fieldExtractor;
+
+    @Autowired
+    private OcrResultCache resultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // One thread per engine; each page task borrows an engine for just that page
+    private ExecutorService pageExecutor;
+    // Caps how many rendered pages, across all uploads, wait in memory for a free engine
+    private Semaphore renderedPages;
+
+    @PostConstruct
+    public void init() {
+        pageExecutor = Executors.newFixedThreadPool(Math.max(1, enginePool.getPoolSize()), new CustomizableThreadFactory("ocr-page-"));
+        renderedPages = new Semaphore(enginePool.getPoolSize() + 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pageExecutor.shutdownNow();
     }
 
     public ChallanExtractedData extractChallanData(MultipartFile file) throws IOException {
-        File convFile = convertToFile(file);
-        
+        try (InputStream input = file.getInputStream()) {
+            return extractChallanData(input, page -> { });
+        }
+    }
+
+    public ChallanExtractedData extractChallanData(byte[] content) throws IOException {
+        return extractChallanData(content, OcrResultCache.hash(content), page -> { });
+    }
+
+    // Identical uploads hash the same, so only the first one is OCR'd
+    public ChallanExtractedData extractChallanData(byte[] content, String contentHash,
+                                                   Consumer<OcrPageResult> pageListener) throws IOException {
+        Optional<ChallanExtractedData> cached = resultCache.get(contentHash);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return extractAndCache(content, contentHash, pageListener);
+    }
+
+    // For callers that already missed the cache, so the lookup isn't repeated or counted twice
+    public ChallanExtractedData extractAndCache(byte[] content, String contentHash,
+                                                Consumer<OcrPageResult> pageListener) throws IOException {
+        ChallanExtractedData data = extractChallanData(new ByteArrayInputStream(content), pageListener);
+        resultCache.put(contentHash, data);
+        return data;
+    }
+
+    /**
+     * OCRs every page of the upload in parallel across the engine pool and merges
+     * the text in page order. {@code pageListener} is called from the OCR threads
+     * as each page finishes, so pages may be reported out of order.
+     */
+    public ChallanExtractedData extractChallanData(InputStream input, Consumer<OcrPageResult> pageListener) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        List<Future<OcrPage>> pages = new ArrayList<>();
         try {
-            String text = tesseract.doOCR(convFile);
-            System.out.println("Extracted:\n" + text);
-            
-            ChallanExtractedData data = new ChallanExtractedData();
-            data.setRawText(text);
-            data.setConfidence(80.0);
+            imagePipeline.forEachPage(input, (index, image) -> {
+                try {
+                    renderedPages.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while rendering page " + (index + 1));
+                }
+                try {
+                    pages.add(pageExecutor.submit(() -> {
+                        try {
+                            return recognizePage(index, image, pageListener);
+                        } finally {
+                            renderedPages.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    renderedPages.release();
+                    throw new IOException("OCR is shutting down");
+                }
+            });
+
+            StringBuilder text = new StringBuilder();
+            List<OcrPage.Word> words = new ArrayList<>();
+            for (Future<OcrPage> page : pages) {
+                OcrPage result = page.get();
+                text.append(result.getText());
+                words.addAll(result.getWords());
+            }
+            log.info("Extracted {} page(s)", pages.size());
+            log.debug("OCR text:\n{}", text);
+            ChallanExtractedData data = fieldExtractor.extract(text.toString(), words);
+            outcome = "success";
             return data;
-        } catch (TesseractException e) {
-            throw new RuntimeException("OCR failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for OCR");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
         } finally {
-            convFile.delete();
+            // Drop queued pages nobody will read, e.g. after an earlier page failed
+            pages.forEach(page -> page.cancel(false));
+            sample.stop(meterRegistry.timer("ocr.extraction", "outcome", outcome));
         }
     }
 
-    private File convertToFile(MultipartFile file) throws IOException {
-        File convFile = new File(System.getProperty("java.io.tmpdir") + "/" + file.getOriginalFilename());
-        try (FileOutputStream fos = new FileOutputStream(convFile)) {
-            fos.write(file.getBytes());
+    private OcrPage recognizePage(int index, BufferedImage image, Consumer<OcrPageResult> pageListener) throws IOException {
+        long start = System.nanoTime();
+        OcrPage page;
+        TesseractEnginePool.Engine engine = enginePool.borrow();
+        try {
+            page = engine.recognize(image);
+        } finally {
+            enginePool.release(engine);
         }
-        return convFile;
+        meterRegistry.timer("ocr.page").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        double confidence = page.getWords().stream().mapToDouble(OcrPage.Word::getConfidence).average().orElse(0.0);
+        pageListener.accept(new OcrPageResult(index + 1, page.getText(), Math.round(confidence * 100.0) / 100.0,
+            page.getWords().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return page;
     }
 }
@@ -0,0 +1,226 @@
+package com.ro.petrol_pump_ai.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decodes challan uploads straight from the request stream into images ready
+ * for Tesseract, without temp files. Large phone photos are subsampled while
+ * decoding so the full-resolution bitmap is never materialised.
+ */
+@Component
+public class OcrImagePipeline {
+
+    @Value("${ocr.preprocess.max-dimension:2500}")
+    private int maxDimension;  // Longest edge in pixels, 0 = keep original size
+
+    @Value("${ocr.preprocess.grayscale:true}")
+    private boolean grayscale;
+
+    @Value("${ocr.preprocess.binarize:false}")
+    private boolean binarize;  // Tesseract binarises internally; enable for noisy scans
+
+    @Value("${ocr.pdf.dpi:300}")
+    private int pdfDpi;
+
+    @FunctionalInterface
+    public interface PageHandler {
+        void accept(int pageIndex, BufferedImage page) throws IOException;
+    }
+
+    public List<BufferedImage> loadPages(InputStream input) throws IOException {
+        List<BufferedImage> pages = new ArrayList<>();
+        forEachPage(input, (index, page) -> pages.add(page));
+        return pages;
+    }
+
+    /**
+     * Decodes pages one at a time in document order and hands each to the handler
+     * as soon as it is ready, so callers can start OCR before the last page is
+     * rendered. Returns the page count.
+     */
+    public int forEachPage(InputStream input, PageHandler handler) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input);
+        if (isPdf(buffered)) {
+            return forEachPdfPage(buffered, handler);
+        }
+
+        int count = 0;
+        try (ImageInputStream imageInput = new MemoryCacheImageInputStream(buffered)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, false, true);
+                // Multi-page TIFF scans carry one challan page per frame
+                for (int i = 0; ; i++) {
+                    int width;
+                    int height;
+                    try {
+                        width = reader.getWidth(i);
+                        height = reader.getHeight(i);
+                    } catch (IndexOutOfBoundsException e) {
+                        break;
+                    }
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    int subsampling = subsamplingFor(width, height);
+                    if (subsampling > 1) {
+                        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    }
+                    handler.accept(i, preprocess(reader.read(i, param)));
+                    count++;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+        if (count == 0) {
+            throw new IOException("Image contains no pages");
+        }
+        return count;
+    }
+
+    public BufferedImage preprocess(BufferedImage image) {
+        BufferedImage result = image;
+        double scale = scaleFor(image.getWidth(), image.getHeight());
+        if (scale < 1.0 || (grayscale && image.getType() != BufferedImage.TYPE_BYTE_GRAY)) {
+            int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+            int type = grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+            result = new BufferedImage(width, height, type);
+            Graphics2D g = result.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        if (binarize && result.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            result = binarize(result);
+        }
+        return result;
+    }
+
+    // PDFRenderer is not thread-safe, so pages are rendered sequentially here and only the OCR runs in parallel
+    private int forEachPdfPage(InputStream input, PageHandler handler) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBuffer(input))) {
+            int count = document.getNumberOfPages();
+            if (count == 0) {
+                throw new IOException("PDF contains no pages");
+            }
+            PDFRenderer renderer = new PDFRenderer(document);
+            ImageType imageType = grayscale ? ImageType.GRAY : ImageType.RGB;
+            for (int i = 0; i < count; i++) {
+                handler.accept(i, preprocess(renderer.renderImageWithDPI(i, dpiFor(document.getPage(i).getMediaBox()), imageType)));
+            }
+            return count;
+        }
+    }
+
+    // Render at the configured DPI unless that would exceed the max dimension
+    float dpiFor(PDRectangle mediaBox) {
+        float longestPoints = Math.max(mediaBox.getWidth(), mediaBox.getHeight());
+        if (maxDimension <= 0 || longestPoints <= 0) {
+            return pdfDpi;
+        }
+        return Math.min(pdfDpi, maxDimension * 72f / longestPoints);
+    }
+
+    // Integer subsampling keeps the decoded image at or above the max dimension; preprocess finishes the scaling
+    private int subsamplingFor(int width, int height) {
+        if (maxDimension <= 0) {
+            return 1;
+        }
+        return Math.max(1, Math.max(width, height) / maxDimension);
+    }
+
+    private double scaleFor(int width, int height) {
+        int longest = Math.max(width, height);
+        if (maxDimension <= 0 || longest <= maxDimension) {
+            return 1.0;
+        }
+        return (double) maxDimension / longest;
+    }
+
+    private static boolean isPdf(BufferedInputStream input) throws IOException {
+        input.mark(5);
+        byte[] header = input.readNBytes(5);
+        input.reset();
+        return header.length == 5 && header[0] == '%' && header[1] == 'P' && header[2] == 'D'
+            && header[3] == 'F' && header[4] == '-';
+    }
+
+    // Otsu's threshold over the grey-level histogram
+    private static BufferedImage binarize(BufferedImage gray) {
+        WritableRaster raster = gray.getRaster();
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int[] pixels = raster.getPixels(0, 0, width, height, (int[]) null);
+
+        int[] histogram = new int[256];
+        for (int p : pixels) {
+            histogram[p]++;
+        }
+        long sumAll = 0;
+        for (int i = 0; i < 256; i++) {
+            sumAll += (long) i * histogram[i];
+        }
+        long sumBackground = 0;
+        int weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = 128;
+        for (int t = 0; t < 256; t++) {
+            weightBackground += histogram[t];
+            if (weightBackground == 0) {
+                continue;
+            }
+            int weightForeground = pixels.length - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (long) t * histogram[t];
+            double meanBackground = (double) sumBackground / weightBackground;
+            double meanForeground = (double) (sumAll - sumBackground) / weightForeground;
+            double variance = (double) weightBackground * weightForeground
+                * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = t;
+            }
+        }
+
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster out = binary.getRaster();
+        int[] bits = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            bits[i] = pixels[i] > threshold ? 1 : 0;
+        }
+        out.setPixels(0, 0, width, height, bits);
+        return binary;
+    }
+}
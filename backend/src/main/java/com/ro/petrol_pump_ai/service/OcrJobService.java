@@ -0,0 +1,469 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import com.ro.petrol_pump_ai.dto.OcrBackfillResponse;
+import com.ro.petrol_pump_ai.dto.OcrJobResponse;
+import com.ro.petrol_pump_ai.dto.OcrPageResult;
+import com.ro.petrol_pump_ai.dto.OcrQueueStats;
+import com.ro.petrol_pump_ai.entity.OcrJob;
+import com.ro.petrol_pump_ai.repository.OcrJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs challan OCR on a bounded worker pool so uploads return a job id
+ * immediately instead of holding a Tomcat thread for the whole extraction.
+ * When the queue is full, submissions are rejected rather than piling up.
+ */
+@Slf4j
+@Service
+public class OcrJobService {
+
+    @Autowired
+    private OcrJobRepository ocrJobRepository;
+
+    @Autowired
+    private OCRService ocrService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TesseractEnginePool enginePool;
+
+    @Autowired
+    private ChallanFieldExtractor fieldExtractor;
+
+    @Autowired
+    private OcrResultCache ocrResultCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ocr.jobs.workers:0}")
+    private int workers;  // 0 = one worker per pooled Tesseract engine
+
+    @Value("${ocr.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${ocr.jobs.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${ocr.jobs.reextract-page-size:200}")
+    private int reextractPageSize;
+
+    @Value("${ocr.jobs.reextract-threads:0}")
+    private int reextractThreads;  // 0 = one per CPU core
+
+    private ThreadPoolExecutor executor;
+    private ExecutorService reextractWorkers;  // Field extraction only; no Tesseract engine needed
+    // One thread, so each subscriber sees events in the order they were queued
+    private ExecutorService eventSender;
+
+    private final Map<String, CompletableFuture<ChallanExtractedData>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Pages finished so far for each running job, replayed to late subscribers
+    private final Map<String, List<OcrPageResult>> pageResults = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalOcrMs = new AtomicLong();
+    private final AtomicLong maxOcrMs = new AtomicLong();
+    private final AtomicLong totalQueueWaitMs = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (workers <= 0) {
+            workers = enginePool.getPoolSize();
+        }
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ocr-worker-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        if (reextractThreads <= 0) {
+            reextractThreads = Runtime.getRuntime().availableProcessors();
+        }
+        reextractWorkers = Executors.newFixedThreadPool(reextractThreads,
+            new CustomizableThreadFactory("ocr-reextract-"));
+        eventSender = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("ocr-events-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        reextractWorkers.shutdownNow();
+        eventSender.shutdownNow();
+    }
+
+    // Uploads held in memory are gone after a restart, so those jobs can never finish
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int count = ocrJobRepository.failUnfinished("Interrupted by server restart", LocalDateTime.now());
+        if (count > 0) {
+            log.info("Marked {} interrupted OCR jobs as failed", count);
+        }
+    }
+
+    @Scheduled(cron = "${ocr.jobs.purge-cron:0 30 3 * * *}")
+    public void purgeOldJobs() {
+        ocrJobRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Queues an upload for OCR. Throws {@link RejectedExecutionException} when the
+     * queue is full so the caller can ask the client to retry later.
+     */
+    public OcrJobResponse submit(MultipartFile file) throws IOException {
+        byte[] content = file.getBytes();
+
+        OcrJob job = new OcrJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus("QUEUED");
+        job.setFileName(file.getOriginalFilename());
+        job.setContentType(file.getContentType());
+        job.setFileSize(file.getSize());
+        job.setContentHash(OcrResultCache.hash(content));
+        job.setCreatedAt(LocalDateTime.now());
+
+        // Re-uploads of a photo we've already read complete without touching the queue
+        Optional<ChallanExtractedData> cached = ocrResultCache.get(job.getContentHash());
+        if (cached.isPresent()) {
+            job.setStatus("COMPLETED");
+            job.setCacheHit(true);
+            job.setResultJson(objectMapper.writeValueAsString(cached.get()));
+            job.setQueueWaitMs(0L);
+            job.setOcrDurationMs(0L);
+            job.setStartedAt(job.getCreatedAt());
+            job.setCompletedAt(job.getCreatedAt());
+            ocrJobRepository.save(job);
+            return convertToResponse(job);
+        }
+        job.setCacheHit(false);
+        ocrJobRepository.save(job);
+
+        CompletableFuture<ChallanExtractedData> future = new CompletableFuture<>();
+        inFlight.put(job.getId(), future);
+        pageResults.put(job.getId(), new ArrayList<>());
+        try {
+            executor.execute(() -> process(job, content, future));
+            submitted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.getId());
+            pageResults.remove(job.getId());
+            rejected.incrementAndGet();
+            job.setStatus("REJECTED");
+            job.setErrorMessage("OCR queue is full");
+            job.setCompletedAt(LocalDateTime.now());
+            ocrJobRepository.save(job);
+            throw e;
+        }
+        return convertToResponse(job);
+    }
+
+    public OcrJobResponse getJob(String jobId) {
+        OcrJob job = ocrJobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("OCR job not found"));
+        return convertToResponse(job);
+    }
+
+    public List<OcrJobResponse> getRecentJobs() {
+        return ocrJobRepository.findTop50ByOrderByCreatedAtDesc().stream().map(this::convertToResponse).toList();
+    }
+
+    public CompletableFuture<ChallanExtractedData> awaitResult(String jobId) {
+        CompletableFuture<ChallanExtractedData> future = inFlight.get(jobId);
+        if (future != null) {
+            return future;
+        }
+        OcrJobResponse job = getJob(jobId);
+        if ("COMPLETED".equals(job.getStatus())) {
+            return CompletableFuture.completedFuture(job.getResult());
+        }
+        return CompletableFuture.failedFuture(new RuntimeException(job.getError()));
+    }
+
+    /**
+     * Streams a job's progress: a "page" event as each page is OCR'd (possibly out
+     * of page order), then a final "job" event with the merged result.
+     */
+    public SseEmitter subscribe(String jobId) {
+        // Unknown ids fail here, before an emitter is registered that nothing would ever complete
+        OcrJobResponse job = getJob(jobId);
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(5).toMillis());
+        emitter.onCompletion(() -> removeSubscriber(jobId, emitter));
+        emitter.onTimeout(() -> removeSubscriber(jobId, emitter));
+        List<OcrPageResult> pages = pageResults.get(jobId);
+        if (pages == null) {
+            subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        } else {
+            // Registering and queueing the replay under the lock keeps page events in order and free of duplicates
+            synchronized (pages) {
+                subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+                for (OcrPageResult page : pages) {
+                    sendPage(emitter, page);
+                }
+            }
+        }
+
+        // The job may have finished before the emitter was registered
+        if (!isFinished(job.getStatus()) && !inFlight.containsKey(jobId)) {
+            job = getJob(jobId);
+        }
+        if (isFinished(job.getStatus())) {
+            notifySubscribers(job);
+        }
+        return emitter;
+    }
+
+    public OcrQueueStats getStats() {
+        long done = completed.get();
+        long finished = done + failed.get();
+        return new OcrQueueStats(
+            workers,
+            executor.getActiveCount(),
+            executor.getQueue().size(),
+            queueCapacity,
+            submitted.get(),
+            done,
+            failed.get(),
+            rejected.get(),
+            done > 0 ? (double) totalOcrMs.get() / done : 0.0,
+            maxOcrMs.get(),
+            finished > 0 ? (double) totalQueueWaitMs.get() / finished : 0.0,
+            ocrResultCache.getHits(),
+            ocrResultCache.getMisses(),
+            ocrResultCache.size()
+        );
+    }
+
+    /**
+     * Re-runs field extraction over the stored raw text of every completed job,
+     * e.g. after the extraction rules change. No OCR is repeated; word-level
+     * confidences are not stored, so re-extracted fields get rule-based confidence.
+     * Each page is split across the re-extract workers and saved once they finish.
+     */
+    public OcrBackfillResponse reextractCompletedJobs() {
+        long start = System.nanoTime();
+        long processed = 0;
+        long updated = 0;
+        long errors = 0;
+        Pageable pageable = PageRequest.of(0, reextractPageSize, Sort.by("createdAt", "id"));
+        Page<OcrJob> page;
+        do {
+            page = ocrJobRepository.findByStatus("COMPLETED", pageable);
+            List<OcrJob> jobs = page.getContent();
+            int partitionSize = Math.max(1, (jobs.size() + reextractThreads - 1) / reextractThreads);
+            List<Future<Reextracted>> partitions = new ArrayList<>();
+            for (int from = 0; from < jobs.size(); from += partitionSize) {
+                List<OcrJob> partition = jobs.subList(from, Math.min(from + partitionSize, jobs.size()));
+                partitions.add(reextractWorkers.submit(() -> reextract(partition)));
+            }
+            List<OcrJob> changed = new ArrayList<>();
+            for (Future<Reextracted> partition : partitions) {
+                Reextracted result = awaitPartition(partition);
+                changed.addAll(result.changed());
+                errors += result.errors();
+            }
+            ocrJobRepository.saveAll(changed);
+            processed += jobs.size();
+            updated += changed.size();
+            pageable = pageable.next();
+        } while (page.hasNext());
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double perMinute = elapsedMs > 0 ? processed * 60000.0 / elapsedMs : processed;
+        log.info("Re-extracted {} OCR jobs ({} updated) in {}ms on {} threads", processed, updated, elapsedMs,
+            reextractThreads);
+        return new OcrBackfillResponse(processed, updated, errors, elapsedMs, perMinute);
+    }
+
+    private record Reextracted(List<OcrJob> changed, long errors) {
+    }
+
+    private Reextracted reextract(List<OcrJob> jobs) {
+        List<OcrJob> changed = new ArrayList<>();
+        long errors = 0;
+        for (OcrJob job : jobs) {
+            try {
+                ChallanExtractedData previous = objectMapper.readValue(job.getResultJson(), ChallanExtractedData.class);
+                ChallanExtractedData data = fieldExtractor.extract(previous.getRawText());
+                String json = objectMapper.writeValueAsString(data);
+                if (!json.equals(job.getResultJson())) {
+                    job.setResultJson(json);
+                    changed.add(job);
+                    if (job.getContentHash() != null) {
+                        ocrResultCache.evict(job.getContentHash());  // Cached result predates the new rules
+                    }
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                errors++;
+            }
+        }
+        return new Reextracted(changed, errors);
+    }
+
+    private static Reextracted awaitPartition(Future<Reextracted> partition) {
+        try {
+            return partition.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Re-extraction interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Re-extraction failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void process(OcrJob job, byte[] content, CompletableFuture<ChallanExtractedData> future) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long queueWaitMs = Duration.between(job.getCreatedAt(), startedAt).toMillis();
+        totalQueueWaitMs.addAndGet(queueWaitMs);
+        meterRegistry.timer("ocr.jobs.queue.wait").record(queueWaitMs, TimeUnit.MILLISECONDS);
+        job.setStatus("PROCESSING");
+        job.setStartedAt(startedAt);
+        job.setQueueWaitMs(queueWaitMs);
+        ocrJobRepository.save(job);
+
+        long start = System.nanoTime();
+        try {
+            ChallanExtractedData data = ocrService.extractAndCache(content, job.getContentHash(),
+                page -> publishPage(job.getId(), page));
+            long ocrMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            completed.incrementAndGet();
+            totalOcrMs.addAndGet(ocrMs);
+            maxOcrMs.accumulateAndGet(ocrMs, Math::max);
+
+            job.setStatus("COMPLETED");
+            job.setResultJson(objectMapper.writeValueAsString(data));
+            job.setOcrDurationMs(ocrMs);
+            job.setCompletedAt(LocalDateTime.now());
+            ocrJobRepository.save(job);
+            future.complete(data);
+        } catch (Exception | LinkageError e) {
+            // LinkageError covers a missing native Tesseract library; the future must still complete
+            failed.incrementAndGet();
+            job.setStatus("FAILED");
+            job.setErrorMessage(e.getMessage());
+            job.setOcrDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            job.setCompletedAt(LocalDateTime.now());
+            ocrJobRepository.save(job);
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(job.getId());
+            pageResults.remove(job.getId());
+            notifySubscribers(convertToResponse(job));
+        }
+    }
+
+    private void publishPage(String jobId, OcrPageResult page) {
+        List<OcrPageResult> pages = pageResults.get(jobId);
+        if (pages == null) {
+            return;
+        }
+        // Only the queueing happens under the lock; a slow client never holds up the OCR thread
+        synchronized (pages) {
+            pages.add(page);
+            for (SseEmitter emitter : subscribers.getOrDefault(jobId, List.of())) {
+                sendPage(emitter, page);
+            }
+        }
+    }
+
+    private void sendPage(SseEmitter emitter, OcrPageResult page) {
+        send(emitter, () -> emitter.send(SseEmitter.event().name("page").data(page)));
+    }
+
+    private void notifySubscribers(OcrJobResponse job) {
+        List<SseEmitter> emitters = subscribers.remove(job.getJobId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, () -> {
+                emitter.send(SseEmitter.event().name("job").data(job));
+                emitter.complete();
+            });
+        }
+    }
+
+    private void send(SseEmitter emitter, SseSend send) {
+        try {
+            eventSender.execute(() -> {
+                try {
+                    send.run();
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            emitter.complete();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SseSend {
+        void run() throws IOException;
+    }
+
+    private void removeSubscriber(String jobId, SseEmitter emitter) {
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        if (emitters != null) {
+            emitters.remove(emitter);
+        }
+    }
+
+    private static boolean isFinished(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status) || "REJECTED".equals(status);
+    }
+
+    private OcrJobResponse convertToResponse(OcrJob job) {
+        ChallanExtractedData result = null;
+        if (job.getResultJson() != null) {
+            try {
+                result = objectMapper.readValue(job.getResultJson(), ChallanExtractedData.class);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Corrupt OCR result for job " + job.getId());
+            }
+        }
+        return new OcrJobResponse(
+            job.getId(),
+            job.getStatus(),
+            job.getFileName(),
+            result,
+            job.getErrorMessage(),
+            job.getQueueWaitMs(),
+            job.getOcrDurationMs(),
+            job.getCacheHit(),
+            job.getCreatedAt(),
+            job.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.ro.petrol_pump_ai.service;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Recognised text of one page plus the words Tesseract found on it,
+ * in reading order, with their 0-100 confidences.
+ */
+@Value
+public class OcrPage {
+
+    String text;
+    List<Word> words;
+
+    @Value
+    public static class Word {
+        String text;
+        float confidence;
+    }
+}
@@ -0,0 +1,201 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import com.ro.petrol_pump_ai.util.LruMap;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * OCR results keyed by the SHA-256 of the uploaded bytes, so a re-uploaded
+ * challan photo skips Tesseract entirely. Entries are held as JSON in an LRU
+ * map; when a directory is configured they are also written to disk and
+ * survive restarts.
+ */
+@Slf4j
+@Component
+public class OcrResultCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ocr.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ocr.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${ocr.cache.dir:}")
+    private String directory;  // Empty = memory only
+
+    @Value("${ocr.cache.max-disk-entries:20000}")
+    private int maxDiskEntries;
+
+    private Path cacheDir;
+    private Map<String, String> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        entries = new LruMap<>(maxEntries);
+        if (enabled && !directory.isBlank()) {
+            try {
+                cacheDir = Files.createDirectories(Paths.get(directory));
+            } catch (IOException e) {
+                log.warn("OCR cache directory unavailable, caching in memory only: {}", e.getMessage());
+            }
+        }
+    }
+
+    public static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // SHA-256 is mandatory on every JVM
+        }
+    }
+
+    public Optional<ChallanExtractedData> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String json;
+        synchronized (entries) {
+            json = entries.get(key);
+        }
+        if (json == null) {
+            json = readFromDisk(key);
+            if (json != null) {
+                synchronized (entries) {
+                    entries.put(key, json);
+                }
+            }
+        }
+        if (json == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        try {
+            // A fresh copy per hit, so callers can't mutate the cached result
+            ChallanExtractedData data = objectMapper.readValue(json, ChallanExtractedData.class);
+            hits.incrementAndGet();
+            return Optional.of(data);
+        } catch (JsonProcessingException e) {
+            evict(key);
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, ChallanExtractedData data) {
+        if (!enabled) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, json);
+        }
+        if (cacheDir != null) {
+            Path file = cacheDir.resolve(key + ".json");
+            Path temp = cacheDir.resolve(key + ".tmp");
+            try {
+                Files.writeString(temp, json, StandardCharsets.UTF_8);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("Could not persist OCR cache entry {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public void evict(String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        if (cacheDir != null) {
+            try {
+                Files.deleteIfExists(cacheDir.resolve(key + ".json"));
+            } catch (IOException e) {
+                // next prune will retry
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // Keeps the most recently used files on disk; reading a file refreshes its modified time
+    @Scheduled(fixedDelayString = "${ocr.cache.prune-interval-ms:3600000}")
+    public void pruneDisk() {
+        if (cacheDir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            List<Path> cached = files.filter(p -> p.toString().endsWith(".json"))
+                .sorted(Comparator.comparing(OcrResultCache::lastModified).reversed())
+                .toList();
+            for (Path file : cached.subList(Math.min(maxDiskEntries, cached.size()), cached.size())) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("OCR cache prune failed: {}", e.getMessage());
+        }
+    }
+
+    private String readFromDisk(String key) {
+        if (cacheDir == null) {
+            return null;
+        }
+        Path file = cacheDir.resolve(key + ".json");
+        try {
+            String json = Files.readString(file, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return json;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Could not read OCR cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.OutletRequest;
+import com.ro.petrol_pump_ai.dto.OutletResponse;
+import com.ro.petrol_pump_ai.entity.Outlet;
+import com.ro.petrol_pump_ai.repository.OutletRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * The outlet catalogue. It always lives in the default database, so every call
+ * runs without an outlet selected. Known ids are cached for the per-request check.
+ */
+@Slf4j
+@Service
+public class OutletService {
+
+    @Autowired
+    private OutletRepository outletRepository;
+
+    @Value("${outlets.refresh-interval-ms:30000}")
+    private long refreshIntervalMs;
+
+    private final Set<Long> outletIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastRefresh = new AtomicLong();
+
+    // Migrated databases get outlet 1 from V4; Hibernate-managed ones (tests, local H2) get it here
+    @PostConstruct
+    public void init() {
+        OutletContext.run(OutletContext.ROOT, () -> {
+            if (outletRepository.count() == 0) {
+                outletRepository.save(new Outlet(null, "MAIN", "Main Outlet", null, null));
+                log.info("Created default outlet");
+            }
+            refresh();
+        });
+    }
+
+    public List<OutletResponse> getAllOutlets() {
+        return OutletContext.call(OutletContext.ROOT, () -> outletRepository.findAll().stream()
+            .map(this::convertToResponse)
+            .collect(Collectors.toList()));
+    }
+
+    public OutletResponse createOutlet(OutletRequest request) {
+        if (request.getCode() == null || request.getCode().isBlank()) {
+            throw new RuntimeException("Outlet code is required");
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new RuntimeException("Outlet name is required");
+        }
+        return OutletContext.call(OutletContext.ROOT, () -> {
+            String code = request.getCode().trim().toUpperCase();
+            if (outletRepository.findByCode(code).isPresent()) {
+                throw new RuntimeException("Outlet code already exists");
+            }
+            Outlet saved = outletRepository.save(new Outlet(null, code, request.getName().trim(), null, null));
+            outletIds.add(saved.getId());
+            return convertToResponse(saved);
+        });
+    }
+
+    // An outlet created on another instance is picked up within the refresh interval.
+    // Unknown ids reload the catalogue at most that often, so a bad header can't cost a query per request.
+    public boolean exists(Long outletId) {
+        if (outletIds.contains(outletId)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastRefresh.get();
+        if (now - last >= refreshIntervalMs && lastRefresh.compareAndSet(last, now)) {
+            OutletContext.run(OutletContext.ROOT, this::refresh);
+        }
+        return outletIds.contains(outletId);
+    }
+
+    public List<Long> getOutletIds() {
+        OutletContext.run(OutletContext.ROOT, this::refresh);
+        return outletIds.stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Runs background work once per outlet, each with that outlet selected so it
+     * reads the outlet's own rows from the outlet's own database. A failure for
+     * one outlet is logged and does not stop the others.
+     */
+    public void forEachOutlet(Consumer<Long> action) {
+        for (Long outletId : getOutletIds()) {
+            try {
+                OutletContext.run(outletId, () -> action.accept(outletId));
+            } catch (RuntimeException e) {
+                log.warn("Background work failed for outlet {}: {}", outletId, e.getMessage());
+            }
+        }
+    }
+
+    private void refresh() {
+        lastRefresh.set(System.currentTimeMillis());
+        outletIds.addAll(outletRepository.findAll().stream().map(Outlet::getId).collect(Collectors.toList()));
+    }
+
+    private OutletResponse convertToResponse(Outlet outlet) {
+        return new OutletResponse(outlet.getId(), outlet.getCode(), outlet.getName());
+    }
+}
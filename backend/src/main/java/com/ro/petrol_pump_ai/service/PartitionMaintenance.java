@@ -0,0 +1,118 @@
+package com.ro.petrol_pump_ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly partitions on daily_entries and attendance a few months ahead
+ * of today, splitting them off the p_future catch-all (see the V3 migration).
+ * Only runs against MySQL; other databases are left alone. With outlet routing
+ * every shard is maintained, not just the default database.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenance {
+
+    private static final List<String> TABLES = List.of("daily_entries", "attendance");
+
+    private static final Pattern MONTHLY = Pattern.compile("p(\\d{4})_(\\d{2})");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${database.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${database.partitions.cron:0 10 0 * * *}")
+    public void addUpcomingPartitions() {
+        YearMonth until = YearMonth.now().plusMonths(monthsAhead);
+        for (DataSource database : databases()) {
+            if (!isMySql(database)) {
+                continue;
+            }
+            JdbcTemplate jdbc = new JdbcTemplate(database);
+            for (String table : TABLES) {
+                try {
+                    addPartitions(jdbc, table, until);
+                } catch (RuntimeException e) {
+                    log.warn("Partition maintenance failed for {}: {}", table, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void addPartitions(JdbcTemplate jdbc, String table, YearMonth until) {
+        List<String> partitions = jdbc.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+            String.class, table);
+        if (!partitions.contains("p_future")) {
+            return;  // Not partitioned yet, or partitioned by hand in some other layout
+        }
+
+        YearMonth last = null;
+        for (String partition : partitions) {
+            Matcher matcher = MONTHLY.matcher(partition);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                if (last == null || month.isAfter(last)) {
+                    last = month;
+                }
+            }
+        }
+        YearMonth next = last != null ? last.plusMonths(1) : YearMonth.now();
+        if (next.isAfter(until)) {
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(until); month = month.plusMonths(1)) {
+            definitions.add(String.format("PARTITION p%d_%02d VALUES LESS THAN ('%s')",
+                month.getYear(), month.getMonthValue(), month.plusMonths(1).atDay(1)));
+        }
+        definitions.add("PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        jdbc.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO (" +
+            String.join(", ", definitions) + ")");
+        log.info("Added {} monthly partitions to {} through {}", definitions.size() - 1, table, until);
+    }
+
+    private List<DataSource> databases() {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        if (dataSource instanceof AbstractRoutingDataSource routing) {
+            Set<DataSource> databases = new LinkedHashSet<>();
+            databases.add(routing.getResolvedDefaultDataSource());
+            databases.addAll(routing.getResolvedDataSources().values());
+            return new ArrayList<>(databases);
+        }
+        return List.of(dataSource);
+    }
+
+    private static boolean isMySql(DataSource database) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(database, DatabaseMetaData::getDatabaseProductName);
+            return product.toLowerCase().contains("mysql");
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
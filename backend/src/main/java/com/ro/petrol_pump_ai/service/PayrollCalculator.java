@@ -0,0 +1,57 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import com.ro.petrol_pump_ai.entity.SalarySlip;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * One employee's pay for a month from their salary structure and attendance
+ * summary. Basic and allowances are prorated over the working days paid:
+ * present and leave days in full, half-days by half. Hours worked beyond the
+ * standard day on those days are paid as overtime, and provident fund is
+ * deducted from the basic earned.
+ */
+@Component
+public class PayrollCalculator {
+
+    @Value("${payroll.working-days-per-month:26}")
+    private int workingDaysPerMonth;
+
+    @Value("${payroll.standard-hours-per-day:8}")
+    private double standardHoursPerDay;
+
+    // summary is null when the employee has no attendance in the month
+    public SalarySlip calculate(SalaryStructure structure, AttendanceSummary summary, LocalDate monthStart) {
+        int present = summary != null ? summary.getPresentDays() : 0;
+        int leave = summary != null ? summary.getLeaveDays() : 0;
+        int half = summary != null ? summary.getHalfDays() : 0;
+        double workedHours = summary != null ? summary.getWorkedSeconds() / 3600.0 : 0.0;
+
+        double payableDays = Math.min(present + leave + half * 0.5, workingDaysPerMonth);
+        double share = payableDays / workingDaysPerMonth;
+        double basicPay = round(structure.getMonthlyBasic() * share);
+        double allowances = round(structure.getAllowances() * share);
+
+        double overtimePay = 0.0;
+        if (structure.getOvertimeRate() != null) {
+            double standardHours = (present + half * 0.5) * standardHoursPerDay;
+            overtimePay = round(Math.max(0.0, workedHours - standardHours) * structure.getOvertimeRate());
+        }
+
+        double grossPay = round(basicPay + allowances + overtimePay);
+        double providentFund = round(basicPay * structure.getProvidentFundRate() / 100.0);
+        double otherDeductions = structure.getDeductions();
+        double netPay = round(Math.max(0.0, grossPay - providentFund - otherDeductions));
+
+        return new SalarySlip(null, structure.getEmployee(), monthStart, null, payableDays, round(workedHours),
+            basicPay, allowances, overtimePay, grossPay, providentFund, otherDeductions, netPay, null);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
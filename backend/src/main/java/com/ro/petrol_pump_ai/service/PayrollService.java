@@ -0,0 +1,376 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.PayrollRunResponse;
+import com.ro.petrol_pump_ai.dto.SalarySlipResponse;
+import com.ro.petrol_pump_ai.dto.SalaryStructureRequest;
+import com.ro.petrol_pump_ai.dto.SalaryStructureResponse;
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.PayrollRun;
+import com.ro.petrol_pump_ai.entity.SalarySlip;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.repository.PayrollRunRepository;
+import com.ro.petrol_pump_ai.repository.SalarySlipRepository;
+import com.ro.petrol_pump_ai.repository.SalaryStructureRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month-end payroll as a batch job. A run pays every employee due a slip in
+ * chunks of payroll.chunk-size, paged in id order and processed in parallel on
+ * payroll.threads workers. Each chunk is one transaction: one query for the
+ * structures and attendance summaries, one JDBC batch for the slips. Written
+ * slips are the checkpoint, so a failed or interrupted run is resumed by
+ * starting it again, which only pays the employees still missing a slip. Only
+ * months that have ended can be run.
+ */
+@Slf4j
+@Service
+public class PayrollService {
+
+    private static final String INSERT_SQL = "INSERT INTO salary_slips " +
+        "(outlet_id, employee_id, month_start, payroll_run_id, payable_days, worked_hours, basic_pay, allowances, " +
+        "overtime_pay, gross_pay, provident_fund, other_deductions, net_pay, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private SalaryStructureRepository salaryStructureRepository;
+
+    @Autowired
+    private SalarySlipRepository salarySlipRepository;
+
+    @Autowired
+    private PayrollRunRepository payrollRunRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PayrollCalculator payrollCalculator;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payroll.threads:4}")
+    private int threads;
+
+    @Value("${payroll.chunk-size:500}")
+    private int chunkSize;
+
+    private ExecutorService runner;   // Coordinates runs started over HTTP
+    private ExecutorService workers;  // Shared by all runs
+
+    // Outlet and month of the runs in progress on this instance
+    private final Set<String> activeRuns = ConcurrentHashMap.newKeySet();
+
+    private Counter slipsWritten;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    public void init() {
+        runner = Executors.newCachedThreadPool(new CustomizableThreadFactory("payroll-run-"));
+        workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("payroll-worker-"));
+        Gauge.builder("payroll.runs.active", activeRuns, Set::size)
+            .description("Payroll runs in progress").register(meterRegistry);
+        slipsWritten = Counter.builder("payroll.slips")
+            .description("Salary slips written; its rate is the payroll throughput").register(meterRegistry);
+        chunkTimer = Timer.builder("payroll.chunk")
+            .description("Time to compute and write one chunk of salary slips").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    // Their slips so far are kept; starting the run again picks up from there
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRuns() {
+        outletService.forEachOutlet(outletId -> {
+            int count = payrollRunRepository.failUnfinished("Interrupted by server restart", LocalDateTime.now());
+            if (count > 0) {
+                log.info("Marked {} interrupted payroll runs of outlet {} as failed", count, outletId);
+            }
+        });
+    }
+
+    public List<SalaryStructureResponse> getSalaryStructures() {
+        return salaryStructureRepository.findResponses();
+    }
+
+    @Transactional
+    public SalaryStructureResponse saveSalaryStructure(Long employeeId, SalaryStructureRequest request) {
+        Employee employee = employeeRepository.findById(employeeId)
+            .orElseThrow(() -> new RuntimeException("Employee not found"));
+        if (request.getMonthlyBasic() == null || request.getMonthlyBasic() < 0) {
+            throw new RuntimeException("monthlyBasic must be zero or more");
+        }
+        if (isNegative(request.getAllowances()) || isNegative(request.getDeductions())
+                || isNegative(request.getOvertimeRate())) {
+            throw new RuntimeException("allowances, deductions and overtimeRate must be zero or more");
+        }
+        if (isNegative(request.getProvidentFundRate()) || valueOrZero(request.getProvidentFundRate()) > 100) {
+            throw new RuntimeException("providentFundRate must be between 0 and 100");
+        }
+
+        SalaryStructure structure = salaryStructureRepository.findByEmployeeId(employeeId).orElseGet(() -> {
+            SalaryStructure created = new SalaryStructure();
+            created.setEmployee(employee);
+            return created;
+        });
+        structure.setMonthlyBasic(request.getMonthlyBasic());
+        structure.setAllowances(valueOrZero(request.getAllowances()));
+        structure.setDeductions(valueOrZero(request.getDeductions()));
+        structure.setProvidentFundRate(valueOrZero(request.getProvidentFundRate()));
+        structure.setOvertimeRate(request.getOvertimeRate());
+        SalaryStructure saved = salaryStructureRepository.saveAndFlush(structure);
+        return new SalaryStructureResponse(employee.getId(), employee.getName(), saved.getMonthlyBasic(),
+            saved.getAllowances(), saved.getDeductions(), saved.getProvidentFundRate(), saved.getOvertimeRate(),
+            saved.getUpdatedAt());
+    }
+
+    public List<PayrollRunResponse> getRuns() {
+        return payrollRunRepository.findResponses();
+    }
+
+    public PayrollRunResponse getRun(YearMonth month) {
+        return payrollRunRepository.findResponseByMonthStart(month.atDay(1))
+            .orElseThrow(() -> new RuntimeException("Payroll run not found"));
+    }
+
+    public List<SalarySlipResponse> getSalarySlips(YearMonth month) {
+        return salarySlipRepository.findResponsesByMonthStart(month.atDay(1));
+    }
+
+    public SalarySlipResponse getSalarySlip(Long employeeId, YearMonth month) {
+        return salarySlipRepository.findResponseByEmployeeIdAndMonthStart(employeeId, month.atDay(1))
+            .orElseThrow(() -> new RuntimeException("Salary slip not found"));
+    }
+
+    // Starts (or resumes) the month's run in the background and returns it as RUNNING
+    public PayrollRunResponse startRun(YearMonth month) {
+        Long outletId = OutletContext.require();
+        PayrollRun run = claim(outletId, month);
+        runner.execute(() -> OutletContext.run(outletId, () -> execute(outletId, run)));
+        return toResponse(run);
+    }
+
+    // Same, but returns once the run has finished; the chunks still run on the workers
+    public PayrollRunResponse runPayroll(YearMonth month) {
+        Long outletId = OutletContext.require();
+        PayrollRun run = claim(outletId, month);
+        execute(outletId, run);
+        return payrollRunRepository.findResponseById(run.getId())
+            .orElseThrow(() -> new RuntimeException("Payroll run not found"));
+    }
+
+    private PayrollRun claim(Long outletId, YearMonth month) {
+        // Slips are never recomputed, so attendance must be final before the month is paid
+        if (!month.isBefore(YearMonth.now())) {
+            throw new RuntimeException("Payroll can only be run for a month that has ended");
+        }
+        LocalDate monthStart = month.atDay(1);
+        String key = runKey(outletId, monthStart);
+        if (!activeRuns.add(key)) {
+            throw new RuntimeException("Payroll is already running for this month");
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                PayrollRun run = payrollRunRepository.findByMonthStart(monthStart).orElseGet(() -> {
+                    PayrollRun created = new PayrollRun();
+                    created.setMonthStart(monthStart);
+                    return created;
+                });
+                // Another instance's; runs of this one that died with it were failed at startup
+                if ("RUNNING".equals(run.getStatus())) {
+                    throw new RuntimeException("Payroll is already running for this month");
+                }
+                int done = (int) salarySlipRepository.countByMonthStart(monthStart);
+                run.setStatus("RUNNING");
+                run.setProcessedEmployees(done);
+                run.setTotalEmployees(done + (int) salaryStructureRepository.countPending(monthStart));
+                run.setSlipsPerSecond(null);
+                run.setErrorMessage(null);
+                run.setStartedAt(LocalDateTime.now());
+                run.setFinishedAt(null);
+                return payrollRunRepository.save(run);
+            });
+        } catch (RuntimeException e) {
+            activeRuns.remove(key);
+            throw e;
+        }
+    }
+
+    private void execute(Long outletId, PayrollRun run) {
+        long start = System.nanoTime();
+        int written = 0;
+        String error = null;
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try {
+            // Paging runs ahead of the workers; each page is handed over as soon as it is read
+            Long afterId = 0L;
+            List<Long> employeeIds;
+            while (!(employeeIds = salaryStructureRepository.findPendingEmployeeIds(run.getMonthStart(), afterId,
+                    Limit.of(chunkSize))).isEmpty()) {
+                afterId = employeeIds.get(employeeIds.size() - 1);
+                List<Long> chunk = employeeIds;
+                chunks.add(workers.submit(() -> OutletContext.call(outletId, () -> processChunk(run, chunk))));
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+        }
+        // Chunks already handed over finish either way; a failed one leaves the others' slips for the restart
+        for (Future<Integer> chunk : chunks) {
+            try {
+                written += chunk.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause().getMessage();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Interrupted";
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        double slipsPerSecond = written / Math.max(elapsed / 1_000_000_000.0, 1e-9);
+        try {
+            finish(run.getId(), error, slipsPerSecond);
+        } finally {
+            activeRuns.remove(runKey(outletId, run.getMonthStart()));
+        }
+        meterRegistry.timer("payroll.run", "outcome", error == null ? "completed" : "failed")
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        if (error == null) {
+            log.info("Payroll for {} of outlet {}: {} slips at {} per second", run.getMonthStart(), outletId,
+                written, Math.round(slipsPerSecond));
+        } else {
+            log.warn("Payroll for {} of outlet {} failed after {} slips: {}", run.getMonthStart(), outletId,
+                written, error);
+        }
+    }
+
+    private int processChunk(PayrollRun run, List<Long> employeeIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Integer count = transactionTemplate.execute(status -> {
+            List<SalarySlip> slips = new ArrayList<>();
+            for (Object[] row : salaryStructureRepository.findWithSummaries(employeeIds, run.getMonthStart())) {
+                SalarySlip slip = payrollCalculator.calculate((SalaryStructure) row[0], (AttendanceSummary) row[1],
+                    run.getMonthStart());
+                slip.setPayrollRun(run);
+                slips.add(slip);
+            }
+            insertBatch(slips);
+            payrollRunRepository.addProcessed(run.getId(), slips.size());
+            return slips.size();
+        });
+        sample.stop(chunkTimer);
+        slipsWritten.increment(count);
+        return count;
+    }
+
+    private void finish(Long runId, String error, double slipsPerSecond) {
+        transactionTemplate.executeWithoutResult(status -> payrollRunRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(error == null ? "COMPLETED" : "FAILED");
+            run.setErrorMessage(error);
+            run.setSlipsPerSecond(Math.round(slipsPerSecond * 10.0) / 10.0);
+            run.setFinishedAt(LocalDateTime.now());
+        }));
+    }
+
+    private void insertBatch(List<SalarySlip> slips) {
+        if (slips.isEmpty()) {
+            return;
+        }
+        Long outletId = OutletContext.require();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                SalarySlip slip = slips.get(i);
+                ps.setLong(1, outletId);
+                ps.setLong(2, slip.getEmployee().getId());
+                ps.setObject(3, slip.getMonthStart());
+                ps.setLong(4, slip.getPayrollRun().getId());
+                ps.setDouble(5, slip.getPayableDays());
+                ps.setDouble(6, slip.getWorkedHours());
+                ps.setDouble(7, slip.getBasicPay());
+                ps.setDouble(8, slip.getAllowances());
+                ps.setDouble(9, slip.getOvertimePay());
+                ps.setDouble(10, slip.getGrossPay());
+                ps.setDouble(11, slip.getProvidentFund());
+                ps.setDouble(12, slip.getOtherDeductions());
+                ps.setDouble(13, slip.getNetPay());
+                ps.setObject(14, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return slips.size();
+            }
+        });
+    }
+
+    private PayrollRunResponse toResponse(PayrollRun run) {
+        return new PayrollRunResponse(run.getId(), run.getMonthStart(), run.getStatus(), run.getTotalEmployees(),
+            run.getProcessedEmployees(), run.getSlipsPerSecond(), run.getErrorMessage(), run.getStartedAt(),
+            run.getFinishedAt());
+    }
+
+    private static String runKey(Long outletId, LocalDate monthStart) {
+        return outletId + "/" + monthStart;
+    }
+
+    private static boolean isNegative(Double value) {
+        return value != null && value < 0;
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -1,25 +1,54 @@
 package com.ro.petrol_pump_ai.service;
 
 import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.dto.CursorPage;
 import com.ro.petrol_pump_ai.dto.ProductResponse;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
 import com.ro.petrol_pump_ai.repository.ProductRepository;
+import com.ro.petrol_pump_ai.util.Cursor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class ProductService {
 
     @Autowired
     private ProductRepository productRepository;
 
-    
-    public List<ProductResponse> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        return products.stream().map(this::convertToResponse).collect(Collectors.toList());
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private SalesAnalyticsCache salesAnalyticsCache;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
+
+    // Keyset page in id order; pass the previous page's nextCursor to continue
+    public CursorPage<ProductResponse> getAllProducts(String cursor, Integer limit) {
+        int pageSize = Cursor.limit(limit, defaultLimit, maxLimit);
+        long afterId = cursor != null ? parseId(Cursor.decode(cursor, 1)[0]) : 0L;
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        String next = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            next = Cursor.encode(products.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(products.stream().map(this::convertToResponse).collect(Collectors.toList()), next, pageSize);
     }
 
     public ProductResponse getProductById(Long id) {
@@ -39,6 +68,7 @@ public class ProductService {
         product.setName(name);
         product.setUnit(unit);
         Product savedProduct = productRepository.save(product);
+        stockLedger.registerProduct(savedProduct);
         return convertToResponse(savedProduct);
     }
 
@@ -51,6 +81,8 @@ public ProductResponse updateProduct(Long id, String name, String unit) {
     product.setUnit(unit);
     
     Product updatedProduct = productRepository.save(product);
+    stockLedger.registerProduct(updatedProduct);
+    salesAnalyticsCache.clear();
     return new ProductResponse(updatedProduct.getId(), updatedProduct.getName(), updatedProduct.getUnit());
 }
 
@@ -58,18 +90,22 @@ public ProductResponse updateProduct(Long id, String name, String unit) {
 public void deleteProduct(Long id) {
     Product product = productRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    if (dailyEntryRepository.existsByProductId(id)) {
+        throw new RuntimeException("Product has daily entries and cannot be deleted");
+    }
     
     productRepository.delete(product);
+    stockLedger.evictProduct(id);
 }
 
 
     @Transactional
     public void initializeDefaultProducts() {
         long count = productRepository.count();
-        System.out.println("Current product count in database: " + count);
+        log.info("Current product count in database: {}", count);
         
         if (count == 0) {
-            System.out.println("Initializing default products...");
+            log.info("Initializing default products...");
             List<Product> defaultProducts = Arrays.asList(
                 new Product(null, "Petrol", "Lts", null, null),
                 new Product(null, "Diesel", "Lts", null, null),
@@ -78,9 +114,18 @@ public void deleteProduct(Long id) {
             );
             
             List<Product> savedProducts = productRepository.saveAll(defaultProducts);
-            System.out.println("Successfully initialized " + savedProducts.size() + " default products");
+            savedProducts.forEach(stockLedger::registerProduct);
+            log.info("Successfully initialized {} default products", savedProducts.size());
         } else {
-            System.out.println("Products already exist in database. Skipping initialization.");
+            log.info("Products already exist in database. Skipping initialization.");
+        }
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
     }
 
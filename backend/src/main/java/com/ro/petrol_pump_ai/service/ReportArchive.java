@@ -0,0 +1,235 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.util.OutletContext;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Monthly reports built ahead of time, so month-end downloads are file reads
+ * instead of database exports. The previous month is built just after midnight
+ * on the 1st and recent months are refreshed every night; a refresh that
+ * produces the same bytes leaves the file, and so its ETag, untouched. CSV is
+ * stored gzipped, XLSX as is (it is already a zip). Each file's SHA-256 is kept
+ * beside it in a .sha256 file and serves as its ETag.
+ */
+@Slf4j
+@Component
+public class ReportArchive {
+
+    public static final List<String> FORMATS = List.of("csv", "xlsx");
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Value("${reports.archive.dir:${user.home}/.petrol-pump-ai/reports}")
+    private String directory;
+
+    @Value("${reports.archive.enabled:true}")
+    private boolean enabled;
+
+    private Path archiveDir;
+
+    // One build per file at a time; downloads of a file being built wait for it
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        archiveDir = Files.createDirectories(Paths.get(directory));
+    }
+
+    // Covers a server that was down when the monthly build was due
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildMissing() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth previous = YearMonth.now().minusMonths(1);
+        outletService.forEachOutlet(outletId -> {
+            for (String report : reportService.getReportNames()) {
+                for (String format : FORMATS) {
+                    if (!Files.exists(path(outletId, report, previous, format))) {
+                        buildQuietly(outletId, report, previous, format);
+                    }
+                }
+            }
+        });
+    }
+
+    @Scheduled(cron = "${reports.archive.monthly-cron:0 30 0 1 * *}")
+    public void buildPreviousMonth() {
+        if (enabled) {
+            outletService.forEachOutlet(outletId -> buildMonth(outletId, YearMonth.now().minusMonths(1)));
+        }
+    }
+
+    // Last month is included because entries for it keep arriving in the first days
+    @Scheduled(cron = "${reports.archive.nightly-cron:0 45 0 * * *}")
+    public void refreshRecentMonths() {
+        if (enabled) {
+            outletService.forEachOutlet(outletId -> {
+                buildMonth(outletId, YearMonth.now().minusMonths(1));
+                buildMonth(outletId, YearMonth.now());
+            });
+        }
+    }
+
+    /**
+     * The current outlet's archived file for a month, building it first if it is
+     * not there yet. The current month reflects the last nightly refresh.
+     */
+    public Path getArchived(String report, YearMonth month, String format) throws IOException {
+        if (!reportService.isReport(report)) {
+            throw new RuntimeException("Report not found");
+        }
+        if (!FORMATS.contains(format)) {
+            throw new RuntimeException("Format must be csv or xlsx");
+        }
+        if (month.isAfter(YearMonth.now())) {
+            throw new RuntimeException("Month has not started yet");
+        }
+        Long outletId = OutletContext.require();
+        Path file = path(outletId, report, month, format);
+        if (!Files.exists(file)) {
+            synchronized (lock(file)) {
+                if (!Files.exists(file)) {
+                    build(outletId, report, month, format);
+                }
+            }
+        }
+        return file;
+    }
+
+    // Hex SHA-256 of an archived file's stored bytes; files archived before hashes were kept get one now
+    public String getContentHash(Path file) throws IOException {
+        try {
+            return Files.readString(hashPath(file)).trim();
+        } catch (NoSuchFileException e) {
+            String hash = HexFormat.of().formatHex(digestOf(file));
+            writeHash(file, hash);
+            return hash;
+        }
+    }
+
+    public static boolean isCompressed(String format) {
+        return format.equals("csv");
+    }
+
+    private void buildMonth(Long outletId, YearMonth month) {
+        long start = System.currentTimeMillis();
+        int changed = 0;
+        for (String report : reportService.getReportNames()) {
+            for (String format : FORMATS) {
+                if (buildQuietly(outletId, report, month, format)) {
+                    changed++;
+                }
+            }
+        }
+        log.info("Built {} reports for outlet {}: {} changed in {} ms", month, outletId, changed,
+            System.currentTimeMillis() - start);
+    }
+
+    private boolean buildQuietly(Long outletId, String report, YearMonth month, String format) {
+        try {
+            synchronized (lock(path(outletId, report, month, format))) {
+                return build(outletId, report, month, format);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not build {} for {} of outlet {}: {}", report, month, outletId, e.getMessage());
+            return false;
+        }
+    }
+
+    // Returns whether the stored file changed
+    private boolean build(Long outletId, String report, YearMonth month, String format) throws IOException {
+        Path file = path(outletId, report, month, format);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.equals(YearMonth.now()) ? LocalDate.now() : month.atEndOfMonth();
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+            if (isCompressed(format)) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024)) {
+                    reportService.export(report, outletId, start, end, format, gzip);
+                }
+            } else {
+                reportService.export(report, outletId, start, end, format, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        if (Files.exists(file) && hash.equals(getContentHash(file))) {
+            Files.delete(temp);
+            return false;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeHash(file, hash);
+        return true;
+    }
+
+    private static void writeHash(Path file, String hash) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".sha256.tmp");
+        Files.writeString(temp, hash);
+        Files.move(temp, hashPath(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path hashPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".sha256");
+    }
+
+    // One directory per outlet
+    private Path path(Long outletId, String report, YearMonth month, String format) {
+        return archiveDir.resolve(String.valueOf(outletId))
+            .resolve(report + "_" + month + "." + format + (isCompressed(format) ? ".gz" : ""));
+    }
+
+    private Object lock(Path file) {
+        return locks.computeIfAbsent(file.toString(), key -> new Object());
+    }
+
+    private static byte[] digestOf(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
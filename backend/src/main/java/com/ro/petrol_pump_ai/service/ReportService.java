@@ -0,0 +1,172 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.util.CsvReportWriter;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import com.ro.petrol_pump_ai.util.ReportWriter;
+import com.ro.petrol_pump_ai.util.StreamingQuery;
+import com.ro.petrol_pump_ai.util.XlsxReportWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Register exports for audits. Each report is read through a forward-only
+ * streaming cursor and every row goes straight to the writer, so memory use is
+ * the same for a week as for several years.
+ */
+@Service
+public class ReportService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${reports.fetch-size:1000}")
+    private int fetchSize;
+
+    @FunctionalInterface
+    private interface RowReader {
+        Object[] read(ResultSet rs) throws SQLException;
+    }
+
+    // sql binds the outlet and date range by name, as :outletId, :startDate and :endDate
+    private record Report(String title, List<String> columns, String sql, RowReader reader) { }
+
+    private static final Map<String, Report> REPORTS = Map.of(
+        "sales-ledger", new Report("Sales Ledger",
+            List.of("Date", "Product", "Unit", "Sales", "Price Per Unit", "Revenue", "Notes"),
+            "SELECT e.entry_date, p.name, p.unit, e.sales_today, e.price_per_unit, e.daily_revenue, e.notes "
+                + "FROM daily_entries e JOIN products p ON p.id = e.product_id "
+                + "WHERE e.outlet_id = :outletId AND e.entry_date BETWEEN :startDate AND :endDate "
+                + "ORDER BY e.entry_date, p.name, e.id",
+            rs -> new Object[] {
+                date(rs, 1), rs.getString(2), rs.getString(3), number(rs, 4), number(rs, 5), number(rs, 6), rs.getString(7)
+            }),
+        "stock-register", new Report("Stock Register",
+            List.of("Date", "Product", "Unit", "Opening Stock", "Under Tank Delivery", "Challan Quantity",
+                "Sales", "Closing Stock", "Temperature"),
+            // Challans are matched to products by fuel type, the same way inventory analytics does
+            "SELECT e.entry_date, p.name, p.unit, e.opening_stock, e.under_tank_delivery, c.quantity, "
+                + "e.sales_today, e.closing_stock, e.temperature "
+                + "FROM daily_entries e JOIN products p ON p.id = e.product_id "
+                + "LEFT JOIN (SELECT ch.date AS challan_date, LOWER(TRIM(ch.fuel_type)) AS fuel, SUM(ch.quantity) AS quantity "
+                + "FROM challans ch WHERE ch.outlet_id = :outletId AND ch.date BETWEEN :startDate AND :endDate "
+                + "GROUP BY ch.date, LOWER(TRIM(ch.fuel_type))) c "
+                + "ON c.challan_date = e.entry_date AND c.fuel = LOWER(TRIM(p.name)) "
+                + "WHERE e.outlet_id = :outletId AND e.entry_date BETWEEN :startDate AND :endDate "
+                + "ORDER BY e.entry_date, p.name, e.id",
+            rs -> new Object[] {
+                date(rs, 1), rs.getString(2), rs.getString(3), number(rs, 4), number(rs, 5), number(rs, 6),
+                number(rs, 7), number(rs, 8), number(rs, 9)
+            }),
+        "attendance-register", new Report("Attendance Register",
+            List.of("Date", "Employee", "Role", "Status", "Check In", "Check Out", "Hours Worked", "Remarks"),
+            "SELECT a.attendance_date, e.name, e.role, a.status, a.check_in_time, a.check_out_time, a.remarks "
+                + "FROM attendance a JOIN employees e ON e.id = a.employee_id "
+                + "WHERE a.outlet_id = :outletId AND a.attendance_date BETWEEN :startDate AND :endDate "
+                + "ORDER BY a.attendance_date, e.name, a.id",
+            rs -> {
+                Time checkIn = rs.getTime(5);
+                Time checkOut = rs.getTime(6);
+                Double hours = null;
+                if (checkIn != null && checkOut != null) {
+                    long minutes = Duration.between(checkIn.toLocalTime(), checkOut.toLocalTime()).toMinutes();
+                    if (minutes < 0) {
+                        minutes += 24 * 60;  // Night shift past midnight
+                    }
+                    hours = Math.round(minutes / 60.0 * 100.0) / 100.0;
+                }
+                return new Object[] {
+                    date(rs, 1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    checkIn != null ? checkIn.toString() : null, checkOut != null ? checkOut.toString() : null,
+                    hours, rs.getString(7)
+                };
+            }),
+        "challan-register", new Report("Challan Register",
+            List.of("Date", "Challan Number", "Vendor", "Fuel Type", "Quantity", "Price Per Liter", "Total Amount", "Remarks"),
+            "SELECT c.date, c.challan_number, c.vendor_name, c.fuel_type, c.quantity, c.price_per_liter, "
+                + "c.total_amount, c.remarks "
+                + "FROM challans c WHERE c.outlet_id = :outletId AND c.date BETWEEN :startDate AND :endDate "
+                + "ORDER BY c.date, c.challan_number",
+            rs -> new Object[] {
+                date(rs, 1), rs.getString(2), rs.getString(3), rs.getString(4), number(rs, 5), number(rs, 6),
+                number(rs, 7), rs.getString(8)
+            })
+    );
+
+    public Set<String> getReportNames() {
+        return REPORTS.keySet();
+    }
+
+    public boolean isReport(String name) {
+        return REPORTS.containsKey(name);
+    }
+
+    /**
+     * Streams a report for one outlet. Takes the outlet explicitly because streamed
+     * downloads write on a container thread, outside the request's outlet context.
+     */
+    public void export(String name, Long outletId, LocalDate startDate, LocalDate endDate, String format,
+                       OutputStream out) throws IOException {
+        Report report = REPORTS.get(name);
+        if (report == null) {
+            throw new RuntimeException("Report not found");
+        }
+        ReportWriter writer = "xlsx".equalsIgnoreCase(format)
+            ? new XlsxReportWriter(out, report.title())
+            : new CsvReportWriter(out);
+        writer.writeHeader(report.columns());
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("outletId", outletId)
+            .addValue("startDate", Date.valueOf(startDate))
+            .addValue("endDate", Date.valueOf(endDate));
+        ParsedSql parsed = NamedParameterUtils.parseSqlStatement(report.sql());
+        String sql = NamedParameterUtils.substituteNamedParameters(parsed, parameters);
+        Object[] values = NamedParameterUtils.buildValueArray(parsed, parameters, null);
+        try {
+            OutletContext.run(outletId, () -> jdbcTemplate.query(con -> {
+                // Bound here rather than through NamedParameterJdbcTemplate so the statement stays a streaming one
+                PreparedStatement statement = StreamingQuery.prepare(con, sql, fetchSize);
+                new ArgumentPreparedStatementSetter(values).setValues(statement);
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    writer.writeRow(report.reader().read(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);  // Client went away; stops the cursor
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.close();
+    }
+
+    private static String date(ResultSet rs, int column) throws SQLException {
+        Date date = rs.getDate(column);
+        return date != null ? date.toLocalDate().toString() : null;
+    }
+
+    private static Double number(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
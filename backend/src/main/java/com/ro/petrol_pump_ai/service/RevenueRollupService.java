@@ -0,0 +1,118 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
+import com.ro.petrol_pump_ai.repository.DailyProductRollupRepository;
+import com.ro.petrol_pump_ai.repository.DailyRevenueRollupRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per date x product and per date revenue rollups incrementally
+ * as daily entries are written, so the dashboard never scans raw entries.
+ */
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    @Autowired
+    private DailyProductRollupRepository productRollupRepository;
+
+    @Autowired
+    private DailyRevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private OutletService outletService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void recordEntry(DailyEntry entry) {
+        double revenue = entry.getDailyRevenue() != null ? entry.getDailyRevenue() : 0.0;
+        Long outletId = entry.getProduct().getOutletId();
+        productRollupRepository.applyDelta(outletId, entry.getEntryDate(), entry.getProduct().getId(),
+            revenue, entry.getSalesToday(), 1, entry.getClosingStock());
+        revenueRollupRepository.applyDelta(outletId, entry.getEntryDate(), revenue, entry.getSalesToday(), 1);
+    }
+
+    // Applies one delta per date x product instead of one per entry; the entries share an outlet
+    @Transactional
+    public void recordEntries(List<DailyEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Long outletId = entries.get(0).getProduct().getOutletId();
+        Map<LocalDate, Map<Long, List<DailyEntry>>> grouped = entries.stream()
+            .collect(Collectors.groupingBy(DailyEntry::getEntryDate, LinkedHashMap::new,
+                Collectors.groupingBy(entry -> entry.getProduct().getId(), LinkedHashMap::new, Collectors.toList())));
+
+        for (Map.Entry<LocalDate, Map<Long, List<DailyEntry>>> byDate : grouped.entrySet()) {
+            double dateRevenue = 0.0;
+            double dateSales = 0.0;
+            int dateCount = 0;
+            for (Map.Entry<Long, List<DailyEntry>> byProduct : byDate.getValue().entrySet()) {
+                List<DailyEntry> productEntries = byProduct.getValue();
+                double revenue = 0.0;
+                double sales = 0.0;
+                for (DailyEntry entry : productEntries) {
+                    revenue += entry.getDailyRevenue() != null ? entry.getDailyRevenue() : 0.0;
+                    sales += entry.getSalesToday();
+                }
+                DailyEntry latest = productEntries.get(productEntries.size() - 1);
+                productRollupRepository.applyDelta(outletId, byDate.getKey(), byProduct.getKey(),
+                    revenue, sales, productEntries.size(), latest.getClosingStock());
+                dateRevenue += revenue;
+                dateSales += sales;
+                dateCount += productEntries.size();
+            }
+            revenueRollupRepository.applyDelta(outletId, byDate.getKey(), dateRevenue, dateSales, dateCount);
+        }
+    }
+
+    @Transactional
+    public void removeEntry(Long outletId, LocalDate entryDate, Long productId, Double dailyRevenue,
+                            Double salesToday) {
+        double revenue = dailyRevenue != null ? dailyRevenue : 0.0;
+        productRollupRepository.applyDelta(outletId, entryDate, productId, -revenue, -salesToday, -1, null);
+        revenueRollupRepository.applyDelta(outletId, entryDate, -revenue, -salesToday, -1);
+        productRollupRepository.deleteIfEmpty(outletId, entryDate, productId);
+        revenueRollupRepository.deleteIfEmpty(outletId, entryDate);
+    }
+
+    // Rebuilds the current outlet's rollups from its entries
+    @Transactional
+    public void rebuildRollups() {
+        Long outletId = OutletContext.require();
+        revenueRollupRepository.deleteByOutlet(outletId);
+        productRollupRepository.deleteByOutlet(outletId);
+        int rows = productRollupRepository.rebuildFromEntries(outletId);
+        revenueRollupRepository.rebuildFromProductRollups(outletId);
+        log.info("Rebuilt revenue rollups for outlet {}: {} date/product rows", outletId, rows);
+    }
+
+    // Backfill once for databases that already hold entries from before the rollups existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        outletService.forEachOutlet(outletId -> {
+            if (revenueRollupRepository.count() == 0 && dailyEntryRepository.count() > 0) {
+                // A transaction of its own, begun once the outlet (and so its database) is selected
+                transactionTemplate.executeWithoutResult(status -> rebuildRollups());
+            }
+        });
+    }
+}
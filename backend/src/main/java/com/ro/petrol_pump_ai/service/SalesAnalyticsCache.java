@@ -0,0 +1,112 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.SalesAnalyticsResponse;
+import com.ro.petrol_pump_ai.util.AfterCommit;
+import com.ro.petrol_pump_ai.util.LruMap;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sales analytics results keyed by outlet, date range and granularity. A change to a
+ * daily entry evicts only the cached ranges that contain its date, once the
+ * change has committed.
+ */
+@Component
+public class SalesAnalyticsCache {
+
+    @Value("${analytics.sales.cache-size:200}")
+    private int maxEntries;
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class Key {
+        private final Long outletId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final String granularity;
+    }
+
+    private Map<Key, SalesAnalyticsResponse> entries;
+
+    // Bumped on every invalidation so a result computed from pre-change data is never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        entries = new LruMap<>(maxEntries);
+    }
+
+    public synchronized SalesAnalyticsResponse get(Key key) {
+        SalesAnalyticsResponse response = entries.get(key);
+        (response != null ? hits : misses).incrementAndGet();
+        return response;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // Stores the result only if nothing was invalidated since the caller read generation()
+    public synchronized void put(Key key, SalesAnalyticsResponse response, long computedAtGeneration) {
+        if (generation.get() == computedAtGeneration) {
+            entries.put(key, response);
+        }
+    }
+
+    public void invalidate(LocalDate date) {
+        invalidate(List.of(date));
+    }
+
+    // Ranges of the current outlet only
+    public void invalidate(Collection<LocalDate> dates) {
+        Long outletId = OutletContext.get();
+        Set<LocalDate> changed = new HashSet<>(dates);
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                entries.keySet().removeIf(key -> ofOutlet(key, outletId) && changed.stream().anyMatch(date ->
+                    !date.isBefore(key.getStartDate()) && !date.isAfter(key.getEndDate())));
+            }
+        });
+    }
+
+    // For changes that affect every range of the outlet, e.g. a product rename
+    public void clear() {
+        Long outletId = OutletContext.get();
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                generation.incrementAndGet();
+                entries.keySet().removeIf(key -> ofOutlet(key, outletId));
+            }
+        });
+    }
+
+    private static boolean ofOutlet(Key key, Long outletId) {
+        return OutletContext.ROOT.equals(outletId) || key.getOutletId().equals(outletId);
+    }
+}
@@ -0,0 +1,183 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import com.ro.petrol_pump_ai.util.AfterCommit;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory, write-through view of the latest closing stock per product, kept
+ * per outlet. Warmed from the database at startup, updated after each daily
+ * entry commit and periodically reconciled against the database to repair any drift.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private OutletService outletService;
+
+    // Outlet id -> product id -> position; product ids are only unique within an outlet's database
+    private final Map<Long, Map<Long, StockPosition>> outlets = new ConcurrentHashMap<>();
+
+    private volatile boolean warm = false;
+
+    @Value
+    public static class StockPosition {
+        Long productId;
+        String productName;
+        String unit;
+        DailyEntryResponse lastEntry;  // null until the product has an entry
+
+        public Double getClosingStock() {
+            return lastEntry != null ? lastEntry.getClosingStock() : null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        outletService.forEachOutlet(outletId -> {
+            Map<Long, StockPosition> positions = positionsOf(outletId);
+            for (Product product : productRepository.findAll()) {
+                positions.put(product.getId(), loadPosition(product));
+            }
+        });
+        warm = true;
+        log.info("Stock ledger warmed with {} products", outlets.values().stream().mapToInt(Map::size).sum());
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    // Positions of the current outlet
+    public Optional<StockPosition> getPosition(Long productId) {
+        return Optional.ofNullable(positionsOf(OutletContext.get()).get(productId));
+    }
+
+    public List<StockPosition> getPositions() {
+        return positionsOf(OutletContext.get()).values().stream()
+            .sorted(Comparator.comparing(StockPosition::getProductId))
+            .collect(Collectors.toList());
+    }
+
+    public void recordEntry(DailyEntry entry) {
+        Product product = entry.getProduct();
+        Map<Long, StockPosition> positions = positionsOf(product.getOutletId());
+        StockPosition candidate = new StockPosition(product.getId(), product.getName(), product.getUnit(),
+            DailyEntryService.convertToResponse(entry));
+        AfterCommit.run(() -> positions.merge(product.getId(), candidate, StockLedger::latestOf));
+    }
+
+    // Called when an entry is deleted or moved to another product
+    public void removeEntry(Long productId, Long entryId) {
+        Long outletId = OutletContext.get();
+        Map<Long, StockPosition> positions = positionsOf(outletId);
+        AfterCommit.run(() -> {
+            StockPosition current = positions.get(productId);
+            if (current != null && current.getLastEntry() != null
+                    && entryId.equals(current.getLastEntry().getId())) {
+                OutletContext.run(outletId, () -> productRepository.findById(productId)
+                    .ifPresent(product -> positions.replace(productId, current, loadPosition(product))));
+            }
+        });
+    }
+
+    public void registerProduct(Product product) {
+        Map<Long, StockPosition> positions = positionsOf(product.getOutletId());
+        AfterCommit.run(() -> positions.compute(product.getId(), (id, current) -> new StockPosition(
+            product.getId(), product.getName(), product.getUnit(),
+            current != null ? current.getLastEntry() : null)));
+    }
+
+    public void evictProduct(Long productId) {
+        Map<Long, StockPosition> positions = positionsOf(OutletContext.get());
+        AfterCommit.run(() -> positions.remove(productId));
+    }
+
+    @Scheduled(fixedDelayString = "${stock-ledger.reconcile-interval-ms:300000}",
+               initialDelayString = "${stock-ledger.reconcile-interval-ms:300000}")
+    public int reconcile() {
+        AtomicInteger drift = new AtomicInteger();
+        outletService.forEachOutlet(outletId -> drift.addAndGet(reconcile(outletId)));
+        return drift.get();
+    }
+
+    private int reconcile(Long outletId) {
+        Map<Long, StockPosition> positions = positionsOf(outletId);
+        int drift = 0;
+        Set<Long> seen = new HashSet<>();
+        for (Product product : productRepository.findAll()) {
+            seen.add(product.getId());
+            StockPosition expected = loadPosition(product);
+            StockPosition cached = positions.get(product.getId());
+            if (!expected.equals(cached)) {
+                drift++;
+                log.warn("Stock ledger drift for product {} of outlet {}: cached={}, database={}", product.getName(),
+                    outletId, cached != null ? cached.getClosingStock() : null, expected.getClosingStock());
+                // Only repair if no write landed while we were reading
+                if (cached == null) {
+                    positions.putIfAbsent(product.getId(), expected);
+                } else {
+                    positions.replace(product.getId(), cached, expected);
+                }
+            }
+        }
+        for (Long productId : positions.keySet()) {
+            if (!seen.contains(productId)) {
+                drift++;
+                positions.remove(productId);
+            }
+        }
+        return drift;
+    }
+
+    private Map<Long, StockPosition> positionsOf(Long outletId) {
+        return outlets.computeIfAbsent(outletId, id -> new ConcurrentHashMap<>());
+    }
+
+    private StockPosition loadPosition(Product product) {
+        DailyEntryResponse lastEntry = dailyEntryRepository.findLatestResponsesByProductId(product.getId(), Limit.of(1))
+            .stream().findFirst().orElse(null);
+        return new StockPosition(product.getId(), product.getName(), product.getUnit(), lastEntry);
+    }
+
+    // Same ordering as findLatestResponsesByProductId: later date wins, then higher id
+    private static StockPosition latestOf(StockPosition current, StockPosition candidate) {
+        DailyEntryResponse currentEntry = current.getLastEntry();
+        DailyEntryResponse candidateEntry = candidate.getLastEntry();
+        if (currentEntry == null || currentEntry.getId().equals(candidateEntry.getId())) {
+            return candidate;
+        }
+        LocalDate currentDate = currentEntry.getEntryDate();
+        LocalDate candidateDate = candidateEntry.getEntryDate();
+        if (candidateDate.isAfter(currentDate)
+                || (candidateDate.isEqual(currentDate) && candidateEntry.getId() > currentEntry.getId())) {
+            return candidate;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,153 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.sun.jna.Pointer;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.RenderedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pool of Tesseract engines. A Tesseract handle is not thread-safe and
+ * {@link Tesseract#doOCR} re-reads the traineddata on every call, so each engine
+ * here is initialised once at startup and lent to one thread at a time.
+ */
+@Slf4j
+@Component
+public class TesseractEnginePool {
+
+    @Value("${ocr.tesseract.datapath:${TESSDATA_PREFIX:/usr/share/tesseract-ocr/5/tessdata}}")
+    private String datapath;
+
+    @Value("${ocr.tesseract.language:eng}")
+    private String language;
+
+    @Value("${ocr.tesseract.pool-size:0}")
+    private int poolSize;  // 0 = one engine per core
+
+    @Value("${ocr.tesseract.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMs;
+
+    private BlockingQueue<Engine> idle;
+    private final List<Engine> engines = new ArrayList<>();
+    private volatile String initError;
+
+    public static class Engine extends Tesseract {
+
+        private void start() {
+            init();
+            setVariables();
+        }
+
+        public OcrPage recognize(RenderedImage image) throws IOException {
+            setImage(image);
+            try {
+                String text = getOCRText(null, 0);
+                return new OcrPage(text, recognizedWords());
+            } finally {
+                getAPI().TessBaseAPIClear(getHandle());
+            }
+        }
+
+        // Walks the result iterator of the last recognition; unlike Tesseract#getWords it does not re-init the engine
+        private List<OcrPage.Word> recognizedWords() {
+            List<OcrPage.Word> words = new ArrayList<>();
+            TessAPI api = getAPI();
+            int level = ITessAPI.TessPageIteratorLevel.RIL_WORD;
+            ITessAPI.TessResultIterator iterator = api.TessBaseAPIGetIterator(getHandle());
+            if (iterator == null) {
+                return words;
+            }
+            try {
+                ITessAPI.TessPageIterator pageIterator = api.TessResultIteratorGetPageIterator(iterator);
+                api.TessPageIteratorBegin(pageIterator);
+                do {
+                    Pointer textPointer = api.TessResultIteratorGetUTF8Text(iterator, level);
+                    if (textPointer == null) {
+                        continue;
+                    }
+                    String word = textPointer.getString(0, StandardCharsets.UTF_8.name());
+                    api.TessDeleteText(textPointer);
+                    words.add(new OcrPage.Word(word, api.TessResultIteratorConfidence(iterator, level)));
+                } while (api.TessPageIteratorNext(pageIterator, level) == ITessAPI.TRUE);
+            } finally {
+                api.TessResultIteratorDelete(iterator);
+            }
+            return words;
+        }
+
+        private void stop() {
+            dispose();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (poolSize <= 0) {
+            poolSize = Runtime.getRuntime().availableProcessors();
+        }
+        idle = new ArrayBlockingQueue<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                Engine engine = new Engine();
+                engine.setDatapath(datapath);
+                engine.setLanguage(language);
+                engine.start();
+                engines.add(engine);
+                idle.add(engine);
+            }
+            log.info("Initialized {} Tesseract engines from {}", poolSize, datapath);
+        } catch (LinkageError | RuntimeException e) {
+            // Keep the application up without OCR, e.g. on hosts without libtesseract
+            initError = e.getMessage();
+            log.warn("Tesseract engines unavailable: {}", initError);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        engines.forEach(Engine::stop);
+        engines.clear();
+        idle.clear();
+    }
+
+    public Engine borrow() {
+        if (initError != null) {
+            throw new RuntimeException("OCR engine unavailable: " + initError);
+        }
+        try {
+            Engine engine = idle.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+            if (engine == null) {
+                throw new RuntimeException("Timed out waiting for an OCR engine");
+            }
+            return engine;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for an OCR engine");
+        }
+    }
+
+    public void release(Engine engine) {
+        idle.offer(engine);
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getAvailable() {
+        return idle.size();
+    }
+}
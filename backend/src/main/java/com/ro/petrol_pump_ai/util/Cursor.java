@@ -0,0 +1,47 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the sort key values of the last row on a page, so the
+ * next page seeks straight past it instead of counting through an offset.
+ */
+public final class Cursor {
+
+    private Cursor() {
+    }
+
+    public static String encode(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (Object key : keys) {
+            if (joined.length() > 0) {
+                joined.append('|');
+            }
+            joined.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int keyCount) {
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (keys.length != keyCount) {
+                throw new IllegalArgumentException();
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static int limit(Integer requested, int defaultLimit, int maxLimit) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return Math.min(requested, maxLimit);
+    }
+}
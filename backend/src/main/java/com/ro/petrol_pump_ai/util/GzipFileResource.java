@@ -0,0 +1,53 @@
+package com.ro.petrol_pump_ai.util;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The decompressed content of a single-member gzip file, for clients that do not
+ * accept gzip. The length comes from the gzip trailer, so range requests work
+ * without inflating the file first; files must be under 4 GB.
+ */
+public class GzipFileResource extends AbstractResource {
+
+    private final Path file;
+
+    public GzipFileResource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new GZIPInputStream(Files.newInputStream(file), 64 * 1024);
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(raf.length() - 4);
+            // ISIZE is stored little-endian
+            return Integer.toUnsignedLong(Integer.reverseBytes(raf.readInt()));
+        }
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    @Override
+    public String getDescription() {
+        return "gzip content of " + file;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An access-ordered map that drops its least recently used entry once it holds
+ * more than maxEntries. Not thread-safe; callers synchronize on it.
+ */
+public class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maxEntries;
+
+    public LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
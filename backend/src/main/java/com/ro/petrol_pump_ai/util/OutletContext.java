@@ -0,0 +1,65 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.util.function.Supplier;
+
+/**
+ * The outlet the current thread is working for. Set per request by OutletFilter
+ * and around background work by OutletService.forEachOutlet; Hibernate scopes
+ * outlet-owned entities to it and the routing datasource picks its database.
+ */
+public final class OutletContext {
+
+    // No outlet selected: sessions see every outlet and use the default database
+    public static final Long ROOT = 0L;
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private OutletContext() {
+    }
+
+    public static Long get() {
+        Long outletId = CURRENT.get();
+        return outletId != null ? outletId : ROOT;
+    }
+
+    public static boolean isRoot() {
+        return ROOT.equals(get());
+    }
+
+    // For work that only makes sense for one outlet, e.g. inserts and reports
+    public static Long require() {
+        if (isRoot()) {
+            throw new RuntimeException("No outlet selected");
+        }
+        return get();
+    }
+
+    public static void set(Long outletId) {
+        CURRENT.set(outletId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void run(Long outletId, Runnable action) {
+        call(outletId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(Long outletId, Supplier<T> action) {
+        Long previous = CURRENT.get();
+        CURRENT.set(outletId);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
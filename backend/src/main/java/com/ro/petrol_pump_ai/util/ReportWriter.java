@@ -0,0 +1,14 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Writes a tabular report row by row straight to an output stream
+public interface ReportWriter extends Closeable {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    // Numbers are written as numbers, anything else as text, null as an empty cell
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Prepares forward-only statements whose rows are fetched from the server in
+ * batches rather than all at once, so a result set of any size is read in
+ * constant memory.
+ */
+public final class StreamingQuery {
+
+    private StreamingQuery() {
+    }
+
+    public static PreparedStatement prepare(Connection con, String sql, int fetchSize) throws SQLException {
+        PreparedStatement statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Connector/J buffers the whole result unless asked to stream row by row
+        boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ro.petrol_pump_ai.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal SpreadsheetML writer that streams rows into the zip as they come, so
+ * memory stays constant however many rows are written. Cells use inline strings
+ * and there are no styles. A sheet that reaches Excel's row limit continues on
+ * a new sheet, with the header repeated; the workbook parts that list the sheets
+ * are written last.
+ */
+public class XlsxReportWriter implements ReportWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 1, 1, 0, 0);  // Same rows, same bytes
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final String sheetName;
+    private List<String> header;
+    private int sheetCount = 0;
+    private int rowInSheet = 0;
+
+    public XlsxReportWriter(OutputStream out, String sheetName) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.sheetName = sheetName.length() > 25 ? sheetName.substring(0, 25) : sheetName;
+    }
+
+    @Override
+    public void writeHeader(List<String> columns) throws IOException {
+        header = columns;
+        writeRow(columns.toArray());
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (sheetCount == 0 || rowInSheet == MAX_ROWS_PER_SHEET) {
+            startSheet();
+        }
+        rowInSheet++;
+        writer.write("<row r=\"" + rowInSheet + "\">");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+                writer.write("<c t=\"n\"><v>" + number + "</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writer.write(escape(value.toString()));
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sheetCount == 0) {
+            startSheet();
+        }
+        endSheet();
+
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder rels = new StringBuilder();
+        StringBuilder overrides = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            String name = sheetCount == 1 ? sheetName : sheetName + " " + i;
+            sheets.append("<sheet name=\"").append(escape(name)).append("\" sheetId=\"").append(i)
+                .append("\" r:id=\"rId").append(i).append("\"/>");
+            rels.append("<Relationship Id=\"rId").append(i)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\"")
+                .append(" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            overrides.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        writeEntry("xl/workbook.xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+            + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<sheets>" + sheets + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + rels + "</Relationships>");
+        writeEntry("_rels/.rels",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\""
+            + " Target=\"xl/workbook.xml\"/></Relationships>");
+        writeEntry("[Content_Types].xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + overrides + "</Types>");
+        zip.finish();
+        zip.flush();
+    }
+
+    private void startSheet() throws IOException {
+        if (sheetCount > 0) {
+            endSheet();
+        }
+        sheetCount++;
+        rowInSheet = 0;
+        zip.putNextEntry(entry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        if (sheetCount > 1 && header != null) {
+            Object[] columns = header.toArray();
+            rowInSheet++;
+            writer.write("<row r=\"1\">");
+            for (Object column : columns) {
+                writer.write("<c t=\"inlineStr\"><is><t>" + escape(column.toString()) + "</t></is></c>");
+            }
+            writer.write("</row>");
+        }
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(entry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static ZipEntry entry(String name) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        return entry;
+    }
+
+    // XML 1.0 forbids most control characters outright, so they are dropped
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
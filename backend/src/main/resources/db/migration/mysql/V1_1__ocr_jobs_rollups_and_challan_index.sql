@@ -0,0 +1,54 @@
+-- Tables and the challan keyset index added while the schema was still
+-- generated by Hibernate. A database baselined at V1 may or may not have them,
+-- depending on the build that last created its schema, so each is created only
+-- when missing.
+
+SET @stmt = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE challans ADD INDEX idx_challans_date_id (date, id)', 'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'challans' AND INDEX_NAME = 'idx_challans_date_id');
+PREPARE add_index FROM @stmt;
+EXECUTE add_index;
+DEALLOCATE PREPARE add_index;
+
+CREATE TABLE IF NOT EXISTS ocr_jobs (
+    id varchar(36) NOT NULL,
+    status varchar(255) NOT NULL,
+    file_name varchar(255),
+    content_type varchar(255),
+    file_size bigint,
+    content_hash varchar(64),
+    cache_hit bit,
+    result_json TEXT,
+    error_message TEXT,
+    created_at datetime(6) NOT NULL,
+    started_at datetime(6),
+    completed_at datetime(6),
+    queue_wait_ms bigint,
+    ocr_duration_ms bigint,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS daily_revenue_rollups (
+    id bigint NOT NULL AUTO_INCREMENT,
+    entry_date date NOT NULL,
+    total_revenue float(53) NOT NULL,
+    total_sales float(53) NOT NULL,
+    entry_count integer NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKlg39t3av55cclu2jqr39og3yo UNIQUE (entry_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS daily_product_rollups (
+    id bigint NOT NULL AUTO_INCREMENT,
+    entry_date date NOT NULL,
+    product_id bigint NOT NULL,
+    total_revenue float(53) NOT NULL,
+    total_sales float(53) NOT NULL,
+    entry_count integer NOT NULL,
+    closing_stock float(53),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKqhs53474rmj5l5u0ba4tpk45x UNIQUE (entry_date, product_id),
+    CONSTRAINT FKlu05s04k7qnk98ybfrohxg2u5 FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,74 @@
+-- Schema as Hibernate created it before migrations were introduced. Existing
+-- databases are baselined at this version and skip it; constraint names are
+-- Hibernate's own so later migrations work on both.
+
+CREATE TABLE products (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255) NOT NULL,
+    unit varchar(255) NOT NULL,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKo61fmio5yukmmiqgnxf8pnavn UNIQUE (name)
+) ENGINE=InnoDB;
+
+CREATE TABLE daily_entries (
+    id bigint NOT NULL AUTO_INCREMENT,
+    entry_date date NOT NULL,
+    product_id bigint NOT NULL,
+    opening_stock float(53) NOT NULL,
+    sales_today float(53) NOT NULL,
+    under_tank_delivery float(53),
+    closing_stock float(53) NOT NULL,
+    price_per_unit float(53) NOT NULL,
+    daily_revenue float(53),
+    temperature float(53),
+    notes TEXT,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKk79vk2394pnrcjl6vo0ln43lq FOREIGN KEY (product_id) REFERENCES products (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE employees (
+    id bigint NOT NULL AUTO_INCREMENT,
+    name varchar(255) NOT NULL,
+    phone varchar(255),
+    email varchar(255),
+    role varchar(255) NOT NULL,
+    hire_date date,
+    status varchar(255) NOT NULL,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKgnponadwwxr5nm2tqe5b905hs UNIQUE (phone)
+) ENGINE=InnoDB;
+
+CREATE TABLE attendance (
+    id bigint NOT NULL AUTO_INCREMENT,
+    employee_id bigint NOT NULL,
+    attendance_date date NOT NULL,
+    check_in_time time(6),
+    check_out_time time(6),
+    status varchar(255) NOT NULL,
+    remarks varchar(255),
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKb48lmkou5j4rvde9sr88bqgjw FOREIGN KEY (employee_id) REFERENCES employees (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE challans (
+    id bigint NOT NULL AUTO_INCREMENT,
+    date date NOT NULL,
+    fuel_type varchar(255) NOT NULL,
+    quantity float(53) NOT NULL,
+    price_per_liter float(53) NOT NULL,
+    total_amount float(53) NOT NULL,
+    vendor_name varchar(255),
+    challan_number varchar(255) NOT NULL,
+    remarks TEXT,
+    created_at datetime(6) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKp47ap0893wly0so9m3ojgwsig UNIQUE (challan_number)
+) ENGINE=InnoDB;
@@ -0,0 +1,14 @@
+-- One reading per product per day. This fails if a product already has two
+-- entries on one day; find them with
+--   SELECT entry_date, product_id, COUNT(*) FROM daily_entries
+--   GROUP BY entry_date, product_id HAVING COUNT(*) > 1;
+-- and merge or delete the extras before migrating. The key also serves the
+-- lookups by entry_date alone.
+ALTER TABLE daily_entries
+    ADD CONSTRAINT uk_daily_entries_date_product UNIQUE (entry_date, product_id),
+    ADD INDEX idx_daily_entries_product_date (product_id, entry_date);
+
+ALTER TABLE attendance
+    ADD INDEX idx_attendance_employee_date (employee_id, attendance_date),
+    ADD INDEX idx_attendance_date (attendance_date);
+
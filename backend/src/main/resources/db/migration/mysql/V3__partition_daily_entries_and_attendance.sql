@@ -0,0 +1,107 @@
+-- Monthly RANGE COLUMNS partitions on the entry and attendance dates, so
+-- date-bounded reports and analytics only touch the months they ask for.
+--
+-- MySQL requires the partitioning column in every unique key, primary key
+-- included, and does not support foreign keys on partitioned tables. The
+-- product and employee references are checked by the services instead.
+-- Partitions for coming months are added by PartitionMaintenance; p_future
+-- catches anything beyond the last monthly partition.
+
+SET @stmt = (SELECT IF(COUNT(*) > 0, 'ALTER TABLE daily_entries DROP FOREIGN KEY FKk79vk2394pnrcjl6vo0ln43lq', 'DO 0')
+    FROM information_schema.TABLE_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'daily_entries'
+      AND CONSTRAINT_NAME = 'FKk79vk2394pnrcjl6vo0ln43lq' AND CONSTRAINT_TYPE = 'FOREIGN KEY');
+PREPARE drop_fk FROM @stmt;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+-- MySQL may already have dropped the index it created for the key once the composite index covered it
+SET @stmt = (SELECT IF(COUNT(*) > 0, 'ALTER TABLE daily_entries DROP INDEX FKk79vk2394pnrcjl6vo0ln43lq', 'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'daily_entries' AND INDEX_NAME = 'FKk79vk2394pnrcjl6vo0ln43lq');
+PREPARE drop_fk FROM @stmt;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+SET @stmt = (SELECT IF(COUNT(*) > 0, 'ALTER TABLE attendance DROP FOREIGN KEY FKb48lmkou5j4rvde9sr88bqgjw', 'DO 0')
+    FROM information_schema.TABLE_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance'
+      AND CONSTRAINT_NAME = 'FKb48lmkou5j4rvde9sr88bqgjw' AND CONSTRAINT_TYPE = 'FOREIGN KEY');
+PREPARE drop_fk FROM @stmt;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+SET @stmt = (SELECT IF(COUNT(*) > 0, 'ALTER TABLE attendance DROP INDEX FKb48lmkou5j4rvde9sr88bqgjw', 'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance' AND INDEX_NAME = 'FKb48lmkou5j4rvde9sr88bqgjw');
+PREPARE drop_fk FROM @stmt;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+ALTER TABLE daily_entries
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, entry_date);
+
+ALTER TABLE daily_entries
+PARTITION BY RANGE COLUMNS (entry_date) (
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025_01 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p2025_02 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p2025_03 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p2025_04 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p2025_05 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p2025_06 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p2025_07 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p2025_08 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p2025_09 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p2025_10 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p2025_11 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p2025_12 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026_01 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p2026_02 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p2026_03 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p2026_04 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p2026_05 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p2026_06 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p2026_07 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p2026_08 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p2026_09 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p2026_10 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p2026_11 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p2026_12 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE attendance
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, attendance_date);
+
+ALTER TABLE attendance
+PARTITION BY RANGE COLUMNS (attendance_date) (
+    PARTITION p_history VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025_01 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p2025_02 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p2025_03 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p2025_04 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p2025_05 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p2025_06 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p2025_07 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p2025_08 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p2025_09 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p2025_10 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p2025_11 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p2025_12 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026_01 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p2026_02 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p2026_03 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p2026_04 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p2026_05 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p2026_06 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p2026_07 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p2026_08 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p2026_09 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p2026_10 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p2026_11 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p2026_12 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
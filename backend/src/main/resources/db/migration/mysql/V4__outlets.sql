@@ -0,0 +1,62 @@
+-- Outlets: every product, entry, attendance record, employee, challan and rollup
+-- belongs to one. Existing data is assigned to outlet 1. Unique keys become
+-- per outlet, and the indexes behind outlet-scoped queries lead with outlet_id.
+-- As with the partitioned tables, outlet_id carries no foreign key; outlets
+-- may be served from a different database than the catalogue (see OutletRoutingConfig).
+
+CREATE TABLE outlets (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    code VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_outlets_code UNIQUE (code)
+) ENGINE=InnoDB;
+
+INSERT INTO outlets (id, code, name, created_at, updated_at) VALUES (1, 'MAIN', 'Main Outlet', NOW(6), NOW(6));
+
+ALTER TABLE products
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    DROP INDEX UKo61fmio5yukmmiqgnxf8pnavn,
+    ADD CONSTRAINT uk_products_outlet_name UNIQUE (outlet_id, name);
+
+ALTER TABLE employees
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    DROP INDEX UKgnponadwwxr5nm2tqe5b905hs,
+    ADD CONSTRAINT uk_employees_outlet_phone UNIQUE (outlet_id, phone);
+
+ALTER TABLE challans
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    DROP INDEX UKp47ap0893wly0so9m3ojgwsig,
+    DROP INDEX idx_challans_date_id,
+    ADD CONSTRAINT uk_challans_outlet_number UNIQUE (outlet_id, challan_number),
+    ADD INDEX idx_challans_outlet_date_id (outlet_id, date, id);
+
+-- Product and employee keys already pin the outlet; these serve the date-range reads
+ALTER TABLE daily_entries
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    ADD INDEX idx_daily_entries_outlet_date (outlet_id, entry_date);
+
+ALTER TABLE attendance
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    DROP INDEX idx_attendance_date,
+    ADD INDEX idx_attendance_outlet_date (outlet_id, attendance_date);
+
+ALTER TABLE daily_product_rollups
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    ADD INDEX idx_daily_product_rollups_outlet_date (outlet_id, entry_date);
+
+ALTER TABLE daily_revenue_rollups
+    ADD COLUMN outlet_id BIGINT NOT NULL DEFAULT 1,
+    DROP INDEX UKlg39t3av55cclu2jqr39og3yo,
+    ADD CONSTRAINT uk_daily_revenue_rollups_outlet_date UNIQUE (outlet_id, entry_date);
+
+-- The default only existed to backfill; the application always sets the outlet
+ALTER TABLE products ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE employees ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE challans ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE daily_entries ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE attendance ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE daily_product_rollups ALTER COLUMN outlet_id DROP DEFAULT;
+ALTER TABLE daily_revenue_rollups ALTER COLUMN outlet_id DROP DEFAULT;
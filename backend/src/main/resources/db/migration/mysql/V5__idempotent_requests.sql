@@ -0,0 +1,16 @@
+-- Outcomes of requests sent with an Idempotency-Key (bulk shift attendance so
+-- far). The unique key makes a concurrent retry wait for the first attempt
+-- and then fail, so the work is only ever applied once.
+
+CREATE TABLE idempotent_requests (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outlet_id BIGINT NOT NULL,
+    scope VARCHAR(50) NOT NULL,
+    request_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_json TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_idempotent_requests_outlet_scope_key UNIQUE (outlet_id, scope, request_key),
+    INDEX idx_idempotent_requests_created (created_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,26 @@
+-- One attendance row per employee per day, so marks can upsert atomically
+-- instead of reading first. Existing duplicates from concurrent marks are
+-- folded into the newest row: it keeps the earliest check-in and latest
+-- check-out of the day. The unique key includes attendance_date, as the
+-- partitioning requires, and replaces the plain (employee_id, attendance_date) index.
+
+UPDATE attendance keep
+JOIN (
+    SELECT employee_id, attendance_date, MAX(id) AS id,
+           MIN(check_in_time) AS check_in_time, MAX(check_out_time) AS check_out_time
+    FROM attendance
+    GROUP BY employee_id, attendance_date
+    HAVING COUNT(*) > 1
+) merged ON keep.id = merged.id AND keep.attendance_date = merged.attendance_date
+SET keep.check_in_time = merged.check_in_time,
+    keep.check_out_time = merged.check_out_time;
+
+DELETE older FROM attendance older
+JOIN attendance newer
+  ON newer.employee_id = older.employee_id
+ AND newer.attendance_date = older.attendance_date
+ AND newer.id > older.id;
+
+ALTER TABLE attendance
+    DROP INDEX idx_attendance_employee_date,
+    ADD CONSTRAINT uk_attendance_employee_date UNIQUE (employee_id, attendance_date);
@@ -0,0 +1,20 @@
+-- Per employee x month attendance counts and worked time, kept up to date on
+-- every attendance write (see AttendanceSummaryService). Existing attendance
+-- is summarised by the service at startup, when this table is still empty.
+
+CREATE TABLE attendance_summaries (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outlet_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    present_days INTEGER NOT NULL,
+    absent_days INTEGER NOT NULL,
+    leave_days INTEGER NOT NULL,
+    half_days INTEGER NOT NULL,
+    worked_seconds BIGINT NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_attendance_summaries_employee_month UNIQUE (employee_id, month_start),
+    INDEX idx_attendance_summaries_outlet_month (outlet_id, month_start),
+    CONSTRAINT fk_attendance_summaries_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,56 @@
+-- Payroll: a salary structure per employee, one run per outlet and month, and
+-- the salary slips it writes. A slip is unique per employee and month, which
+-- is what lets an interrupted run resume without paying anyone twice.
+
+CREATE TABLE salary_structures (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outlet_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    monthly_basic FLOAT(53) NOT NULL,
+    allowances FLOAT(53) NOT NULL,
+    deductions FLOAT(53) NOT NULL,
+    provident_fund_rate FLOAT(53) NOT NULL,
+    overtime_rate FLOAT(53),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_salary_structures_employee UNIQUE (employee_id),
+    CONSTRAINT fk_salary_structures_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payroll_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outlet_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    total_employees INTEGER NOT NULL,
+    processed_employees INTEGER NOT NULL,
+    slips_per_second FLOAT(53),
+    error_message TEXT,
+    started_at DATETIME(6),
+    finished_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payroll_runs_outlet_month UNIQUE (outlet_id, month_start)
+) ENGINE=InnoDB;
+
+CREATE TABLE salary_slips (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    outlet_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    payroll_run_id BIGINT NOT NULL,
+    payable_days FLOAT(53) NOT NULL,
+    worked_hours FLOAT(53) NOT NULL,
+    basic_pay FLOAT(53) NOT NULL,
+    allowances FLOAT(53) NOT NULL,
+    overtime_pay FLOAT(53) NOT NULL,
+    gross_pay FLOAT(53) NOT NULL,
+    provident_fund FLOAT(53) NOT NULL,
+    other_deductions FLOAT(53) NOT NULL,
+    net_pay FLOAT(53) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_salary_slips_employee_month UNIQUE (employee_id, month_start),
+    INDEX idx_salary_slips_outlet_month (outlet_id, month_start),
+    CONSTRAINT fk_salary_slips_employee FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fk_salary_slips_payroll_run FOREIGN KEY (payroll_run_id) REFERENCES payroll_runs (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,170 @@
+package com.ro.petrol_pump_ai.repository;
+
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.EmployeeResponse;
+import com.ro.petrol_pump_ai.entity.Attendance;
+import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The JPQL constructor projections return what entity loading plus
+ * convertToResponse did, in a single statement. Timings live in
+ * ProjectionQueryBenchmark under benchmarks/.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProjectionQueryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void attendanceForADay() {
+        int employees = 50;
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee(null, "Employee " + i, "98" + i, null, "Attendant",
+                null, "Active", null, null);
+            em.persist(employee);
+            em.persist(new Attendance(null, employee, DAY, LocalTime.of(9, 0), LocalTime.of(17, 30),
+                "Present", null, null));
+        }
+        em.flush();
+
+        Result before = load(() -> attendanceRepository.findByAttendanceDate(DAY).stream()
+            .map(ProjectionQueryTest::toResponse).collect(Collectors.toList()));
+        Result after = load(() -> attendanceRepository.findResponsesByAttendanceDate(DAY));
+
+        assertEquals(employees, after.rows.size());
+        assertEquals(sorted(before.rows, AttendanceResponse::getId), sorted(after.rows, AttendanceResponse::getId));
+        assertEquals(1, after.statements);
+        assertTrue(before.statements > employees, "entity path loads each employee separately");
+    }
+
+    @Test
+    void dailyEntriesForARange() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product(null, "Product " + i, "Lts", null, null);
+            em.persist(product);
+            products.add(product);
+        }
+        int rows = 200;
+        for (int i = 0; i < rows; i++) {
+            DailyEntry entry = new DailyEntry();
+            entry.setEntryDate(DAY.minusDays(i / products.size()));
+            entry.setProduct(products.get(i % products.size()));
+            entry.setOpeningStock(20000.0);
+            entry.setSalesToday(1000.0);
+            entry.setPricePerUnit(100.0);
+            entry.setNotes("note " + i);
+            em.persist(entry);
+        }
+        em.flush();
+
+        LocalDate start = DAY.minusYears(1);
+        Result before = load(() -> dailyEntryRepository.findByEntryDateBetweenOrderByEntryDateDesc(start, DAY)
+            .stream().map(ProjectionQueryTest::toResponse).collect(Collectors.toList()));
+        Result after = load(() -> dailyEntryRepository.findResponsesByEntryDateBetween(start, DAY));
+
+        assertEquals(rows, after.rows.size());
+        assertEquals(sorted(before.rows, DailyEntryResponse::getId), sorted(after.rows, DailyEntryResponse::getId));
+        assertEquals(1, after.statements);
+        assertEquals(1 + products.size(), before.statements, "entity path loads each product separately");
+    }
+
+    @Test
+    void employeeList() {
+        int rows = 50;
+        for (int i = 0; i < rows; i++) {
+            em.persist(new Employee(null, "Employee " + i, "97" + i, "e" + i + "@pump.in",
+                "Cashier", DAY, "Active", null, null));
+        }
+        em.flush();
+
+        Result before = load(() -> employeeRepository.findByStatus("Active").stream()
+            .map(ProjectionQueryTest::toResponse).collect(Collectors.toList()));
+        Result after = load(() -> employeeRepository.findResponsesByStatus("Active"));
+
+        assertEquals(rows, after.rows.size());
+        assertEquals(sorted(before.rows, EmployeeResponse::getId), sorted(after.rows, EmployeeResponse::getId));
+        assertEquals(1, after.statements);
+    }
+
+    private record Result(List<?> rows, long statements) {
+    }
+
+    // Starts from an empty persistence context, like a fresh request
+    private Result load(Supplier<List<?>> query) {
+        em.clear();
+        statistics.clear();
+        List<?> rows = query.get();
+        return new Result(rows, statistics.getPrepareStatementCount());
+    }
+
+    private static <T> List<T> sorted(List<?> rows, Function<T, Long> id) {
+        @SuppressWarnings("unchecked")
+        List<T> typed = new ArrayList<>((List<T>) rows);
+        typed.sort((a, b) -> Long.compare(id.apply(a), id.apply(b)));
+        return typed;
+    }
+
+    // The services' convertToResponse before the projections
+    private static AttendanceResponse toResponse(Attendance attendance) {
+        return new AttendanceResponse(attendance.getId(), attendance.getEmployee().getId(),
+            attendance.getEmployee().getName(), attendance.getAttendanceDate(), attendance.getCheckInTime(),
+            attendance.getCheckOutTime(), attendance.getStatus(), attendance.getRemarks());
+    }
+
+    private static DailyEntryResponse toResponse(DailyEntry entry) {
+        return new DailyEntryResponse(entry.getId(), entry.getEntryDate(), entry.getProduct().getName(),
+            entry.getOpeningStock(), entry.getSalesToday(), entry.getUnderTankDelivery(), entry.getClosingStock(),
+            entry.getPricePerUnit(), entry.getDailyRevenue(), entry.getTemperature(), entry.getNotes(),
+            entry.getCreatedAt());
+    }
+
+    private static EmployeeResponse toResponse(Employee employee) {
+        return new EmployeeResponse(employee.getId(), employee.getName(), employee.getPhone(), employee.getEmail(),
+            employee.getRole(), employee.getHireDate(), employee.getStatus(), employee.getCreatedAt());
+    }
+}
@@ -0,0 +1,202 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.AttendanceSummaryResponse;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Many threads marking and clocking out the same employees at once. Every call
+ * must succeed, each employee must end up with exactly one row for the day and
+ * the first check-in must survive later marks, and the month's summary must
+ * agree with the rows it was built from incrementally. The service serialises an
+ * employee's marks on the employee row, so the upsert is also raced on its own.
+ * H2 runs in MySQL mode for ON DUPLICATE KEY UPDATE.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:attendance-upsert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=16"
+})
+class AttendanceUpsertConcurrencyTest {
+
+    private static final long OUTLET_ID = 1L;
+    private static final int EMPLOYEES = 25;
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 100;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceSummaryService attendanceSummaryService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentMarksKeepOneRowPerEmployeeAndDay() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Long> employeeIds = seedEmployees("Upsert");
+
+        // Every thread marks the whole roster in the same order, so first inserts collide
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        race(errors, () -> {
+            for (Long employeeId : employeeIds) {
+                attendanceService.markAttendance(employeeId, "Present");
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "marks failed: " + errors);
+        Map<Long, String> checkIns = rowsOn(today, employeeIds).stream()
+            .collect(Collectors.toMap(AttendanceResponse::getEmployeeId, AttendanceResponse::getCheckInTime));
+
+        // Then a mix of re-marks and clock-outs on random employees
+        race(errors, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                Long employeeId = employeeIds.get(random.nextInt(employeeIds.size()));
+                switch (random.nextInt(3)) {
+                    case 0 -> attendanceService.markAttendance(employeeId, "Present");
+                    case 1 -> attendanceService.markAttendance(employeeId, "Half-day");
+                    default -> attendanceService.clockOut(employeeId);
+                }
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "mixed calls failed: " + errors);
+        // The service dates each call by the clock, so a run that spans midnight splits across two days
+        assumeTrue(today.equals(LocalDate.now()), "run crossed midnight");
+
+        List<AttendanceResponse> rows = rowsOn(today, employeeIds);
+        assertEquals(EMPLOYEES, rows.size());
+        assertEquals(EMPLOYEES, rows.stream().map(AttendanceResponse::getEmployeeId).distinct().count());
+        for (AttendanceResponse row : rows) {
+            assertNotNull(row.getCheckInTime());
+            assertEquals(checkIns.get(row.getEmployeeId()), row.getCheckInTime(), "first check-in is kept");
+        }
+
+        Map<Long, AttendanceSummaryResponse> summaries = OutletContext.call(OUTLET_ID,
+                () -> attendanceSummaryService.getMonthSummary(YearMonth.from(today))).stream()
+            .collect(Collectors.toMap(AttendanceSummaryResponse::getEmployeeId, summary -> summary));
+        for (AttendanceResponse row : rows) {
+            AttendanceSummaryResponse summary = summaries.get(row.getEmployeeId());
+            assertEquals("Present".equals(row.getStatus()) ? 1 : 0, summary.getPresentDays());
+            assertEquals("Half-day".equals(row.getStatus()) ? 1 : 0, summary.getHalfDays());
+            long worked = row.getCheckOutTime() != null
+                ? LocalTime.parse(row.getCheckOutTime()).toSecondOfDay() - LocalTime.parse(row.getCheckInTime()).toSecondOfDay()
+                : 0;
+            assertEquals(Math.round(worked / 36.0) / 100.0, summary.getWorkedHours());
+        }
+    }
+
+    @Test
+    void concurrentUpsertsWithoutTheEmployeeLockKeepOneRow() throws Exception {
+        LocalDate day = LocalDate.of(2025, 1, 15);
+        List<Long> employeeIds = seedEmployees("Unlocked");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Straight to the statement, so the inserts for each employee collide on the unique day key
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        race(errors, () -> {
+            for (Long employeeId : employeeIds) {
+                transaction.executeWithoutResult(status -> attendanceRepository.upsertMark(OUTLET_ID, employeeId,
+                    day, "Present", LocalTime.now()));
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "upserts failed: " + errors);
+        Map<Long, String> checkIns = rowsOn(day, employeeIds).stream()
+            .collect(Collectors.toMap(AttendanceResponse::getEmployeeId, AttendanceResponse::getCheckInTime));
+
+        // Marks without a check-in update the status and keep the first check-in
+        race(errors, () -> {
+            for (Long employeeId : employeeIds) {
+                transaction.executeWithoutResult(status -> attendanceRepository.upsertMark(OUTLET_ID, employeeId,
+                    day, "Half-day", null));
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "re-marks failed: " + errors);
+
+        List<AttendanceResponse> rows = rowsOn(day, employeeIds);
+        assertEquals(EMPLOYEES, rows.size());
+        assertEquals(EMPLOYEES, rows.stream().map(AttendanceResponse::getEmployeeId).distinct().count());
+        for (AttendanceResponse row : rows) {
+            assertEquals("Half-day", row.getStatus());
+            assertNotNull(row.getCheckInTime());
+            assertEquals(checkIns.get(row.getEmployeeId()), row.getCheckInTime(), "first check-in is kept");
+            assertNull(row.getCheckOutTime());
+        }
+    }
+
+    private List<Long> seedEmployees(String prefix) {
+        return OutletContext.call(OUTLET_ID, () -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                ids.add(employeeRepository.save(new Employee(null, prefix + " " + i, null, null, "Attendant",
+                    null, "Active", null, null)).getId());
+            }
+            return ids;
+        });
+    }
+
+    // Runs the work on every thread at once
+    private void race(Queue<Throwable> errors, Runnable work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            calls.add(executor.submit(() -> {
+                start.await();
+                try {
+                    OutletContext.run(OUTLET_ID, work);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private List<AttendanceResponse> rowsOn(LocalDate date, List<Long> employeeIds) {
+        return OutletContext.call(OUTLET_ID, () -> attendanceRepository.findResponsesByAttendanceDate(date))
+            .stream().filter(row -> employeeIds.contains(row.getEmployeeId())).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,239 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.ro.petrol_pump_ai.service.ChallanFieldExtractor.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class ChallanFieldExtractorTest {
+
+    private final ChallanFieldExtractor extractor = new ChallanFieldExtractor();
+
+    // One challan per vendor template, plus a dealer challan that matches none
+    static Stream<Arguments> vendorChallans() {
+        return Stream.of(
+            arguments("""
+                INDIAN OIL CORPORATION LTD
+                TT Invoice No: PNT/24/118273
+                Invoice Date: 14/03/2024
+                Product: HSD (High Speed Diesel)
+                Qty: 12 KL
+                Rate/KL: Rs 89,620.00
+                Grand Total: Rs 10,75,440.00
+                """,
+                "Indian Oil Corporation Ltd", "PNT/24/118273", LocalDate.of(2024, 3, 14), "Diesel", 12000.0, 89.62, 1075440.0),
+            arguments("""
+                BHARAT PETROLEUM CORPORATION LIMITED
+                Tax Invoice No: BJW2403-55210
+                Date: 02-Mar-2024
+                Motor Spirit (MS)
+                Quantity: 8 KL
+                Unit Price per KL: Rs. 94,720.00
+                Total Amount: 7,57,760.00
+                """,
+                "Bharat Petroleum Corporation Ltd", "BJW2403-55210", LocalDate.of(2024, 3, 2), "Petrol", 8000.0, 94.72, 757760.0),
+            // No unit on the quantity: HPCL bills in KL
+            arguments("""
+                HINDUSTAN PETROLEUM CORPORATION LTD
+                Doc No: HP/MUM/88123
+                Dated: 05.01.2024
+                Product: Petrol
+                Qty: 4
+                Rate: 102.35
+                Amount Payable: 4,09,400.00
+                """,
+                "Hindustan Petroleum Corporation Ltd", "HP/MUM/88123", LocalDate.of(2024, 1, 5), "Petrol", 4000.0, 102.35, 409400.0),
+            // No total printed: derived from quantity x rate
+            arguments("""
+                Nayara Energy Limited
+                Invoice No: NEL/2024/00451
+                Invoice Date: 21 Feb 2024
+                High Speed Diesel
+                Qty: 6000 Ltrs
+                Rate: 88.10
+                """,
+                "Nayara Energy Ltd", "NEL/2024/00451", LocalDate.of(2024, 2, 21), "Diesel", 6000.0, 88.1, 528600.0),
+            // No rate printed: derived from total / quantity
+            arguments("""
+                Jio-bp Mobility Ltd
+                Challan No: JBP-77812
+                Date: 2024-05-03
+                Petrol
+                Quantity: 5000 L
+                Total: Rs 4,82,500.00
+                """,
+                "Jio-bp", "JBP-77812", LocalDate.of(2024, 5, 3), "Petrol", 5000.0, 96.5, 482500.0),
+            arguments("""
+                Shell India Markets Pvt Ltd
+                Bill No: SH/DL/3391
+                Date: 11/06/24
+                Diesel
+                Volume: 3,500 Litres
+                Price/L: 91.20
+                Net Amount: 3,19,200.00
+                """,
+                "Shell India", "SH/DL/3391", LocalDate.of(2024, 6, 11), "Diesel", 3500.0, 91.2, 319200.0),
+            arguments("""
+                M/s Krishna Gas Agencies
+                DELIVERY CHALLAN
+                Challan No: KGA-0931
+                Dated: 2024-04-19
+                Item: CNG (Compressed Natural Gas) cascade refill
+                Qty: 1450 Kg
+                Rate per Kg: 76.50
+                Net Amount: Rs 1,10,925.00
+                """,
+                "Krishna Gas Agencies", "KGA-0931", LocalDate.of(2024, 4, 19), "CNG", 1450.0, 76.5, 110925.0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("vendorChallans")
+    void extractsEveryFieldPerVendorTemplate(String text, String vendor, String challanNumber, LocalDate date,
+                                             String fuelType, Double quantity, Double pricePerLiter, Double total) {
+        ChallanExtractedData data = extractor.extract(text);
+
+        assertEquals(vendor, data.getVendorName());
+        assertEquals(challanNumber, data.getChallanNumber());
+        assertEquals(date, data.getDate());
+        assertEquals(fuelType, data.getFuelType());
+        assertEquals(quantity, data.getQuantity());
+        assertEquals(pricePerLiter, data.getPricePerLiter());
+        assertEquals(total, data.getTotalAmount());
+        assertEquals(7, data.getFieldConfidence().size());
+        assertTrue(data.getConfidence() > 0);
+    }
+
+    @Test
+    void consistentAmountsRaiseTheirConfidence() {
+        ChallanExtractedData data = extractor.extract("Qty: 1000 L\nRate: 90.00\nTotal: 90,000.00");
+
+        assertEquals(85.0, data.getFieldConfidence().get(QUANTITY));
+        assertEquals(85.0, data.getFieldConfidence().get(PRICE_PER_LITER));
+        assertEquals(85.0, data.getFieldConfidence().get(TOTAL_AMOUNT));
+    }
+
+    @Test
+    void mismatchedAmountsLowerTheirConfidence() {
+        ChallanExtractedData data = extractor.extract("Qty: 1000 L\nRate: 90.00\nTotal: 50,000.00");
+
+        assertEquals(50000.0, data.getTotalAmount());
+        assertEquals(45.0, data.getFieldConfidence().get(QUANTITY));
+        assertEquals(45.0, data.getFieldConfidence().get(PRICE_PER_LITER));
+        assertEquals(45.0, data.getFieldConfidence().get(TOTAL_AMOUNT));
+    }
+
+    @Test
+    void perKilolitreRateWithoutUnitIsCorrectedByTheTotal() {
+        ChallanExtractedData data = extractor.extract("Qty: 12 KL\nRate: 89,620.00\nTotal: 10,75,440.00");
+
+        assertEquals(12000.0, data.getQuantity());
+        assertEquals(89.62, data.getPricePerLiter());
+        assertEquals(85.0, data.getFieldConfidence().get(PRICE_PER_LITER));
+    }
+
+    @Test
+    void derivesQuantityFromRateAndTotal() {
+        ChallanExtractedData data = extractor.extract("Rate: 90\nTotal: 9,00,000");
+
+        assertEquals(10000.0, data.getQuantity());
+        assertEquals(67.5, data.getFieldConfidence().get(QUANTITY));
+    }
+
+    @Test
+    void fieldConfidenceComesFromTheWordsItWasReadFrom() {
+        String text = "Qty: 1200 L";
+        List<OcrPage.Word> words = List.of(new OcrPage.Word("Qty:", 95f), new OcrPage.Word("1200", 60f),
+            new OcrPage.Word("L", 90f));
+
+        ChallanExtractedData data = extractor.extract(text, words);
+
+        assertEquals(1200.0, data.getQuantity());
+        assertEquals(60.0, data.getFieldConfidence().get(QUANTITY));
+    }
+
+    @Test
+    void blankTextHasNoFields() {
+        ChallanExtractedData data = extractor.extract("  ");
+
+        assertEquals(0.0, data.getConfidence());
+        assertTrue(data.getFieldConfidence().isEmpty());
+        assertNull(data.getTotalAmount());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "1,23,456.78    | 123456.78",
+        "12,34,56,789.5 | 123456789.5",
+        "10,75,440.00   | 1075440.0",
+        "123,456.78     | 123456.78",
+        "123456         | 123456.0",
+        "0.5            | 0.5"
+    })
+    void parsesIndianAndInternationalDigitGrouping(String value, double expected) {
+        assertEquals(expected, parseNumber(value));
+    }
+
+    @Test
+    void rejectsWhatIsNotANumber() {
+        assertNull(parseNumber(null));
+        assertNull(parseNumber("12.3.4"));
+        assertNull(parseNumber("abc"));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "14/03/2024  | 2024-03-14",
+        "14-03-24    | 2024-03-14",
+        "14.3.2024   | 2024-03-14",
+        "2024-03-14  | 2024-03-14",
+        "14 Mar 2024 | 2024-03-14",
+        "14-Mar-24   | 2024-03-14",
+        "14March2024 | 2024-03-14"
+    })
+    void parsesChallanDateFormats(String value, LocalDate expected) {
+        assertEquals(expected, parseDate(value));
+    }
+
+    @Test
+    void ignoresImplausibleDates() {
+        assertNull(parseDate("31/02/2024"));
+        assertNull(parseDate("14/03/1899"));
+    }
+
+    @Test
+    void readsLettersMisrecognisedAsDigits() {
+        assertEquals("Qty: 1200 L", normalizeDigits("Qty: 12O0 L"));
+        assertEquals("Rate: 90.50", normalizeDigits("Rate: 9O.5O"));
+        assertEquals("Date: 14/03/2024", normalizeDigits("Date: l4/O3/2024"));
+        assertEquals("Oil Ltd", normalizeDigits("Oil Ltd"));
+
+        ChallanExtractedData data = extractor.extract("Qty: 12O0 L\nRate: 9O.5O\nDate: l4/O3/2024");
+        assertEquals(1200.0, data.getQuantity());
+        assertEquals(90.5, data.getPricePerLiter());
+        assertEquals(LocalDate.of(2024, 3, 14), data.getDate());
+    }
+
+    @Test
+    void keepsLettersThatBelongToAUnitOrLabel() {
+        assertEquals("Qty: 500l", normalizeDigits("Qty: 500l"));
+        assertEquals("Qty: 12000ltr", normalizeDigits("Qty: 12000ltr"));
+        assertEquals("Challan No1234", normalizeDigits("Challan No1234"));
+
+        assertEquals(500.0, extractor.extract("Qty: 500l").getQuantity());
+        assertEquals(12000.0, extractor.extract("Qty: 12000ltr").getQuantity());
+        assertEquals("1234", extractor.extract("Challan No1234").getChallanNumber());
+    }
+}
@@ -0,0 +1,160 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.BulkDailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.BulkDailyEntryResponse.RowResult;
+import com.ro.petrol_pump_ai.dto.DailyEntryRequest;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Bulk uploads accept the rows they can and reject the rest with a reason,
+ * whether a row fails validation, repeats a (date, product) already stored or
+ * in the same upload, or only fails once the database sees it. H2 runs in MySQL
+ * mode for the rollups' ON DUPLICATE KEY UPDATE.
+ */
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:daily-entry-bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class DailyEntryBulkServiceTest {
+
+    private static final long OUTLET_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    @Autowired
+    private DailyEntryBulkService dailyEntryBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DailyEntryRepository dailyEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void splitsQuotedCsvFields() {
+        assertEquals(List.of("2025-01-15", "Pump 2, nozzle 3", "say \"hi\"", ""),
+            DailyEntryBulkService.parseCsvLine("2025-01-15,\"Pump 2, nozzle 3\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void importsAQuotedCsvFieldContainingAComma() {
+        Long productId = product("Quoted");
+        String csv = "\uFEFFentryDate,productId,openingStock,salesToday,pricePerUnit,notes\r\n"
+            + "2025-01-15," + productId + ",10000,1200,100.5,\"Pump 2, nozzle 3\"\r\n";
+
+        BulkDailyEntryResponse response = OutletContext.call(OUTLET_ID, () -> importCsv(csv));
+
+        assertEquals(1, response.getAcceptedRows());
+        Long entryId = response.getResults().get(0).getEntryId();
+        assertEquals("Pump 2, nozzle 3",
+            OutletContext.call(OUTLET_ID, () -> dailyEntryRepository.findById(entryId).orElseThrow().getNotes()));
+    }
+
+    @Test
+    void rejectsBadRowsAndAcceptsTheRest() {
+        Long productId = product("Mixed");
+        String csv = "entryDate,productId,openingStock,salesToday,pricePerUnit\n"
+            + "2025-01-13," + productId + ",10000,1000,100\n"
+            + "2025-01-14," + productId + ",10000,12000,100\n"
+            + "not-a-date," + productId + ",10000,1000,100\n"
+            + "2025-01-15,999999,10000,1000,100\n"
+            + "2025-01-16," + productId + ",10000,1000,100\n";
+
+        BulkDailyEntryResponse response = OutletContext.call(OUTLET_ID, () -> importCsv(csv));
+
+        assertEquals(5, response.getTotalRows());
+        assertEquals(2, response.getAcceptedRows());
+        assertEquals(3, response.getRejectedRows());
+        assertCreated(response.getResults().get(0));
+        assertRejected(response.getResults().get(1), "salesToday exceeds available stock");
+        assertEquals("REJECTED", response.getResults().get(2).getStatus());
+        assertRejected(response.getResults().get(3), "Product not found");
+        assertCreated(response.getResults().get(4));
+    }
+
+    @Test
+    void rejectsDuplicateDatesAndProducts() {
+        Long productId = product("Duplicate");
+        createAll(request(DAY, productId, null));
+
+        BulkDailyEntryResponse response = createAll(request(DAY, productId, null),
+            request(DAY.plusDays(1), productId, null), request(DAY.plusDays(1), productId, null));
+
+        assertEquals(1, response.getAcceptedRows());
+        assertRejected(response.getResults().get(0), "Entry already exists for this product and date");
+        assertCreated(response.getResults().get(1));
+        assertRejected(response.getResults().get(2), "Duplicate entry for this product and date");
+    }
+
+    @Test
+    void aFailingRowDoesNotTakeItsBatchWithIt() {
+        Long productId = product("Constraint");
+        // Passes validation, so only the insert itself can fail it
+        jdbcTemplate.execute("ALTER TABLE daily_entries ADD CONSTRAINT chk_test_notes "
+            + "CHECK (notes IS NULL OR notes <> 'bad')");
+        try {
+            BulkDailyEntryResponse response = createAll(request(DAY, productId, "ok"),
+                request(DAY.plusDays(1), productId, "bad"), request(DAY.plusDays(2), productId, "ok"));
+
+            assertEquals(2, response.getAcceptedRows());
+            assertCreated(response.getResults().get(0));
+            assertRejected(response.getResults().get(1), "Row violates a database constraint");
+            assertCreated(response.getResults().get(2));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE daily_entries DROP CONSTRAINT chk_test_notes");
+        }
+
+        Integer rolledUp = jdbcTemplate.queryForObject(
+            "SELECT SUM(entry_count) FROM daily_product_rollups WHERE product_id = ?", Integer.class, productId);
+        assertEquals(2, rolledUp);
+    }
+
+    private Long product(String name) {
+        return OutletContext.call(OUTLET_ID,
+            () -> productRepository.save(new Product(null, name, "Lts", null, null)).getId());
+    }
+
+    private BulkDailyEntryResponse createAll(DailyEntryRequest... requests) {
+        return OutletContext.call(OUTLET_ID, () -> dailyEntryBulkService.createDailyEntries(List.of(requests)));
+    }
+
+    private BulkDailyEntryResponse importCsv(String csv) {
+        try {
+            return dailyEntryBulkService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static DailyEntryRequest request(LocalDate date, Long productId, String notes) {
+        return new DailyEntryRequest(date, productId, 10000.0, 1000.0, null, 100.0, null, notes);
+    }
+
+    private static void assertCreated(RowResult result) {
+        assertEquals("CREATED", result.getStatus(), result::getError);
+        assertNotNull(result.getEntryId());
+    }
+
+    private static void assertRejected(RowResult result, String error) {
+        assertEquals("REJECTED", result.getStatus());
+        assertEquals(error, result.getError());
+        assertNull(result.getEntryId());
+    }
+}
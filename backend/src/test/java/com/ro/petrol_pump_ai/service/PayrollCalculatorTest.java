@@ -0,0 +1,130 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.SalarySlip;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PayrollCalculatorTest {
+
+    private static final LocalDate MONTH = LocalDate.of(2026, 9, 1);
+
+    private PayrollCalculator calculator;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new PayrollCalculator();
+        ReflectionTestUtils.setField(calculator, "workingDaysPerMonth", 26);
+        ReflectionTestUtils.setField(calculator, "standardHoursPerDay", 8.0);
+        employee = new Employee(1L, "Ravi", null, null, "Attendant", null, "Active", null, null);
+    }
+
+    @Test
+    void proratesBasicAndAllowancesOverPayableDays() {
+        SalarySlip slip = calculate(structure(26000, 5200, 0, 0, null), summary(13, 0, 0, 13 * 8));
+
+        assertEquals(13.0, slip.getPayableDays());
+        assertEquals(13000.0, slip.getBasicPay());
+        assertEquals(2600.0, slip.getAllowances());
+        assertEquals(15600.0, slip.getGrossPay());
+        assertEquals(15600.0, slip.getNetPay());
+    }
+
+    @Test
+    void capsPayableDaysAtTheWorkingMonth() {
+        SalarySlip slip = calculate(structure(26000, 5200, 0, 0, null), summary(28, 2, 0, 28 * 8));
+
+        assertEquals(26.0, slip.getPayableDays());
+        assertEquals(26000.0, slip.getBasicPay());
+        assertEquals(5200.0, slip.getAllowances());
+    }
+
+    @Test
+    void paysLeaveInFullAndHalfDaysByHalf() {
+        SalarySlip slip = calculate(structure(26000, 0, 0, 0, null), summary(10, 2, 3, 10 * 8 + 3 * 4));
+
+        assertEquals(13.5, slip.getPayableDays());
+        assertEquals(13500.0, slip.getBasicPay());
+    }
+
+    @Test
+    void paysOvertimeOnlyWithAnOvertimeRate() {
+        // Two full days and a half-day are 20 standard hours; 23 were worked
+        AttendanceSummary summary = summary(2, 0, 1, 23);
+
+        assertEquals(0.0, calculate(structure(26000, 0, 0, 0, null), summary).getOvertimePay());
+
+        SalarySlip slip = calculate(structure(26000, 0, 0, 0, 150.0), summary);
+        assertEquals(23.0, slip.getWorkedHours());
+        assertEquals(450.0, slip.getOvertimePay());
+        assertEquals(2500.0 + 450.0, slip.getGrossPay());
+    }
+
+    @Test
+    void noOvertimeWithinStandardHours() {
+        SalarySlip slip = calculate(structure(26000, 0, 0, 0, 150.0), summary(5, 0, 0, 38));
+
+        assertEquals(0.0, slip.getOvertimePay());
+    }
+
+    @Test
+    void deductsProvidentFundFromTheBasicEarned() {
+        SalarySlip slip = calculate(structure(26000, 5200, 200, 12, null), summary(13, 0, 0, 13 * 8));
+
+        assertEquals(1560.0, slip.getProvidentFund());
+        assertEquals(200.0, slip.getOtherDeductions());
+        assertEquals(15600.0 - 1560.0 - 200.0, slip.getNetPay());
+    }
+
+    @Test
+    void clampsNetPayAtZero() {
+        SalarySlip slip = calculate(structure(26000, 0, 5000, 12, null), summary(1, 0, 0, 8));
+
+        assertEquals(1000.0, slip.getGrossPay());
+        assertEquals(0.0, slip.getNetPay());
+    }
+
+    @Test
+    void paysNothingWithoutAttendance() {
+        SalarySlip slip = calculate(structure(26000, 5200, 200, 12, 150.0), null);
+
+        assertEquals(0.0, slip.getPayableDays());
+        assertEquals(0.0, slip.getWorkedHours());
+        assertEquals(0.0, slip.getGrossPay());
+        assertEquals(0.0, slip.getProvidentFund());
+        assertEquals(0.0, slip.getNetPay());
+    }
+
+    @Test
+    void roundsToPaise() {
+        SalarySlip slip = calculate(structure(10000, 0, 0, 12, null), summary(1, 0, 0, 8));
+
+        assertEquals(384.62, slip.getBasicPay());
+        assertEquals(46.15, slip.getProvidentFund());
+        assertEquals(338.47, slip.getNetPay());
+    }
+
+    private SalarySlip calculate(SalaryStructure structure, AttendanceSummary summary) {
+        SalarySlip slip = calculator.calculate(structure, summary, MONTH);
+        assertEquals(employee, slip.getEmployee());
+        assertEquals(MONTH, slip.getMonthStart());
+        return slip;
+    }
+
+    private SalaryStructure structure(double basic, double allowances, double deductions, double providentFundRate,
+                                      Double overtimeRate) {
+        return new SalaryStructure(1L, employee, basic, allowances, deductions, providentFundRate, overtimeRate, null);
+    }
+
+    private AttendanceSummary summary(int present, int leave, int half, long workedHours) {
+        return new AttendanceSummary(1L, employee, MONTH, present, 0, leave, half, workedHours * 3600, null);
+    }
+}
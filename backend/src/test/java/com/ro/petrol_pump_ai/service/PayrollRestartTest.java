@@ -0,0 +1,142 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.PayrollRunResponse;
+import com.ro.petrol_pump_ai.dto.SalarySlipResponse;
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import com.ro.petrol_pump_ai.repository.AttendanceSummaryRepository;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.repository.SalarySlipRepository;
+import com.ro.petrol_pump_ai.repository.SalaryStructureRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A payroll run that dies part way leaves the slips of the chunks that
+ * committed. Starting it again must pay exactly the employees still missing a
+ * slip, leaving the others' slips as they were.
+ */
+@SpringBootTest(properties = {
+    "payroll.threads=2",
+    "payroll.chunk-size=10"
+})
+class PayrollRestartTest {
+
+    private static final long OUTLET_ID = 1L;
+    private static final int EMPLOYEES = 50;
+
+    @MockitoSpyBean
+    private PayrollCalculator payrollCalculator;
+
+    @Autowired
+    private PayrollService payrollService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SalaryStructureRepository salaryStructureRepository;
+
+    @Autowired
+    private AttendanceSummaryRepository attendanceSummaryRepository;
+
+    @Autowired
+    private SalarySlipRepository salarySlipRepository;
+
+    @Test
+    void restartPaysOnlyTheEmployeesMissingASlip() {
+        YearMonth month = YearMonth.now().minusMonths(1);
+        List<Long> employeeIds = OutletContext.call(OUTLET_ID, () -> seed(month.atDay(1)));
+
+        // One chunk fails part way through; the chunks around it commit
+        Long failing = employeeIds.get(25);
+        doAnswer(invocation -> {
+            SalaryStructure structure = invocation.getArgument(0);
+            if (structure.getEmployee().getId().equals(failing)) {
+                throw new RuntimeException("Calculator crashed");
+            }
+            return invocation.callRealMethod();
+        }).when(payrollCalculator).calculate(any(), any(), any());
+
+        PayrollRunResponse failed = OutletContext.call(OUTLET_ID, () -> payrollService.runPayroll(month));
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals("Calculator crashed", failed.getErrorMessage());
+        assertEquals(EMPLOYEES, failed.getTotalEmployees());
+        assertEquals(EMPLOYEES - 10, failed.getProcessedEmployees());
+
+        Map<Long, Long> firstSlips = slipIdsByEmployee(month);
+        assertEquals(EMPLOYEES - 10, firstSlips.size());
+        assertFalse(firstSlips.containsKey(failing));
+
+        doCallRealMethod().when(payrollCalculator).calculate(any(), any(), any());
+        clearInvocations(payrollCalculator);
+
+        PayrollRunResponse restarted = OutletContext.call(OUTLET_ID, () -> payrollService.runPayroll(month));
+        assertEquals("COMPLETED", restarted.getStatus());
+        assertEquals(failed.getId(), restarted.getId());
+        assertEquals(EMPLOYEES, restarted.getTotalEmployees());
+        assertEquals(EMPLOYEES, restarted.getProcessedEmployees());
+        verify(payrollCalculator, times(10)).calculate(any(), any(), any());
+
+        List<SalarySlipResponse> slips = OutletContext.call(OUTLET_ID,
+            () -> salarySlipRepository.findResponsesByMonthStart(month.atDay(1)));
+        assertEquals(EMPLOYEES, slips.size());
+        assertEquals(EMPLOYEES, slips.stream().map(SalarySlipResponse::getEmployeeId).distinct().count());
+        Map<Long, Long> allSlips = slipIdsByEmployee(month);
+        firstSlips.forEach((employeeId, slipId) -> assertEquals(slipId, allSlips.get(employeeId)));
+
+        // Nothing left to pay
+        PayrollRunResponse again = OutletContext.call(OUTLET_ID, () -> payrollService.runPayroll(month));
+        long count = OutletContext.call(OUTLET_ID, () -> salarySlipRepository.countByMonthStart(month.atDay(1)));
+        assertEquals("COMPLETED", again.getStatus());
+        assertEquals(EMPLOYEES, again.getProcessedEmployees());
+        assertEquals(EMPLOYEES, count);
+    }
+
+    @Test
+    void refusesAMonthThatHasNotEnded() {
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> OutletContext.call(OUTLET_ID, () -> payrollService.runPayroll(YearMonth.now())));
+        assertEquals("Payroll can only be run for a month that has ended", error.getMessage());
+    }
+
+    private List<Long> seed(LocalDate monthStart) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = employeeRepository.save(new Employee(null, "Payroll " + i, null, null, "Attendant",
+                null, "Active", null, null));
+            salaryStructureRepository.save(new SalaryStructure(null, employee, 26000.0, 2600.0, 200.0, 12.0, null,
+                null));
+            attendanceSummaryRepository.save(new AttendanceSummary(null, employee, monthStart, 24, 2, 0, 0,
+                24 * 8 * 3600L, null));
+            ids.add(employee.getId());
+        }
+        return ids;
+    }
+
+    private Map<Long, Long> slipIdsByEmployee(YearMonth month) {
+        return OutletContext.call(OUTLET_ID, () -> salarySlipRepository.findResponsesByMonthStart(month.atDay(1)))
+            .stream().collect(Collectors.toMap(SalarySlipResponse::getEmployeeId, SalarySlipResponse::getId));
+    }
+}
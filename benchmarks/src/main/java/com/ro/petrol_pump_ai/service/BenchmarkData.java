@@ -0,0 +1,157 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.DailyEntryRequest;
+import com.ro.petrol_pump_ai.entity.Attendance;
+import com.ro.petrol_pump_ai.entity.Challan;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
+import com.ro.petrol_pump_ai.repository.ChallanRepository;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Pump history ending today: one reading per product per day with weekend
+ * peaks, slow growth and price revisions, a tanker delivery (and its challan)
+ * whenever a tank would fall below a quarter, and a dozen staff on daily
+ * attendance. Seeded from a fixed Random so every run sees the same data.
+ */
+final class BenchmarkData {
+
+    // Average daily sales, starting price and tank capacity per default product
+    private record Profile(double dailySales, double price, double capacity, String vendor) {
+    }
+
+    private static final Map<String, Profile> PROFILES = Map.of(
+        "Petrol", new Profile(3500, 96.0, 20000, "Indian Oil Corporation Ltd"),
+        "Diesel", new Profile(5200, 89.0, 30000, "Indian Oil Corporation Ltd"),
+        "CNG", new Profile(1400, 76.0, 6000, "Indraprastha Gas Ltd"),
+        "XP95", new Profile(300, 104.0, 9000, "Indian Oil Corporation Ltd"));
+
+    private static final String[] ROLES = {"Manager", "Cashier", "Cashier", "Attendant", "Attendant", "Attendant",
+        "Attendant", "Attendant", "Attendant", "Attendant", "Attendant", "Attendant"};
+
+    private static final int CHUNK = 2000;
+
+    private BenchmarkData() {
+    }
+
+    static void seed(ApplicationContext context, int years) {
+        Random random = new Random(42);
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusYears(years);
+
+        context.getBean(ProductService.class).initializeDefaultProducts();
+        List<Product> products = context.getBean(ProductRepository.class).findAll();
+        seedEntriesAndChallans(context, products, start, end, random);
+        seedAttendance(context, start, end, random);
+    }
+
+    private static void seedEntriesAndChallans(ApplicationContext context, List<Product> products,
+                                               LocalDate start, LocalDate end, Random random) {
+        DailyEntryBulkService bulkService = context.getBean(DailyEntryBulkService.class);
+        ChallanRepository challanRepository = context.getBean(ChallanRepository.class);
+
+        double[] stock = new double[products.size()];
+        double[] price = new double[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Profile profile = PROFILES.get(products.get(i).getName());
+            stock[i] = profile.capacity() * 0.8;
+            price[i] = profile.price();
+        }
+
+        List<DailyEntryRequest> entries = new ArrayList<>();
+        List<Challan> challans = new ArrayList<>();
+        long days = end.toEpochDay() - start.toEpochDay();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            double growth = 1.0 + 0.15 * (date.toEpochDay() - start.toEpochDay()) / Math.max(1, days);
+            double weekday = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY ? 1.25 : 1.0;
+            for (int i = 0; i < products.size(); i++) {
+                Product product = products.get(i);
+                Profile profile = PROFILES.get(product.getName());
+                if (date.getDayOfMonth() == 1) {
+                    price[i] = round(price[i] * (1 + (random.nextDouble() - 0.45) * 0.02));
+                }
+                double sales = round(Math.min(stock[i],
+                    profile.dailySales() * growth * weekday * (0.85 + random.nextDouble() * 0.3)));
+                Double delivery = null;
+                if (stock[i] - sales < profile.capacity() / 4) {
+                    delivery = Math.floor((profile.capacity() - stock[i] + sales) / 1000) * 1000;
+                    challans.add(challan(date, product.getName(), delivery, price[i] * 0.96, profile.vendor(),
+                        challans.size() + 1));
+                }
+
+                DailyEntryRequest request = new DailyEntryRequest(date, product.getId(), stock[i], sales, delivery,
+                    price[i], round(24 + 10 * Math.sin(date.getDayOfYear() / 58.0) + random.nextGaussian()), null);
+                entries.add(request);
+                stock[i] = round(stock[i] - sales + (delivery != null ? delivery : 0));
+            }
+            if (entries.size() >= CHUNK) {
+                bulkService.createDailyEntries(entries);
+                entries.clear();
+            }
+        }
+        bulkService.createDailyEntries(entries);
+        challanRepository.saveAll(challans);
+    }
+
+    private static void seedAttendance(ApplicationContext context, LocalDate start, LocalDate end, Random random) {
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        AttendanceRepository attendanceRepository = context.getBean(AttendanceRepository.class);
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < ROLES.length; i++) {
+            employees.add(new Employee(null, "Employee " + (i + 1), "98100" + String.format("%05d", i),
+                "employee" + (i + 1) + "@pump.local", ROLES[i], start, "Active", null, null));
+        }
+        employees = employeeRepository.saveAll(employees);
+
+        List<Attendance> attendance = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            for (int i = 0; i < employees.size(); i++) {
+                double roll = random.nextDouble();
+                String status = roll < 0.88 ? "Present" : roll < 0.93 ? "Half-day" : roll < 0.97 ? "Leave" : "Absent";
+                LocalTime checkIn = null;
+                LocalTime checkOut = null;
+                if (status.equals("Present") || status.equals("Half-day")) {
+                    // Morning and evening shifts, a few minutes either side of the hour
+                    checkIn = LocalTime.of(i % 2 == 0 ? 6 : 14, 0).plusMinutes(random.nextInt(20) - 10);
+                    checkOut = checkIn.plusHours(status.equals("Present") ? 8 : 4).plusMinutes(random.nextInt(30));
+                }
+                attendance.add(new Attendance(null, employees.get(i), date, checkIn, checkOut, status, null, null));
+            }
+            if (attendance.size() >= CHUNK) {
+                attendanceRepository.saveAll(attendance);
+                attendance.clear();
+            }
+        }
+        attendanceRepository.saveAll(attendance);
+        context.getBean(AttendanceSummaryService.class).rebuildSummaries();
+    }
+
+    private static Challan challan(LocalDate date, String fuelType, double quantity, double price, String vendor,
+                                   int number) {
+        Challan challan = new Challan();
+        challan.setDate(date);
+        challan.setFuelType(fuelType);
+        challan.setQuantity(quantity);
+        challan.setPricePerLiter(round(price));
+        challan.setTotalAmount(round(quantity * price));
+        challan.setVendorName(vendor);
+        challan.setChallanNumber(String.format("BM/%d/%06d", date.getYear(), number));
+        return challan;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
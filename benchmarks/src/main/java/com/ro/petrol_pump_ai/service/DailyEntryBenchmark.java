@@ -0,0 +1,49 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.DailyEntryRequest;
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.entity.Product;
+import com.ro.petrol_pump_ai.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DailyEntryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        DailyEntryService dailyEntryService;
+        List<Long> productIds;
+        LocalDate firstDay;
+
+        // Each call takes the next free (day, product) slot after the seeded history
+        final AtomicLong next = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication application) {
+            dailyEntryService = application.bean(DailyEntryService.class);
+            productIds = application.bean(ProductRepository.class).findAll().stream().map(Product::getId).toList();
+            firstDay = LocalDate.now().plusDays(1);
+        }
+
+        DailyEntryRequest nextRequest() {
+            long slot = next.getAndIncrement();
+            Long productId = productIds.get((int) (slot % productIds.size()));
+            LocalDate date = firstDay.plusDays(slot / productIds.size());
+            return new DailyEntryRequest(date, productId, 18000.0, 3400.0, null, 96.5, 28.0, null);
+        }
+    }
+
+    @Benchmark
+    public DailyEntryResponse createDailyEntry(Services services, SeededApplication.Outlet outlet) {
+        return services.dailyEntryService.createDailyEntry(services.nextRequest());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.DashboardResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+        DashboardService dashboardService;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication application) {
+            dashboardService = application.bean(DashboardService.class);
+        }
+    }
+
+    @Benchmark
+    public DashboardResponse getDashboardData(Services services, SeededApplication.Outlet outlet) {
+        return services.dashboardService.getDashboardData();
+    }
+
+    // Fewer threads than connections in the pool, as under normal dashboard polling
+    @Benchmark
+    @Threads(4)
+    public DashboardResponse getDashboardDataConcurrently(Services services, SeededApplication.Outlet outlet) {
+        return services.dashboardService.getDashboardData();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.EmployeeResponse;
+import com.ro.petrol_pump_ai.entity.Attendance;
+import com.ro.petrol_pump_ai.entity.DailyEntry;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping. The employee and attendance mappers are private to
+ * their services and only call the response constructors, so those constructors
+ * are measured directly; they are also what the read projections run per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private DailyEntry entry;
+    private Attendance attendance;
+    private Employee employee;
+
+    @Setup
+    public void setUp() {
+        Product product = new Product(1L, "Petrol", "Lts", LocalDateTime.now(), LocalDateTime.now());
+        entry = new DailyEntry(1L, LocalDate.now(), product, 18000.0, 3400.0, 12000.0, null, 96.5, null, 28.0,
+            "Evening dip reading", LocalDateTime.now(), LocalDateTime.now());
+        entry.calculateClosingStock();
+        entry.calculateRevenue();
+        employee = new Employee(1L, "Ravi Kumar", "9810000001", "ravi@pump.local", "Attendant",
+            LocalDate.now().minusYears(2), "Active", LocalDateTime.now(), LocalDateTime.now());
+        attendance = new Attendance(1L, employee, LocalDate.now(), LocalTime.of(6, 2), LocalTime.of(14, 11),
+            "Present", null, LocalDateTime.now());
+    }
+
+    @Benchmark
+    public DailyEntryResponse dailyEntry() {
+        return DailyEntryService.convertToResponse(entry);
+    }
+
+    @Benchmark
+    public AttendanceResponse attendance() {
+        return new AttendanceResponse(attendance.getId(), attendance.getEmployee().getId(),
+            attendance.getEmployee().getName(), attendance.getAttendanceDate(), attendance.getCheckInTime(),
+            attendance.getCheckOutTime(), attendance.getStatus(), attendance.getRemarks());
+    }
+
+    @Benchmark
+    public EmployeeResponse employee() {
+        return new EmployeeResponse(employee.getId(), employee.getName(), employee.getPhone(), employee.getEmail(),
+            employee.getRole(), employee.getHireDate(), employee.getStatus(), employee.getCreatedAt());
+    }
+}
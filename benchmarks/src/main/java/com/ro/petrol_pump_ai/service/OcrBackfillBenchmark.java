@@ -0,0 +1,91 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import com.ro.petrol_pump_ai.dto.OcrBackfillResponse;
+import com.ro.petrol_pump_ai.entity.OcrJob;
+import com.ro.petrol_pump_ai.repository.OcrJobRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-extraction of completed OCR jobs from their stored text, over the
+ * fixtures. Each invocation starts from results that predate the current
+ * rules, so every job is extracted and saved again.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OcrBackfillBenchmark {
+
+    private static final String[] FIXTURES = {"challan-iocl", "challan-bpcl", "challan-dealer"};
+
+    @State(Scope.Benchmark)
+    public static class Jobs {
+        OcrJobService ocrJobService;
+        JdbcTemplate jdbcTemplate;
+
+        // Fixture name to its stale result, holding only the raw text
+        final Map<String, String> staleResults = new LinkedHashMap<>();
+
+        @Param("10000")
+        public int jobs;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication application) throws IOException {
+            ocrJobService = application.bean(OcrJobService.class);
+            jdbcTemplate = application.bean(JdbcTemplate.class);
+            ObjectMapper objectMapper = application.bean(ObjectMapper.class);
+            for (String fixture : FIXTURES) {
+                ChallanExtractedData stale = new ChallanExtractedData();
+                stale.setRawText(read(fixture));
+                staleResults.put(fixture, objectMapper.writeValueAsString(stale));
+            }
+
+            List<OcrJob> batch = new ArrayList<>();
+            for (int i = 0; i < jobs; i++) {
+                OcrJob job = new OcrJob();
+                job.setId(UUID.randomUUID().toString());
+                job.setStatus("COMPLETED");
+                job.setFileName(FIXTURES[i % FIXTURES.length]);
+                job.setCreatedAt(LocalDateTime.now().minusMinutes(jobs - i));
+                job.setResultJson(staleResults.get(job.getFileName()));
+                batch.add(job);
+            }
+            application.bean(OcrJobRepository.class).saveAll(batch);
+        }
+
+        @Setup(Level.Invocation)
+        public void resetResults() {
+            staleResults.forEach((fixture, json) ->
+                jdbcTemplate.update("UPDATE ocr_jobs SET result_json = ? WHERE file_name = ?", json, fixture));
+        }
+
+        private static String read(String fixture) throws IOException {
+            try (InputStream input = OcrBackfillBenchmark.class.getResourceAsStream("/fixtures/" + fixture + ".txt")) {
+                if (input == null) {
+                    throw new IOException("Missing fixture " + fixture);
+                }
+                return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    @Benchmark
+    public OcrBackfillResponse reextractCompletedJobs(Jobs jobs) {
+        return jobs.ocrJobService.reextractCompletedJobs();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ro.petrol_pump_ai.dto.ChallanExtractedData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Challan OCR on the fixtures under /fixtures. Each fixture's text is rendered
+ * to an A4 page at 300 dpi and JPEG-encoded, like a phone scan, then run through
+ * the same pipeline as an upload. Only the OCR beans are started; the result
+ * cache is off so every call does the full work.
+ *
+ * extractChallan needs libtesseract and the eng traineddata on the host
+ * (ocr.tesseract.datapath / TESSDATA_PREFIX); without them it errors and the
+ * other benchmarks still run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OcrBenchmark {
+
+    private static final int PAGE_WIDTH = 2480;
+    private static final int PAGE_HEIGHT = 3508;
+
+    @Param({"challan-iocl", "challan-bpcl", "challan-dealer"})
+    public String fixture;
+
+    private AnnotationConfigApplicationContext context;
+    private OCRService ocrService;
+    private OcrImagePipeline imagePipeline;
+    private ChallanFieldExtractor fieldExtractor;
+
+    private String text;
+    private byte[] scan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+            Map.of("ocr.cache.enabled", "false", "ocr.tesseract.pool-size", "1")));
+        context.registerBean(ObjectMapper.class, () -> new ObjectMapper().findAndRegisterModules());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(TesseractEnginePool.class, OcrImagePipeline.class, ChallanFieldExtractor.class,
+            OcrResultCache.class, OCRService.class);
+        context.refresh();
+        ocrService = context.getBean(OCRService.class);
+        imagePipeline = context.getBean(OcrImagePipeline.class);
+        fieldExtractor = context.getBean(ChallanFieldExtractor.class);
+
+        try (InputStream input = OcrBenchmark.class.getResourceAsStream("/fixtures/" + fixture + ".txt")) {
+            if (input == null) {
+                throw new IOException("Missing fixture " + fixture);
+            }
+            text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        scan = render(text);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Decode, scale and grayscale, up to the point the page is handed to Tesseract
+    @Benchmark
+    public List<BufferedImage> loadPages() throws IOException {
+        return imagePipeline.loadPages(new ByteArrayInputStream(scan));
+    }
+
+    @Benchmark
+    public ChallanExtractedData extractFields() {
+        return fieldExtractor.extract(text);
+    }
+
+    @Benchmark
+    public ChallanExtractedData extractChallan() throws IOException {
+        return ocrService.extractChallanData(new ByteArrayInputStream(scan), page -> { });
+    }
+
+    private static byte[] render(String text) throws IOException {
+        BufferedImage page = new BufferedImage(PAGE_WIDTH, PAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = page.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, PAGE_WIDTH, PAGE_HEIGHT);
+            g.setColor(Color.BLACK);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 42));
+            int y = 240;
+            for (String line : text.split("\n")) {
+                g.drawString(line, 180, y);
+                y += 64;
+            }
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(page, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.PayrollRunResponse;
+import com.ro.petrol_pump_ai.entity.AttendanceSummary;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.entity.SalaryStructure;
+import com.ro.petrol_pump_ai.repository.AttendanceSummaryRepository;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.repository.SalaryStructureRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole month's payroll for a large outlet. Each invocation starts from no
+ * slips, so it measures a full run rather than a resume.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PayrollBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Staff {
+        PayrollService payrollService;
+        JdbcTemplate jdbcTemplate;
+        YearMonth month;
+
+        @Param("10000")
+        public int employees;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication application) {
+            payrollService = application.bean(PayrollService.class);
+            jdbcTemplate = application.bean(JdbcTemplate.class);
+            month = YearMonth.now().minusMonths(1);
+            OutletContext.run(SeededApplication.OUTLET_ID, () -> seed(application));
+        }
+
+        // Salary structures and a month of attendance, as the summaries would hold it
+        private void seed(SeededApplication application) {
+            EmployeeRepository employeeRepository = application.bean(EmployeeRepository.class);
+            SalaryStructureRepository structureRepository = application.bean(SalaryStructureRepository.class);
+            AttendanceSummaryRepository summaryRepository = application.bean(AttendanceSummaryRepository.class);
+            Random random = new Random(42);
+            LocalDate monthStart = month.atDay(1);
+
+            for (int from = 0; from < employees; from += 1000) {
+                List<Employee> batch = new ArrayList<>();
+                for (int i = from; i < Math.min(from + 1000, employees); i++) {
+                    batch.add(new Employee(null, "Payroll " + (i + 1), null, null, i % 20 == 0 ? "Cashier" : "Attendant",
+                        monthStart.minusYears(1), "Active", null, null));
+                }
+                batch = employeeRepository.saveAll(batch);
+
+                List<SalaryStructure> structures = new ArrayList<>();
+                List<AttendanceSummary> summaries = new ArrayList<>();
+                for (Employee employee : batch) {
+                    double basic = 12000 + random.nextInt(8) * 1000;
+                    structures.add(new SalaryStructure(null, employee, basic, basic * 0.2, 200.0, 12.0,
+                        random.nextBoolean() ? 120.0 : null, null));
+                    int present = 20 + random.nextInt(6);
+                    int half = random.nextInt(2);
+                    int leave = random.nextInt(2);
+                    summaries.add(new AttendanceSummary(null, employee, monthStart, present, 26 - present - half - leave,
+                        leave, half, (present * 8L + half * 4L) * 3600 + random.nextInt(20) * 1800L, null));
+                }
+                structureRepository.saveAll(structures);
+                summaryRepository.saveAll(summaries);
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void clearMonth() {
+            jdbcTemplate.update("DELETE FROM salary_slips WHERE outlet_id = ? AND month_start = ?",
+                SeededApplication.OUTLET_ID, month.atDay(1));
+            jdbcTemplate.update("DELETE FROM payroll_runs WHERE outlet_id = ? AND month_start = ?",
+                SeededApplication.OUTLET_ID, month.atDay(1));
+        }
+    }
+
+    @Benchmark
+    public PayrollRunResponse runPayroll(Staff staff, SeededApplication.Outlet outlet) {
+        return staff.payrollService.runPayroll(staff.month);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.dto.AttendanceResponse;
+import com.ro.petrol_pump_ai.dto.DailyEntryResponse;
+import com.ro.petrol_pump_ai.dto.EmployeeResponse;
+import com.ro.petrol_pump_ai.entity.Attendance;
+import com.ro.petrol_pump_ai.entity.Employee;
+import com.ro.petrol_pump_ai.repository.AttendanceRepository;
+import com.ro.petrol_pump_ai.repository.DailyEntryRepository;
+import com.ro.petrol_pump_ai.repository.EmployeeRepository;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity loading plus the old per-row mapping against the JPQL constructor
+ * projections the services read through. Each call runs in its own read-only
+ * transaction, so it starts from an empty persistence context like a request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionQueryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Repositories {
+        TransactionTemplate readOnly;
+        AttendanceRepository attendanceRepository;
+        DailyEntryRepository dailyEntryRepository;
+        EmployeeRepository employeeRepository;
+        LocalDate today;
+
+        // Staff on top of the seeded dozen, all marked today, so the attendance and employee lists are sizeable
+        @Param("1000")
+        public int staff;
+
+        @Setup(Level.Trial)
+        public void setUp(SeededApplication application) {
+            readOnly = new TransactionTemplate(application.bean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            attendanceRepository = application.bean(AttendanceRepository.class);
+            dailyEntryRepository = application.bean(DailyEntryRepository.class);
+            employeeRepository = application.bean(EmployeeRepository.class);
+            today = LocalDate.now();
+            OutletContext.run(SeededApplication.OUTLET_ID, this::seedStaff);
+        }
+
+        private void seedStaff() {
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < staff; i++) {
+                employees.add(new Employee(null, "Staff " + (i + 1), "97100" + String.format("%05d", i), null,
+                    "Attendant", today.minusYears(1), "Active", null, null));
+            }
+            employees = employeeRepository.saveAll(employees);
+            List<Attendance> attendance = new ArrayList<>();
+            for (Employee employee : employees) {
+                attendance.add(new Attendance(null, employee, today, LocalTime.of(6, 0), LocalTime.of(14, 0),
+                    "Present", null, null));
+            }
+            attendanceRepository.saveAll(attendance);
+        }
+    }
+
+    @Benchmark
+    public List<AttendanceResponse> attendanceEntities(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status -> repositories.attendanceRepository
+            .findByAttendanceDate(repositories.today).stream().map(ProjectionQueryBenchmark::toResponse).toList());
+    }
+
+    @Benchmark
+    public List<AttendanceResponse> attendanceProjection(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status ->
+            repositories.attendanceRepository.findResponsesByAttendanceDate(repositories.today));
+    }
+
+    @Benchmark
+    public List<DailyEntryResponse> dailyEntriesEntities(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status -> repositories.dailyEntryRepository
+            .findByEntryDateBetweenOrderByEntryDateDesc(repositories.today.minusYears(1), repositories.today)
+            .stream().map(DailyEntryService::convertToResponse).toList());
+    }
+
+    @Benchmark
+    public List<DailyEntryResponse> dailyEntriesProjection(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status -> repositories.dailyEntryRepository
+            .findResponsesByEntryDateBetween(repositories.today.minusYears(1), repositories.today));
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeesEntities(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status -> repositories.employeeRepository.findByStatus("Active")
+            .stream().map(ProjectionQueryBenchmark::toResponse).toList());
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> employeesProjection(Repositories repositories, SeededApplication.Outlet outlet) {
+        return repositories.readOnly.execute(status -> repositories.employeeRepository.findResponsesByStatus("Active"));
+    }
+
+    // The services' convertToResponse before the projections
+    private static AttendanceResponse toResponse(Attendance attendance) {
+        return new AttendanceResponse(attendance.getId(), attendance.getEmployee().getId(),
+            attendance.getEmployee().getName(), attendance.getAttendanceDate(), attendance.getCheckInTime(),
+            attendance.getCheckOutTime(), attendance.getStatus(), attendance.getRemarks());
+    }
+
+    private static EmployeeResponse toResponse(Employee employee) {
+        return new EmployeeResponse(employee.getId(), employee.getName(), employee.getPhone(), employee.getEmail(),
+            employee.getRole(), employee.getHireDate(), employee.getStatus(), employee.getCreatedAt());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ro.petrol_pump_ai.service;
+
+import com.ro.petrol_pump_ai.PetrolPumpAiApplication;
+import com.ro.petrol_pump_ai.util.OutletContext;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The backend, without its web layer, on an in-memory H2 database seeded with
+ * {@link #years} of pump history for the default outlet. Started once per fork
+ * and shared by every benchmark thread.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    public static final Long OUTLET_ID = 1L;
+
+    // Benchmarks that call outlet-scoped services take this, as a request would have its outlet selected
+    @State(Scope.Thread)
+    public static class Outlet {
+
+        @Setup(Level.Trial)
+        public void select() {
+            OutletContext.set(OUTLET_ID);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            OutletContext.clear();
+        }
+    }
+
+    @Param("3")
+    public int years;
+
+    private ConfigurableApplicationContext context;
+    private Path workDir;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        workDir = Files.createTempDirectory("petrol-pump-benchmark");
+        // Passed as arguments so they win over any application.properties packaged with the backend
+        context = new SpringApplicationBuilder(PetrolPumpAiApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--reports.archive.enabled=false",
+                "--reports.archive.dir=" + workDir.resolve("reports"),
+                "--forecast.snapshot-path=" + workDir.resolve("forecast-models.json"),
+                "--ocr.tesseract.pool-size=1");
+        OutletContext.run(OUTLET_ID, () -> BenchmarkData.seed(context, years));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir.toFile());
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
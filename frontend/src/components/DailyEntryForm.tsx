@@ -10,7 +10,7 @@ import {
   InputLabel,
   FormControl,
 } from "@mui/material";
-import api from "../services/api";
+import api, { fetchAllPages } from "../services/api";
 
 interface Product {
   id: number;
@@ -43,9 +43,8 @@ const DailyEntryForm: React.FC = () => {
   });
 
   useEffect(() => {
-    api
-      .get<Product[]>("/products")
-      .then((res) => setProducts(res.data))
+    fetchAllPages<Product>("/products")
+      .then(setProducts)
       .catch(() => alert("Could not fetch products"));
   }, []);
 
@@ -27,7 +27,7 @@ import {
 } from "@mui/material";
 import DeleteIcon from "@mui/icons-material/Delete";
 import EditIcon from "@mui/icons-material/Edit";
-import api from "../services/api";
+import api, { fetchAllPages } from "../services/api";
 
 interface Employee {
   id: number;
@@ -69,10 +69,9 @@ const EmployeeList: React.FC<EmployeeListProps> = ({ refresh, onEdit }) => {
   const loadEmployees = () => {
     setLoading(true);
     setError("");
-    api
-      .get("/employees")
-      .then((res) => {
-        setEmployees(res.data);
+    fetchAllPages("/employees")
+      .then((items) => {
+        setEmployees(items);
       })
       .catch((err) => {
         setError("Failed to load employees");
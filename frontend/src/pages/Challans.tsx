@@ -7,17 +7,20 @@ import api from '../services/api';
 
 const Challans = () => {
   const [challans, setChallans] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(false);
   const [dialogOpen, setDialogOpen] = useState(false);
   const [file, setFile] = useState(null);
   const [uploading, setUploading] = useState(false);
   const [snack, setSnack] = useState({open:false, msg:'', severity:"success"});
 
-  const fetchChallans = async () => {
+  // Without a cursor the list starts over from the newest; with one the next page is appended
+  const fetchChallans = async (cursor = null) => {
     setLoading(true);
     try {
-      const res = await api.get('/challans');
-      setChallans(res.data);
+      const res = await api.get('/challans', { params: { cursor: cursor ?? undefined } });
+      setChallans(prev => cursor ? [...prev, ...res.data.items] : res.data.items);
+      setNextCursor(res.data.nextCursor);
     } catch {
       setSnack({open:true, msg:'Failed to fetch challans', severity:"error"});
     }
@@ -89,6 +92,11 @@ const Challans = () => {
           </TableBody>
         </Table>
       </TableContainer>
+      {nextCursor && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+          <Button variant="outlined" disabled={loading} onClick={() => fetchChallans(nextCursor)}>Load more</Button>
+        </Box>
+      )}
       {/* Upload Dialog */}
       <Dialog open={dialogOpen} onClose={handleDialogClose}>
         <form onSubmit={handleUpload}>
@@ -6,7 +6,7 @@ import {
   alpha, useTheme
 } from '@mui/material';
 import { AddCircle as AddCircleIcon, Save as SaveIcon, Refresh as RefreshIcon } from '@mui/icons-material';
-import api from '../services/api';
+import api, { fetchAllPages } from '../services/api';
 
 interface Entry {
   id: number;
@@ -68,8 +68,7 @@ export default function DailyEntries() {
   };
   const fetchProducts = async () => {
     try {
-      const res = await api.get('/products');
-      setProducts(res.data);
+      setProducts(await fetchAllPages('/products'));
     } catch { }
   };
 
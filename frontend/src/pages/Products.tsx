@@ -7,7 +7,7 @@ import {
 import AddIcon from '@mui/icons-material/Add';
 import EditIcon from '@mui/icons-material/Edit';
 import DeleteIcon from '@mui/icons-material/Delete';
-import api from '../services/api';
+import api, { fetchAllPages } from '../services/api';
 
 const Products = () => {
   const [products, setProducts] = useState([]);
@@ -20,8 +20,7 @@ const Products = () => {
   const fetchProducts = async () => {
     setLoading(true);
     try {
-      const res = await api.get('/products');
-      setProducts(res.data);
+      setProducts(await fetchAllPages('/products'));
     } catch (e) {
       setProducts([]);
       setSnack({open:true, msg:'Failed to fetch products', severity:"error"});
@@ -1,7 +1,20 @@
 import axios from "axios";
+import type { CursorPage } from "../types";
 
 const api = axios.create({
   baseURL: "http://localhost:8080/api",
 });
 
+// Follows nextCursor until the last page, for lookups that need the whole list
+export async function fetchAllPages<T>(url: string, params: Record<string, unknown> = {}): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | null = null;
+  do {
+    const res = await api.get<CursorPage<T>>(url, { params: { ...params, limit: 200, cursor: cursor ?? undefined } });
+    items.push(...res.data.items);
+    cursor = res.data.nextCursor;
+  } while (cursor);
+  return items;
+}
+
 export default api;
@@ -94,3 +94,10 @@ export interface User {
   createdAt: string;
   updatedAt: string;
 }
+
+// List endpoints return one keyset page; pass nextCursor back as `cursor` for the next one
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  limit: number;
+}